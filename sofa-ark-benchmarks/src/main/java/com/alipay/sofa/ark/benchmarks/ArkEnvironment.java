@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.ark.benchmarks;
+
+import com.alipay.sofa.ark.common.util.StringUtils;
+import com.alipay.sofa.ark.container.model.BizModel;
+import com.alipay.sofa.ark.container.model.PluginModel;
+import com.alipay.sofa.ark.container.pipeline.RegisterServiceStage;
+import com.alipay.sofa.ark.container.service.ArkServiceContainer;
+import com.alipay.sofa.ark.container.service.classloader.BizClassLoader;
+import com.alipay.sofa.ark.container.service.classloader.PluginClassLoader;
+import com.alipay.sofa.ark.loader.archive.JarFileArchive;
+import com.alipay.sofa.ark.loader.jar.JarFile;
+import com.alipay.sofa.ark.spi.archive.Archive;
+import com.alipay.sofa.ark.spi.model.BizState;
+import com.alipay.sofa.ark.spi.service.biz.BizManagerService;
+import com.alipay.sofa.ark.spi.service.classloader.ClassLoaderService;
+import com.alipay.sofa.ark.spi.service.extension.ArkServiceLoader;
+import com.alipay.sofa.ark.spi.service.extension.ExtensionLoaderService;
+import com.alipay.sofa.ark.spi.service.plugin.PluginManagerService;
+import org.apache.commons.io.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.List;
+
+/**
+ * A started ark service container with one plugin exporting its packages and
+ * resources, and one biz importing them, both backed by synthetic fat jars.
+ *
+ * @author ruoshan
+ * @since 1.1.7
+ */
+public class ArkEnvironment {
+
+    public static final String  PLUGIN_NAME         = "bench-plugin";
+
+    public static final String  BIZ_NAME            = "bench-biz";
+
+    public static final String  BIZ_VERSION         = "1.0.0";
+
+    private ArkServiceContainer arkServiceContainer = new ArkServiceContainer(new String[] {});
+
+    private File                workingDirectory;
+
+    private ClassLoaderService  classLoaderService;
+
+    private PluginClassLoader   pluginClassLoader;
+
+    private BizClassLoader      bizClassLoader;
+
+    public void start() throws IOException {
+        JarFile.registerUrlProtocolHandler();
+        workingDirectory = Files.createTempDirectory("sofa-ark-benchmarks").toFile();
+
+        arkServiceContainer.start();
+        arkServiceContainer.getService(RegisterServiceStage.class).process(null);
+        ArkServiceLoader.setExtensionLoaderService(arkServiceContainer
+            .getService(ExtensionLoaderService.class));
+        classLoaderService = arkServiceContainer.getService(ClassLoaderService.class);
+
+        PluginModel plugin = new PluginModel();
+        plugin
+            .setPluginName(PLUGIN_NAME)
+            .setPriority("100")
+            .setClassPath(
+                nestedUrls(SyntheticJars.createPluginJar(workingDirectory), "lib/plugin-lib-"))
+            .setImportClasses(StringUtils.EMPTY_STRING)
+            .setImportPackages(StringUtils.EMPTY_STRING)
+            .setImportResources(StringUtils.EMPTY_STRING)
+            .setExportClasses(StringUtils.EMPTY_STRING)
+            .setExportPackages("com.alipay.sofa.ark.bench.export.*")
+            .setExportResources(
+                SyntheticJars.SHARED_RESOURCE + "," + SyntheticJars.RESOURCE_DIRECTORY + "export-*")
+            .setPluginClassLoader(
+                new PluginClassLoader(plugin.getPluginName(), plugin.getClassPath()));
+        arkServiceContainer.getService(PluginManagerService.class).registerPlugin(plugin);
+        classLoaderService.prepareExportClassAndResourceCache();
+        pluginClassLoader = (PluginClassLoader) plugin.getPluginClassLoader();
+
+        BizModel biz = new BizModel().setBizState(BizState.RESOLVED);
+        biz.setBizName(BIZ_NAME).setBizVersion(BIZ_VERSION)
+            .setClassPath(nestedUrls(SyntheticJars.createBizJar(workingDirectory), "lib/biz-lib-"))
+            .setClassLoader(new BizClassLoader(biz.getIdentity(), biz.getClassPath()))
+            .setDenyImportPackages(StringUtils.EMPTY_STRING)
+            .setDenyImportClasses(StringUtils.EMPTY_STRING)
+            .setDenyImportResources(StringUtils.EMPTY_STRING);
+        arkServiceContainer.getService(BizManagerService.class).registerBiz(biz);
+        bizClassLoader = (BizClassLoader) biz.getBizClassLoader();
+    }
+
+    public void stop() {
+        arkServiceContainer.stop();
+        if (workingDirectory != null) {
+            FileUtils.deleteQuietly(workingDirectory);
+        }
+    }
+
+    public ClassLoaderService getClassLoaderService() {
+        return classLoaderService;
+    }
+
+    public PluginClassLoader getPluginClassLoader() {
+        return pluginClassLoader;
+    }
+
+    public BizClassLoader getBizClassLoader() {
+        return bizClassLoader;
+    }
+
+    private static URL[] nestedUrls(File fatJar, final String libPrefix) throws IOException {
+        List<Archive> archives = new JarFileArchive(fatJar)
+            .getNestedArchives(new Archive.EntryFilter() {
+                @Override
+                public boolean matches(Archive.Entry entry) {
+                    return !entry.isDirectory() && entry.getName().startsWith(libPrefix);
+                }
+            });
+        URL[] urls = new URL[archives.size()];
+        for (int i = 0; i < urls.length; ++i) {
+            urls[i] = archives.get(i).getUrl();
+        }
+        return urls;
+    }
+}
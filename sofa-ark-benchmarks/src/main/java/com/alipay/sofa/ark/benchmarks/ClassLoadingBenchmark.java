@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.ark.benchmarks;
+
+import com.alipay.sofa.ark.loader.jar.Handler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.alipay.sofa.ark.benchmarks.SyntheticJars.exportClassName;
+import static com.alipay.sofa.ark.benchmarks.SyntheticJars.localClassName;
+
+/**
+ * Class loading hot path of biz and plugin classloader. Run with
+ * {@code java -jar sofa-ark-benchmarks/target/benchmarks.jar ClassLoadingBenchmark}.
+ *
+ * @author ruoshan
+ * @since 1.1.7
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClassLoadingBenchmark {
+
+    private static final String MISSING_CLASS      = "com.alipay.sofa.ark.bench.missing.Missing";
+
+    private static final String EXPORT_CLASS       = exportClassName(0, 0);
+
+    private static final String LOCAL_CLASS        = localClassName(0, 0);
+
+    private static final String UNEXPORTED_PACKAGE = "com.alipay.sofa.ark.bench.unexported.A";
+
+    private ArkEnvironment      arkEnvironment;
+
+    @Setup
+    public void setup() throws Exception {
+        arkEnvironment = new ArkEnvironment();
+        arkEnvironment.start();
+        arkEnvironment.getBizClassLoader().loadClass(LOCAL_CLASS);
+        arkEnvironment.getPluginClassLoader().loadClass(EXPORT_CLASS);
+    }
+
+    @TearDown
+    public void tearDown() {
+        arkEnvironment.stop();
+    }
+
+    @Benchmark
+    public Class<?> bizLoadClassHit() throws ClassNotFoundException {
+        return arkEnvironment.getBizClassLoader().loadClass(LOCAL_CLASS);
+    }
+
+    @Benchmark
+    public Class<?> bizLoadJdkClass() throws ClassNotFoundException {
+        return arkEnvironment.getBizClassLoader().loadClass("java.lang.String");
+    }
+
+    @Benchmark
+    public Class<?> bizLoadExportedClass() throws ClassNotFoundException {
+        return arkEnvironment.getBizClassLoader().loadClass(EXPORT_CLASS);
+    }
+
+    @Benchmark
+    public Class<?> bizLoadClassMiss() {
+        return loadMissingClass(arkEnvironment.getBizClassLoader());
+    }
+
+    @Benchmark
+    public Class<?> pluginLoadClassHit() throws ClassNotFoundException {
+        return arkEnvironment.getPluginClassLoader().loadClass(EXPORT_CLASS);
+    }
+
+    @Benchmark
+    public Class<?> pluginLoadClassMiss() {
+        return loadMissingClass(arkEnvironment.getPluginClassLoader());
+    }
+
+    @Benchmark
+    public ClassLoader findExportClassLoaderHit() {
+        return arkEnvironment.getClassLoaderService().findExportClassLoader(EXPORT_CLASS);
+    }
+
+    @Benchmark
+    public ClassLoader findExportClassLoaderMiss() {
+        return arkEnvironment.getClassLoaderService().findExportClassLoader(UNEXPORTED_PACKAGE);
+    }
+
+    /**
+     * Cost of the fast connection exception toggling which used to wrap every loadClass
+     * call, compare with {@link #bizLoadClassHit()}.
+     */
+    @Benchmark
+    public void handlerToggle() {
+        Handler.setUseFastConnectionExceptions(true);
+        Handler.setUseFastConnectionExceptions(false);
+    }
+
+    private static Class<?> loadMissingClass(ClassLoader classLoader) {
+        try {
+            return classLoader.loadClass(MISSING_CLASS);
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.ark.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.Enumeration;
+import java.util.concurrent.TimeUnit;
+
+import static com.alipay.sofa.ark.benchmarks.SyntheticJars.EXPORT_RESOURCE;
+import static com.alipay.sofa.ark.benchmarks.SyntheticJars.LOCAL_RESOURCE;
+import static com.alipay.sofa.ark.benchmarks.SyntheticJars.SHARED_RESOURCE;
+
+/**
+ * Resource lookup of biz and plugin classloader. Run with
+ * {@code java -jar sofa-ark-benchmarks/target/benchmarks.jar ResourceLookupBenchmark}.
+ *
+ * @author ruoshan
+ * @since 1.1.7
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResourceLookupBenchmark {
+
+    private static final String MISSING_RESOURCE = "META-INF/bench/missing.properties";
+
+    private ArkEnvironment      arkEnvironment;
+
+    @Setup
+    public void setup() throws Exception {
+        arkEnvironment = new ArkEnvironment();
+        arkEnvironment.start();
+    }
+
+    @TearDown
+    public void tearDown() {
+        arkEnvironment.stop();
+    }
+
+    @Benchmark
+    public URL bizGetLocalResource() {
+        return arkEnvironment.getBizClassLoader().getResource(LOCAL_RESOURCE);
+    }
+
+    @Benchmark
+    public URL bizGetExportedResource() {
+        return arkEnvironment.getBizClassLoader().getResource(EXPORT_RESOURCE);
+    }
+
+    @Benchmark
+    public URL bizGetMissingResource() {
+        return arkEnvironment.getBizClassLoader().getResource(MISSING_RESOURCE);
+    }
+
+    @Benchmark
+    public URL pluginGetLocalResource() {
+        return arkEnvironment.getPluginClassLoader().getResource(EXPORT_RESOURCE);
+    }
+
+    @Benchmark
+    public void bizGetLocalResources(Blackhole blackhole) throws IOException {
+        consume(arkEnvironment.getBizClassLoader().getResources(LOCAL_RESOURCE), blackhole);
+    }
+
+    @Benchmark
+    public void bizGetSharedResources(Blackhole blackhole) throws IOException {
+        consume(arkEnvironment.getBizClassLoader().getResources(SHARED_RESOURCE), blackhole);
+    }
+
+    @Benchmark
+    public void pluginGetSharedResources(Blackhole blackhole) throws IOException {
+        consume(arkEnvironment.getPluginClassLoader().getResources(SHARED_RESOURCE), blackhole);
+    }
+
+    private static void consume(Enumeration<URL> urls, Blackhole blackhole) {
+        while (urls.hasMoreElements()) {
+            blackhole.consume(urls.nextElement());
+        }
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.ark.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+
+/**
+ * Generate fat jars laid out as ark biz and ark plugin, i.e. an outer jar with stored
+ * nested jars under lib/. Classes are empty class files encoded by hand, so the
+ * benchmarks need nothing but the JDK to build their fixtures.
+ *
+ * @author ruoshan
+ * @since 1.1.7
+ */
+public class SyntheticJars {
+
+    public static final String EXPORT_PACKAGE_PREFIX = "com.alipay.sofa.ark.bench.export.pkg";
+
+    public static final String LOCAL_PACKAGE_PREFIX  = "com.alipay.sofa.ark.bench.local.pkg";
+
+    public static final String EXPORT_CLASS_PREFIX   = "Export";
+
+    public static final String LOCAL_CLASS_PREFIX    = "Local";
+
+    public static final String RESOURCE_DIRECTORY    = "META-INF/bench/";
+
+    public static final String SHARED_RESOURCE       = RESOURCE_DIRECTORY + "shared.properties";
+
+    public static final String EXPORT_RESOURCE       = RESOURCE_DIRECTORY + "export-0.properties";
+
+    public static final String LOCAL_RESOURCE        = RESOURCE_DIRECTORY + "local-0.properties";
+
+    public static final int    JAR_COUNT             = 16;
+
+    public static final int    CLASS_COUNT_PER_JAR   = 32;
+
+    /**
+     * Name of the j-th class in the i-th exported package
+     */
+    public static String exportClassName(int jar, int clazz) {
+        return EXPORT_PACKAGE_PREFIX + jar + "." + EXPORT_CLASS_PREFIX + clazz;
+    }
+
+    /**
+     * Name of the j-th class in the i-th local package
+     */
+    public static String localClassName(int jar, int clazz) {
+        return LOCAL_PACKAGE_PREFIX + jar + "." + LOCAL_CLASS_PREFIX + clazz;
+    }
+
+    public static File createPluginJar(File directory) throws IOException {
+        return createFatJar(new File(directory, "bench-plugin.jar"), "plugin-lib-",
+            EXPORT_PACKAGE_PREFIX, EXPORT_CLASS_PREFIX, "export-");
+    }
+
+    public static File createBizJar(File directory) throws IOException {
+        return createFatJar(new File(directory, "bench-biz.jar"), "biz-lib-", LOCAL_PACKAGE_PREFIX,
+            LOCAL_CLASS_PREFIX, "local-");
+    }
+
+    private static File createFatJar(File file, String libPrefix, String packagePrefix,
+                                     String classPrefix, String resourcePrefix) throws IOException {
+        try (JarOutputStream fatJar = new JarOutputStream(new FileOutputStream(file), manifest())) {
+            fatJar.putNextEntry(new JarEntry("lib/"));
+            fatJar.closeEntry();
+            for (int i = 0; i < JAR_COUNT; ++i) {
+                byte[] nestedJar = createNestedJar(packagePrefix + i, classPrefix, resourcePrefix
+                                                                                   + i);
+                putStoredEntry(fatJar, "lib/" + libPrefix + i + ".jar", nestedJar);
+            }
+        }
+        return file;
+    }
+
+    private static byte[] createNestedJar(String packageName, String classPrefix,
+                                          String resourceName) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (JarOutputStream jar = new JarOutputStream(bytes, manifest())) {
+            Set<String> directories = new HashSet<>();
+            String packagePath = packageName.replace('.', '/');
+            putDirectories(jar, packagePath + "/", directories);
+            for (int j = 0; j < CLASS_COUNT_PER_JAR; ++j) {
+                String className = packagePath + "/" + classPrefix + j;
+                jar.putNextEntry(new JarEntry(className + ".class"));
+                jar.write(emptyClass(className));
+                jar.closeEntry();
+            }
+            putDirectories(jar, RESOURCE_DIRECTORY, directories);
+            jar.putNextEntry(new JarEntry(RESOURCE_DIRECTORY + resourceName + ".properties"));
+            jar.write(("name=" + resourceName).getBytes("UTF-8"));
+            jar.closeEntry();
+            jar.putNextEntry(new JarEntry(SHARED_RESOURCE));
+            jar.write(("name=" + resourceName).getBytes("UTF-8"));
+            jar.closeEntry();
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void putDirectories(JarOutputStream jar, String directory,
+                                       Set<String> directories) throws IOException {
+        int index = directory.indexOf('/');
+        while (index >= 0) {
+            String name = directory.substring(0, index + 1);
+            if (directories.add(name)) {
+                jar.putNextEntry(new JarEntry(name));
+                jar.closeEntry();
+            }
+            index = directory.indexOf('/', index + 1);
+        }
+    }
+
+    /**
+     * Nested jars must be stored, so that they can be read in place
+     */
+    private static void putStoredEntry(JarOutputStream jar, String name, byte[] content)
+                                                                                        throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(content);
+        JarEntry entry = new JarEntry(name);
+        entry.setMethod(ZipEntry.STORED);
+        entry.setSize(content.length);
+        entry.setCompressedSize(content.length);
+        entry.setCrc(crc.getValue());
+        jar.putNextEntry(entry);
+        jar.write(content);
+        jar.closeEntry();
+    }
+
+    private static Manifest manifest() {
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        return manifest;
+    }
+
+    /**
+     * Class file of {@code public class className extends Object}, without any member
+     */
+    private static byte[] emptyClass(String className) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0xCAFEBABE);
+        // java 6 class file version
+        out.writeShort(0);
+        out.writeShort(50);
+        // constant pool: #1 this class, #2 its name, #3 super class, #4 its name
+        out.writeShort(5);
+        out.writeByte(7);
+        out.writeShort(2);
+        out.writeByte(1);
+        out.writeUTF(className);
+        out.writeByte(7);
+        out.writeShort(4);
+        out.writeByte(1);
+        out.writeUTF("java/lang/Object");
+        // ACC_PUBLIC | ACC_SUPER
+        out.writeShort(0x0021);
+        out.writeShort(1);
+        out.writeShort(3);
+        // interfaces, fields, methods, attributes
+        out.writeShort(0);
+        out.writeShort(0);
+        out.writeShort(0);
+        out.writeShort(0);
+        out.flush();
+        return bytes.toByteArray();
+    }
+}
@@ -20,6 +20,7 @@ import com.alipay.sofa.ark.loader.ExecutableArkBizJar;
 import com.alipay.sofa.ark.loader.archive.ExplodedArchive;
 import com.alipay.sofa.ark.loader.archive.JarFileArchive;
 import com.alipay.sofa.ark.spi.archive.ExecutableArchive;
+import com.alipay.sofa.ark.spi.constant.Constants;
 
 import java.io.File;
 import java.net.URI;
@@ -70,8 +71,10 @@ public abstract class BaseExecutableArchiveLauncher extends AbstractLauncher {
         if (!root.exists()) {
             throw new IllegalStateException("Unable to determine code source archive from " + root);
         }
+        // ark config files are not loaded yet, only the system property takes effect here
         return root.isDirectory() ? new ExecutableArkBizJar(new ExplodedArchive(root))
-            : new ExecutableArkBizJar(new JarFileArchive(root), root.toURI().toURL());
+            : new ExecutableArkBizJar(new JarFileArchive(root, null,
+                Boolean.getBoolean(Constants.ARCHIVE_MMAP_ENABLE)), root.toURI().toURL());
     }
 
 }
\ No newline at end of file
@@ -23,7 +23,6 @@ import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.jar.Manifest;
@@ -70,13 +69,7 @@ public class ExecutableArkBizJar implements ExecutableArchive {
 
     @Override
     public List<Archive> getNestedArchives(EntryFilter filter) throws IOException {
-        List<Archive> nestedArchives = new ArrayList<>();
-        for (Entry entry : this) {
-            if (filter.matches(entry)) {
-                nestedArchives.add(getNestedArchive(entry));
-            }
-        }
-        return Collections.unmodifiableList(nestedArchives);
+        return this.archive.getNestedArchives(filter);
     }
 
     @Override
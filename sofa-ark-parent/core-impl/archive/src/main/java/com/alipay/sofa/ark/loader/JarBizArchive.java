@@ -49,6 +49,14 @@ public class JarBizArchive extends AbstractArchive implements BizArchive {
         this.archive = archive;
     }
 
+    /**
+     * Get the archive this biz is backed by
+     * @return backing archive
+     */
+    public Archive getArchive() {
+        return archive;
+    }
+
     @Override
     public URL getUrl() throws MalformedURLException {
         return this.archive.getUrl();
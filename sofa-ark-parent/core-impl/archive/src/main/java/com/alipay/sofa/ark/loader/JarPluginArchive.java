@@ -43,6 +43,14 @@ public class JarPluginArchive extends AbstractArchive implements PluginArchive {
         this.archive = archive;
     }
 
+    /**
+     * Get the archive this plugin is backed by
+     * @return backing archive
+     */
+    public Archive getArchive() {
+        return archive;
+    }
+
     public URL[] getExtensionUrls() {
         return extensionUrls;
     }
@@ -24,16 +24,21 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.Deque;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.NoSuchElementException;
+import java.util.Map;
 import java.util.Set;
 import java.util.jar.Manifest;
 import java.util.zip.ZipEntry;
@@ -46,15 +51,17 @@ import java.util.zip.ZipEntry;
  */
 public class ExplodedArchive implements Archive {
 
-    private static final Set<String> SKIPPED_NAMES = new HashSet<>(Arrays.asList(".", ".."));
+    private static final Comparator<Path> PATH_COMPARATOR = new PathComparator();
 
-    private final File               root;
+    private final File                    root;
 
-    private final boolean            recursive;
+    private final boolean                 recursive;
 
-    private File                     manifestFile;
+    private File                          manifestFile;
 
-    private Manifest                 manifest;
+    private Manifest                      manifest;
+
+    private volatile FileIndex            index;
 
     /**
      * Create a new {@link ExplodedArchive} instance.
@@ -119,12 +126,38 @@ public class ExplodedArchive implements Archive {
 
     @Override
     public Iterator<Entry> iterator() {
-        return new FileEntryIterator(this.root, this.recursive);
+        return Collections.<Entry> unmodifiableList(getIndex().entries).iterator();
+    }
+
+    /**
+     * Check whether an entry exists without touching the file system once the index
+     * has been built
+     * @param name entry name relative to root, directory names end with '/'
+     * @return whether the entry exists
+     */
+    public boolean containsEntry(String name) {
+        return getIndex().entryNames.contains(name);
+    }
+
+    /**
+     * Drop the file index, so changes of the folder are seen by the next walk
+     */
+    public void refresh() {
+        this.index = null;
     }
 
     public Archive getNestedArchive(Entry entry) throws IOException {
         File file = ((FileEntry) entry).getFile();
-        return (file.isDirectory() ? new ExplodedArchive(file) : new JarFileArchive(file));
+        return (entry.isDirectory() ? new ExplodedArchive(file) : new JarFileArchive(file));
+    }
+
+    private FileIndex getIndex() {
+        FileIndex index = this.index;
+        if (index == null) {
+            index = new FileIndex(this.root, this.recursive);
+            this.index = index;
+        }
+        return index;
     }
 
     @Override
@@ -137,83 +170,95 @@ public class ExplodedArchive implements Archive {
     }
 
     /**
-     * File based {@link Entry} {@link Iterator}.
+     * Entries of the folder, collected by a single walk which reads the attributes of
+     * every file together with its name. Entries are kept in the order of a depth first
+     * traversal with siblings sorted by name.
      */
-    private static class FileEntryIterator implements Iterator<Entry> {
-
-        private final Comparator<File>      entryComparator = new EntryComparator();
-
-        private final File                  root;
-
-        private final boolean               recursive;
-
-        private final Deque<Iterator<File>> stack           = new LinkedList<>();
-
-        private File                        current;
-
-        FileEntryIterator(File root, boolean recursive) {
-            this.root = root;
-            this.recursive = recursive;
-            this.stack.add(listFiles(root));
-            this.current = poll();
-        }
-
-        @Override
-        public boolean hasNext() {
-            return this.current != null;
-        }
-
-        @Override
-        public Entry next() {
-            if (this.current == null) {
-                throw new NoSuchElementException();
+    private static class FileIndex {
+
+        private final List<FileEntry> entries    = new ArrayList<>();
+
+        private final Set<String>     entryNames = new HashSet<>();
+
+        FileIndex(File root, boolean recursive) {
+            final Map<Path, List<Path>> children = new HashMap<>();
+            final Set<Path> directories = new HashSet<>();
+            final Path rootPath = root.toPath();
+            try {
+                Files.walkFileTree(rootPath, EnumSet.of(FileVisitOption.FOLLOW_LINKS),
+                    recursive ? Integer.MAX_VALUE : 2, new SimpleFileVisitor<Path>() {
+                        @Override
+                        public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                            if (!dir.equals(rootPath)) {
+                                addChild(dir);
+                                directories.add(dir);
+                            }
+                            return FileVisitResult.CONTINUE;
+                        }
+
+                        @Override
+                        public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                            addChild(file);
+                            if (attrs.isDirectory()) {
+                                // directory at max depth, or link to a directory
+                                directories.add(file);
+                            }
+                            return FileVisitResult.CONTINUE;
+                        }
+
+                        @Override
+                        public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                            return FileVisitResult.CONTINUE;
+                        }
+
+                        private void addChild(Path path) {
+                            List<Path> siblings = children.get(path.getParent());
+                            if (siblings == null) {
+                                siblings = new ArrayList<>();
+                                children.put(path.getParent(), siblings);
+                            }
+                            siblings.add(path);
+                        }
+                    });
+            } catch (IOException ex) {
+                throw new IllegalStateException("Failed to walk exploded archive " + root, ex);
             }
-            File file = this.current;
-            if (file.isDirectory() && (this.recursive || file.getParentFile().equals(this.root))) {
-                this.stack.addFirst(listFiles(file));
-            }
-            this.current = poll();
-            String name = file.toURI().getPath().substring(this.root.toURI().getPath().length());
-            return new FileEntry(name, file);
+            addEntries(rootPath, rootPath, children, directories);
         }
 
-        private Iterator<File> listFiles(File file) {
-            File[] files = file.listFiles();
-            if (files == null) {
-                return Collections.<File> emptyList().iterator();
+        private void addEntries(Path rootPath, Path parent, Map<Path, List<Path>> children,
+                                Set<Path> directories) {
+            List<Path> siblings = children.get(parent);
+            if (siblings == null) {
+                return;
             }
-            Arrays.sort(files, this.entryComparator);
-            return Arrays.asList(files).iterator();
-        }
-
-        private File poll() {
-            while (!this.stack.isEmpty()) {
-                while (this.stack.peek().hasNext()) {
-                    File file = this.stack.peek().next();
-                    if (!SKIPPED_NAMES.contains(file.getName())) {
-                        return file;
-                    }
+            Collections.sort(siblings, PATH_COMPARATOR);
+            for (Path path : siblings) {
+                boolean directory = directories.contains(path);
+                StringBuilder name = new StringBuilder();
+                for (Path element : rootPath.relativize(path)) {
+                    name.append(element.toString()).append('/');
+                }
+                if (!directory) {
+                    name.setLength(name.length() - 1);
                 }
-                this.stack.poll();
+                FileEntry entry = new FileEntry(name.toString(), path.toFile(), directory);
+                this.entries.add(entry);
+                this.entryNames.add(entry.getName());
+                addEntries(rootPath, path, children, directories);
             }
-            return null;
         }
 
-        @Override
-        public void remove() {
-            throw new UnsupportedOperationException("remove");
-        }
-
-        /**
-         * {@link Comparator} that orders {@link File} entries by their absolute paths.
-         */
-        private static class EntryComparator implements Comparator<File> {
+    }
 
-            @Override
-            public int compare(File o1, File o2) {
-                return o1.getAbsolutePath().compareTo(o2.getAbsolutePath());
-            }
+    /**
+     * {@link Comparator} that orders sibling {@link Path}s by their names.
+     */
+    private static class PathComparator implements Comparator<Path> {
 
+        @Override
+        public int compare(Path o1, Path o2) {
+            return o1.getFileName().toString().compareTo(o2.getFileName().toString());
         }
 
     }
@@ -223,13 +268,16 @@ public class ExplodedArchive implements Archive {
      */
     private static class FileEntry implements Entry {
 
-        private final String name;
+        private final String  name;
+
+        private final File    file;
 
-        private final File   file;
+        private final boolean directory;
 
-        FileEntry(String name, File file) {
+        FileEntry(String name, File file, boolean directory) {
             this.name = name;
             this.file = file;
+            this.directory = directory;
         }
 
         public File getFile() {
@@ -238,7 +286,7 @@ public class ExplodedArchive implements Archive {
 
         @Override
         public boolean isDirectory() {
-            return this.file.isDirectory();
+            return this.directory;
         }
 
         @Override
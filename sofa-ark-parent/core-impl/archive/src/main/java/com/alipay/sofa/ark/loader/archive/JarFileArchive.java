@@ -20,14 +20,22 @@ import java.io.*;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.jar.JarEntry;
 import java.util.jar.Manifest;
 import java.util.zip.ZipEntry;
 
+import com.alipay.sofa.ark.common.thread.CommonThreadPool;
 import com.alipay.sofa.ark.loader.jar.JarFile;
-import com.alipay.sofa.ark.loader.data.RandomAccessData.ResourceAccess;
+import com.alipay.sofa.ark.loader.jar.StreamingManifestReader;
 import com.alipay.sofa.ark.spi.archive.Archive;
 
+import static com.alipay.sofa.ark.spi.constant.Constants.ARCHIVE_DISCOVERY_PARALLEL_ENABLE;
+import static com.alipay.sofa.ark.spi.constant.Constants.ARCHIVE_DISCOVERY_PARALLEL_POOL_SIZE;
+
 /**
  * {@link Archive} implementation backed by a {@link JarFile}.
  *
@@ -38,8 +46,6 @@ public class JarFileArchive implements Archive {
 
     private static final String UNPACK_MARKER = "UNPACK:";
 
-    private static final int    BUFFER_SIZE   = 32 * 1024;
-
     private final JarFile       jarFile;
 
     private URL                 url;
@@ -51,7 +57,11 @@ public class JarFileArchive implements Archive {
     }
 
     public JarFileArchive(File file, URL url) throws IOException {
-        this(new JarFile(file));
+        this(file, url, false);
+    }
+
+    public JarFileArchive(File file, URL url, boolean mapped) throws IOException {
+        this(new JarFile(file, mapped));
         this.url = url;
     }
 
@@ -72,17 +82,83 @@ public class JarFileArchive implements Archive {
         return this.jarFile.getManifest();
     }
 
+    /**
+     * Read main attributes of manifest without building {@link Manifest}
+     * @param reader streaming manifest reader
+     * @return main attributes, null if there is no manifest
+     * @throws IOException if the manifest can not be read
+     */
+    public StreamingManifestReader.MainAttributes readManifest(StreamingManifestReader reader)
+                                                                                              throws IOException {
+        return this.jarFile.readManifest(reader);
+    }
+
     @Override
     public List<Archive> getNestedArchives(EntryFilter filter) throws IOException {
-        List<Archive> nestedArchives = new ArrayList<>();
+        List<Entry> entries = new ArrayList<>();
         for (Entry entry : this) {
             if (filter.matches(entry)) {
-                nestedArchives.add(getNestedArchive(entry));
+                entries.add(entry);
             }
         }
+        if (entries.size() > 1 && Boolean.getBoolean(ARCHIVE_DISCOVERY_PARALLEL_ENABLE)) {
+            return Collections.unmodifiableList(getNestedArchivesInParallel(entries));
+        }
+        List<Archive> nestedArchives = new ArrayList<>();
+        for (Entry entry : entries) {
+            nestedArchives.add(getNestedArchive(entry));
+        }
         return Collections.unmodifiableList(nestedArchives);
     }
 
+    /**
+     * Open nested archives concurrently, central directory and manifest of nested jars
+     * are parsed by the worker, while archives are returned in the order of entries.
+     * @param entries nested entries
+     * @return nested archives in order
+     * @throws IOException if any nested archive can not be opened
+     */
+    private List<Archive> getNestedArchivesInParallel(List<Entry> entries) throws IOException {
+        int poolSize = Math.max(1, Math.min(entries.size(), Integer.getInteger(
+            ARCHIVE_DISCOVERY_PARALLEL_POOL_SIZE, Runtime.getRuntime().availableProcessors())));
+        ExecutorService executor = new CommonThreadPool().setCorePoolSize(poolSize)
+            .setMaximumPoolSize(poolSize).setQueueSize(-1)
+            .setThreadPoolName("ark-archive-discovery").setDaemon(true).getExecutor();
+        try {
+            List<Future<Archive>> futures = new ArrayList<>(entries.size());
+            for (final Entry entry : entries) {
+                futures.add(executor.submit(new Callable<Archive>() {
+                    @Override
+                    public Archive call() throws Exception {
+                        Archive archive = getNestedArchive(entry);
+                        if (!entry.isDirectory()) {
+                            archive.getManifest();
+                        }
+                        return archive;
+                    }
+                }));
+            }
+            List<Archive> nestedArchives = new ArrayList<>(entries.size());
+            for (Future<Archive> future : futures) {
+                nestedArchives.add(future.get());
+            }
+            return nestedArchives;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted when opening nested archives", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof IOException) {
+                throw (IOException) ex.getCause();
+            }
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new IOException(ex.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     @Override
     public InputStream getInputStream(ZipEntry zipEntry) throws IOException {
         return this.jarFile.getInputStream(zipEntry);
@@ -119,7 +195,7 @@ public class JarFileArchive implements Archive {
         return new JarFileArchive(file, file.toURI().toURL());
     }
 
-    private File getTempUnpackFolder() {
+    private synchronized File getTempUnpackFolder() {
         if (this.tempUnpackFolder == null) {
             File tempFolder = new File(System.getProperty("java.io.tmpdir"));
             this.tempUnpackFolder = createUnpackFolder(tempFolder);
@@ -142,21 +218,8 @@ public class JarFileArchive implements Archive {
     }
 
     private void unpack(JarEntry entry, File file) throws IOException {
-        InputStream inputStream = this.jarFile.getInputStream(entry, ResourceAccess.ONCE);
-        try {
-            OutputStream outputStream = new FileOutputStream(file);
-            try {
-                byte[] buffer = new byte[BUFFER_SIZE];
-                int bytesRead;
-                while ((bytesRead = inputStream.read(buffer)) != -1) {
-                    outputStream.write(buffer, 0, bytesRead);
-                }
-                outputStream.flush();
-            } finally {
-                outputStream.close();
-            }
-        } finally {
-            inputStream.close();
+        try (FileOutputStream outputStream = new FileOutputStream(file)) {
+            this.jarFile.transferTo(entry, outputStream.getChannel());
         }
     }
 
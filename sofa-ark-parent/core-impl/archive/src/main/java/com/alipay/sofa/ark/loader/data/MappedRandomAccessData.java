@@ -0,0 +1,235 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.ark.loader.data;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * {@link RandomAccessData} implementation backed by memory mapped regions of a file.
+ * Reads are memory copies instead of a seek and read syscall per call. As a single
+ * {@link MappedByteBuffer} can not exceed 2 GB, the file is mapped in chunks and a read
+ * across chunk boundary is split.
+ *
+ * <p>The mapping stays valid after the channel is closed and is released when the
+ * buffers are garbage collected, so there is nothing to close. It is never unmapped
+ * explicitly, as subsections and nested jars may still be read by other threads and a
+ * read from an unmapped region crashes the JVM.</p>
+ *
+ * @author ruoshan
+ * @since 1.1.7
+ */
+public class MappedRandomAccessData implements RandomAccessData {
+
+    private static final int   DEFAULT_CHUNK_SIZE = 1 << 30;
+
+    private final ByteBuffer[] chunks;
+
+    private final int          chunkSize;
+
+    private final long         offset;
+
+    private final long         length;
+
+    /**
+     * Create a new {@link MappedRandomAccessData} backed by the specified file.
+     * @param file the underlying file
+     * @throws IOException if the file cannot be mapped
+     * @throws IllegalArgumentException if the file is null or does not exist
+     */
+    public MappedRandomAccessData(File file) throws IOException {
+        this(file, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Create a new {@link MappedRandomAccessData} backed by the specified file.
+     * @param file the underlying file
+     * @param chunkSize the maximum size of each mapped region
+     * @throws IOException if the file cannot be mapped
+     * @throws IllegalArgumentException if the file is null or does not exist
+     */
+    public MappedRandomAccessData(File file, int chunkSize) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("File must not be null");
+        }
+        if (!file.exists()) {
+            throw new IllegalArgumentException("File must exist");
+        }
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+                FileChannel channel = randomAccessFile.getChannel()) {
+            long size = channel.size();
+            int count = (int) ((size + chunkSize - 1) / chunkSize);
+            this.chunks = new ByteBuffer[count];
+            for (int i = 0; i < count; ++i) {
+                long position = (long) i * chunkSize;
+                this.chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                    Math.min(chunkSize, size - position));
+            }
+            this.chunkSize = chunkSize;
+            this.offset = 0L;
+            this.length = size;
+        }
+    }
+
+    /**
+     * Private constructor used to create a {@link #getSubsection(long, long) subsection}.
+     * @param chunks the mapped regions
+     * @param chunkSize the size of each mapped region
+     * @param offset the offset of the section
+     * @param length the length of the section
+     */
+    private MappedRandomAccessData(ByteBuffer[] chunks, int chunkSize, long offset, long length) {
+        this.chunks = chunks;
+        this.chunkSize = chunkSize;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    @Override
+    public InputStream getInputStream(ResourceAccess access) {
+        return new DataInputStream();
+    }
+
+    @Override
+    public RandomAccessData getSubsection(long offset, long length) {
+        if (offset < 0 || length < 0 || offset + length > this.length) {
+            throw new IndexOutOfBoundsException();
+        }
+        return new MappedRandomAccessData(this.chunks, this.chunkSize, this.offset + offset, length);
+    }
+
+    @Override
+    public long getSize() {
+        return this.length;
+    }
+
+    @Override
+    public long transferTo(WritableByteChannel target) throws IOException {
+        long position = this.offset;
+        long end = this.offset + this.length;
+        while (position < end) {
+            ByteBuffer chunk = this.chunks[(int) (position / this.chunkSize)].duplicate();
+            int start = (int) (position % this.chunkSize);
+            chunk.position(start);
+            chunk.limit((int) Math.min(chunk.limit(), start + (end - position)));
+            position += chunk.remaining();
+            while (chunk.hasRemaining()) {
+                target.write(chunk);
+            }
+        }
+        return this.length;
+    }
+
+    /**
+     * Copy bytes from absolute position of the mapped file.
+     * @param position absolute position in the file
+     * @param b the destination bytes
+     * @param off the offset of the byte array
+     * @param len the length of data to copy, must not exceed the file length
+     */
+    private void copy(long position, byte[] b, int off, int len) {
+        while (len > 0) {
+            // duplicate as the position of a shared buffer is not thread safe
+            ByteBuffer chunk = this.chunks[(int) (position / this.chunkSize)].duplicate();
+            chunk.position((int) (position % this.chunkSize));
+            int count = Math.min(len, chunk.remaining());
+            chunk.get(b, off, count);
+            position += count;
+            off += count;
+            len -= count;
+        }
+    }
+
+    private byte get(long position) {
+        return this.chunks[(int) (position / this.chunkSize)]
+            .get((int) (position % this.chunkSize));
+    }
+
+    /**
+     * {@link MappedRandomAccessData}.
+     */
+    private class DataInputStream extends InputStream {
+
+        private long position;
+
+        @Override
+        public int read() {
+            if (cap(1) <= 0) {
+                return -1;
+            }
+            return get(MappedRandomAccessData.this.offset + this.position++) & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b) {
+            return read(b, 0, b == null ? 0 : b.length);
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (b == null) {
+                throw new NullPointerException("Bytes must not be null");
+            }
+            if (len == 0) {
+                return 0;
+            }
+            int cappedLen = cap(len);
+            if (cappedLen <= 0) {
+                return -1;
+            }
+            copy(MappedRandomAccessData.this.offset + this.position, b, off, cappedLen);
+            this.position += cappedLen;
+            return cappedLen;
+        }
+
+        @Override
+        public long skip(long n) {
+            if (n <= 0) {
+                return 0;
+            }
+            long skipped = Math.min(MappedRandomAccessData.this.length - this.position, n);
+            this.position += skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return cap(Integer.MAX_VALUE);
+        }
+
+        /**
+         * Cap the specified value such that it cannot exceed the number of bytes
+         * remaining.
+         * @param n the value to cap
+         * @return the capped value
+         */
+        private int cap(long n) {
+            return (int) Math.min(MappedRandomAccessData.this.length - this.position, n);
+        }
+
+    }
+
+}
@@ -18,6 +18,7 @@ package com.alipay.sofa.ark.loader.data;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.WritableByteChannel;
 
 /**
  * Interface that provides read-only random access to some underlying data.
@@ -44,6 +45,15 @@ public interface RandomAccessData {
      */
     RandomAccessData getSubsection(long offset, long length);
 
+    /**
+     * Transfers all the data to the given channel, letting the implementation move the
+     * bytes without copying them through a heap array.
+     * @param target the channel to write to
+     * @return the number of bytes transferred
+     * @throws IOException in case of I/O errors
+     */
+    long transferTo(WritableByteChannel target) throws IOException;
+
     /**
      * Returns the size of the data.
      * @return the size
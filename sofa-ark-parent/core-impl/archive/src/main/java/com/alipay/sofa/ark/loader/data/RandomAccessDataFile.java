@@ -16,10 +16,13 @@
  */
 package com.alipay.sofa.ark.loader.data;
 
+import java.io.EOFException;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Semaphore;
@@ -112,6 +115,27 @@ public class RandomAccessDataFile implements RandomAccessData {
         return this.length;
     }
 
+    @Override
+    public long transferTo(WritableByteChannel target) throws IOException {
+        RandomAccessFile file = this.filePool.acquire();
+        try {
+            // positional transfer leaves the position of the pooled file untouched
+            FileChannel channel = file.getChannel();
+            long transferred = 0;
+            while (transferred < this.length) {
+                long count = channel.transferTo(this.offset + transferred, this.length
+                                                                           - transferred, target);
+                if (count <= 0 && this.offset + transferred >= channel.size()) {
+                    throw new EOFException("Unexpected end of " + this.file);
+                }
+                transferred += count;
+            }
+            return transferred;
+        } finally {
+            this.filePool.release(file);
+        }
+    }
+
     public void close() throws IOException {
         this.filePool.close();
     }
@@ -109,6 +109,31 @@ final public class AsciiBytes {
         return true;
     }
 
+    /**
+     * Whether these bytes are equal to the concatenation of name and suffix, which is
+     * checked without building it.
+     * @param name the name
+     * @param suffix the suffix, or {@code null}
+     * @return {@code true} if these bytes are name followed by suffix
+     */
+    public boolean matches(AsciiBytes name, AsciiBytes suffix) {
+        int suffixLength = (suffix == null ? 0 : suffix.length);
+        if (this.length != name.length + suffixLength) {
+            return false;
+        }
+        for (int i = 0; i < name.length; i++) {
+            if (this.bytes[this.offset + i] != name.bytes[name.offset + i]) {
+                return false;
+            }
+        }
+        for (int i = 0; i < suffixLength; i++) {
+            if (this.bytes[this.offset + name.length + i] != suffix.bytes[suffix.offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public AsciiBytes substring(int beginIndex) {
         return substring(beginIndex, this.length);
     }
@@ -113,6 +113,22 @@ final public class CentralDirectoryEndRecord {
         return data.getSubsection(offset, length);
     }
 
+    /**
+     * Return the offset of the "Central directory" indicated in this record.
+     * @return the offset of the central directory
+     */
+    public long getCentralDirectoryOffset() {
+        return Bytes.littleEndianValue(this.block, this.offset + 16, 4);
+    }
+
+    /**
+     * Return the size of the "Central directory" indicated in this record.
+     * @return the size of the central directory
+     */
+    public long getCentralDirectorySize() {
+        return Bytes.littleEndianValue(this.block, this.offset + 12, 4);
+    }
+
     /**
      * Return the number of ZIP entries in the file.
      * @return the number of records in the zip
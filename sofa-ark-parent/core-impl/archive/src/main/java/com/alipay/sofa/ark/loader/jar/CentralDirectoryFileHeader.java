@@ -107,6 +107,11 @@ final public class CentralDirectoryFileHeader implements FileHeader {
         return this.name.equals(new AsciiBytes(suffix == null ? name : name + suffix));
     }
 
+    @Override
+    public boolean hasName(AsciiBytes name, AsciiBytes suffix) {
+        return this.name.matches(name, suffix);
+    }
+
     public boolean isDirectory() {
         return this.name.endsWith(SLASH);
     }
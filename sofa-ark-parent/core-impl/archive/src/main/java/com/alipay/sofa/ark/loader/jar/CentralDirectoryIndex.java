@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.ark.loader.jar;
+
+/**
+ * Pre-parsed entries of a central directory, the same arrays {@link JarFileEntries}
+ * builds while visiting file headers, in their final hash code order. Loading it lets
+ * a {@link JarFile} be opened without parsing the file headers.
+ *
+ * @author ruoshan
+ * @since 1.1.7
+ */
+public class CentralDirectoryIndex {
+
+    private final int     size;
+
+    private final int[]   hashCodes;
+
+    private final int[]   centralDirectoryOffsets;
+
+    private final int[]   positions;
+
+    private final boolean signed;
+
+    CentralDirectoryIndex(int size, int[] hashCodes, int[] centralDirectoryOffsets,
+                          int[] positions, boolean signed) {
+        this.size = size;
+        this.hashCodes = hashCodes;
+        this.centralDirectoryOffsets = centralDirectoryOffsets;
+        this.positions = positions;
+        this.signed = signed;
+    }
+
+    public int getSize() {
+        return this.size;
+    }
+
+    int[] getHashCodes() {
+        return this.hashCodes;
+    }
+
+    int[] getCentralDirectoryOffsets() {
+        return this.centralDirectoryOffsets;
+    }
+
+    int[] getPositions() {
+        return this.positions;
+    }
+
+    public boolean isSigned() {
+        return this.signed;
+    }
+
+}
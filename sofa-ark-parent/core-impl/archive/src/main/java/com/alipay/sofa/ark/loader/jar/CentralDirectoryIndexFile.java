@@ -0,0 +1,307 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.ark.loader.jar;
+
+import com.alipay.sofa.ark.loader.data.RandomAccessData;
+import com.alipay.sofa.ark.loader.data.RandomAccessDataFile;
+import com.alipay.sofa.ark.spi.constant.Constants;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+
+/**
+ * Sidecar file which persists the {@link CentralDirectoryIndex} of a jar and all of its
+ * nested jars, keyed by their path from the root jar. It is written next to the jar and
+ * validated against the jar size, last modified time and the central directory offset,
+ * size and entry count from the end record of the jar, as well as a CRC of its own
+ * content, so a stale or broken sidecar is simply ignored.
+ *
+ * <p>Those checks only read the end of the jar. When the jar was last modified within
+ * the file system timestamp granularity of the sidecar, it may have been replaced right
+ * after the sidecar was written without changing its last modified time, then the CRC of
+ * the whole central directory is compared as well. The central directory covers the CRC
+ * of every entry, nested jars included.</p>
+ *
+ * <p>The sidecar is only read and written when system property
+ * {@link Constants#JAR_INDEX_ENABLE} is true, see {@link #isEnabled()}.</p>
+ *
+ * <p>Layout, big endian: magic, version, jar size, jar last modified, central directory
+ * offset, size, entry count and CRC, section count,
+ * then per section the path, signed flag, entry count and the hash code, offset and
+ * position arrays, finally the CRC of all preceding bytes.</p>
+ *
+ * @author ruoshan
+ * @since 1.1.7
+ */
+public class CentralDirectoryIndexFile {
+
+    private static final String                      INDEX_FILE_SUFFIX     = ".idx";
+
+    private static final int                         MAGIC                 = 0x53414958;
+
+    private static final int                         VERSION               = 3;
+
+    /**
+     * Coarsest last modified time granularity among common file systems, FAT
+     */
+    private static final long                        TIMESTAMP_GRANULARITY = 2000;
+
+    private static final String                      JAR_SUFFIX            = ".jar";
+
+    private final Map<String, CentralDirectoryIndex> indexes;
+
+    private CentralDirectoryIndexFile(Map<String, CentralDirectoryIndex> indexes) {
+        this.indexes = indexes;
+    }
+
+    /**
+     * Get index of the jar with the path from root jar
+     * @param pathFromRoot path from root jar, empty for the root jar itself
+     * @return index, null if the jar is not indexed
+     */
+    public CentralDirectoryIndex getIndex(String pathFromRoot) {
+        return this.indexes.get(pathFromRoot);
+    }
+
+    public int size() {
+        return this.indexes.size();
+    }
+
+    /**
+     * Whether the sidecar index is enabled. It is read from system property only, since
+     * the executable ark jar is opened before ark config files are loaded, and both
+     * reader and writers must agree on it.
+     * @return whether the sidecar index is enabled
+     */
+    public static boolean isEnabled() {
+        return Boolean.getBoolean(Constants.JAR_INDEX_ENABLE);
+    }
+
+    public static File getIndexFile(File jar) {
+        return new File(jar.getParentFile(), jar.getName() + INDEX_FILE_SUFFIX);
+    }
+
+    /**
+     * Load the sidecar index of the jar with a single mapping
+     * @param jar root jar file
+     * @return index file, null if it does not exist, is stale or broken
+     */
+    public static CentralDirectoryIndexFile load(File jar) {
+        File indexFile = getIndexFile(jar);
+        if (!indexFile.isFile()) {
+            return null;
+        }
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(indexFile, "r");
+                FileChannel channel = randomAccessFile.getChannel()) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            int contentLength = buffer.limit() - 8;
+            if (contentLength < 0 || buffer.getLong(contentLength) != crc(buffer, contentLength)) {
+                return null;
+            }
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION
+                || buffer.getLong() != jar.length() || buffer.getLong() != jar.lastModified()
+                || !matchCentralDirectory(jar, indexFile, buffer)) {
+                return null;
+            }
+            int sectionCount = buffer.getInt();
+            Map<String, CentralDirectoryIndex> indexes = new LinkedHashMap<>(sectionCount * 2);
+            for (int i = 0; i < sectionCount; ++i) {
+                byte[] path = new byte[buffer.getInt()];
+                buffer.get(path);
+                boolean signed = buffer.get() != 0;
+                int size = buffer.getInt();
+                int[] hashCodes = getInts(buffer, size);
+                int[] centralDirectoryOffsets = getInts(buffer, size);
+                int[] positions = getInts(buffer, size);
+                indexes.put(new String(path, StandardCharsets.UTF_8), new CentralDirectoryIndex(
+                    size, hashCodes, centralDirectoryOffsets, positions, signed));
+            }
+            return new CentralDirectoryIndexFile(Collections.unmodifiableMap(indexes));
+        } catch (IOException | RuntimeException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Write the sidecar index of the jar unless a valid one exists. The jar and its
+     * nested jars are parsed once to collect their entries.
+     * @param jar root jar file
+     * @return whether a new index file is written
+     * @throws IOException if the jar can not be read or the index can not be written
+     */
+    public static boolean createIfNecessary(File jar) throws IOException {
+        if (load(jar) != null) {
+            return false;
+        }
+        Map<String, CentralDirectoryIndex> indexes = new LinkedHashMap<>();
+        try (JarFile jarFile = new JarFile(jar)) {
+            collect(jarFile, indexes);
+        }
+        write(jar, indexes);
+        return true;
+    }
+
+    private static void collect(JarFile jarFile, Map<String, CentralDirectoryIndex> indexes)
+                                                                                            throws IOException {
+        indexes.put(jarFile.getPathFromRoot(), jarFile.getCentralDirectoryIndex());
+        Enumeration<java.util.jar.JarEntry> entries = jarFile.entries();
+        while (entries.hasMoreElements()) {
+            java.util.jar.JarEntry entry = entries.nextElement();
+            if (!entry.isDirectory() && entry.getName().endsWith(JAR_SUFFIX)
+                && entry.getMethod() == ZipEntry.STORED) {
+                collect(jarFile.getNestedJarFile(entry), indexes);
+            }
+        }
+    }
+
+    private static void write(File jar, Map<String, CentralDirectoryIndex> indexes)
+                                                                                   throws IOException {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(content);
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+        output.writeLong(jar.length());
+        output.writeLong(jar.lastModified());
+        RandomAccessDataFile data = new RandomAccessDataFile(jar, 1);
+        try {
+            CentralDirectoryEndRecord endRecord = new CentralDirectoryEndRecord(data);
+            output.writeLong(endRecord.getCentralDirectoryOffset());
+            output.writeLong(endRecord.getCentralDirectorySize());
+            output.writeInt(endRecord.getNumberOfRecords());
+            output.writeLong(centralDirectoryCrc(data, endRecord));
+        } finally {
+            data.close();
+        }
+        output.writeInt(indexes.size());
+        for (Map.Entry<String, CentralDirectoryIndex> entry : indexes.entrySet()) {
+            byte[] path = entry.getKey().getBytes(StandardCharsets.UTF_8);
+            CentralDirectoryIndex index = entry.getValue();
+            output.writeInt(path.length);
+            output.write(path);
+            output.writeBoolean(index.isSigned());
+            output.writeInt(index.getSize());
+            writeInts(output, index.getHashCodes(), index.getSize());
+            writeInts(output, index.getCentralDirectoryOffsets(), index.getSize());
+            writeInts(output, index.getPositions(), index.getSize());
+        }
+        output.flush();
+        ByteBuffer buffer = ByteBuffer.wrap(content.toByteArray());
+        output.writeLong(crc(buffer, buffer.limit()));
+        output.flush();
+
+        File indexFile = getIndexFile(jar);
+        File tempFile = File.createTempFile(indexFile.getName(), null, indexFile.getParentFile());
+        try {
+            Files.write(tempFile.toPath(), content.toByteArray());
+            try {
+                Files.move(tempFile.toPath(), indexFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(tempFile.toPath(), indexFile.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tempFile.toPath());
+        }
+    }
+
+    private static boolean matchCentralDirectory(File jar, File indexFile, ByteBuffer buffer)
+                                                                                             throws IOException {
+        long centralDirectoryOffset = buffer.getLong();
+        long centralDirectorySize = buffer.getLong();
+        int numberOfRecords = buffer.getInt();
+        long centralDirectoryCrc = buffer.getLong();
+        RandomAccessDataFile data = new RandomAccessDataFile(jar, 1);
+        try {
+            CentralDirectoryEndRecord endRecord = new CentralDirectoryEndRecord(data);
+            if (endRecord.getCentralDirectoryOffset() != centralDirectoryOffset
+                || endRecord.getCentralDirectorySize() != centralDirectorySize
+                || endRecord.getNumberOfRecords() != numberOfRecords) {
+                return false;
+            }
+            // same last modified time can not tell a jar replaced in the same timestamp tick
+            return jar.lastModified() + TIMESTAMP_GRANULARITY <= indexFile.lastModified()
+                   || centralDirectoryCrc(data, endRecord) == centralDirectoryCrc;
+        } finally {
+            data.close();
+        }
+    }
+
+    private static long centralDirectoryCrc(RandomAccessDataFile data,
+                                            CentralDirectoryEndRecord endRecord) throws IOException {
+        long startOfArchive = endRecord.getStartOfArchive(data);
+        RandomAccessData archiveData = startOfArchive == 0 ? data : data.getSubsection(
+            startOfArchive, data.getSize() - startOfArchive);
+        final CRC32 crc = new CRC32();
+        endRecord.getCentralDirectory(archiveData).transferTo(new WritableByteChannel() {
+            @Override
+            public int write(ByteBuffer src) {
+                int length = src.remaining();
+                crc.update(src);
+                return length;
+            }
+
+            @Override
+            public boolean isOpen() {
+                return true;
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+        return crc.getValue();
+    }
+
+    private static long crc(ByteBuffer buffer, int length) {
+        ByteBuffer content = buffer.duplicate();
+        content.position(0).limit(length);
+        CRC32 crc = new CRC32();
+        crc.update(content);
+        return crc.getValue();
+    }
+
+    private static int[] getInts(ByteBuffer buffer, int size) {
+        int[] values = new int[size];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + size * 4);
+        return values;
+    }
+
+    private static void writeInts(DataOutputStream output, int[] values, int size)
+                                                                                  throws IOException {
+        for (int i = 0; i < size; ++i) {
+            output.writeInt(values[i]);
+        }
+    }
+
+}
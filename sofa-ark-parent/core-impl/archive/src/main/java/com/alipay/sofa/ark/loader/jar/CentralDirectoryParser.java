@@ -48,13 +48,31 @@ final public class CentralDirectoryParser {
      */
     public RandomAccessData parse(RandomAccessData data, boolean skipPrefixBytes)
                                                                                  throws IOException {
+        return parse(data, skipPrefixBytes, null);
+    }
+
+    /**
+     * Parse the source data, triggering {@link CentralDirectoryVisitor visitors}. File
+     * headers are not parsed if the index matches the central directory.
+     * @param data the source data
+     * @param skipPrefixBytes if prefix bytes should be skipped
+     * @param index pre-parsed entries of the central directory, may be null
+     * @return The actual archive data without any prefix bytes
+     * @throws IOException on error
+     */
+    public RandomAccessData parse(RandomAccessData data, boolean skipPrefixBytes,
+                                  CentralDirectoryIndex index) throws IOException {
         CentralDirectoryEndRecord endRecord = new CentralDirectoryEndRecord(data);
         if (skipPrefixBytes) {
             data = getArchiveData(endRecord, data);
         }
         RandomAccessData centralDirectoryData = endRecord.getCentralDirectory(data);
         visitStart(endRecord, centralDirectoryData);
-        parseEntries(endRecord, centralDirectoryData);
+        if (index != null && index.getSize() == endRecord.getNumberOfRecords()) {
+            visitIndex(index);
+        } else {
+            parseEntries(endRecord, centralDirectoryData);
+        }
         visitEnd();
         return data;
     }
@@ -94,6 +112,12 @@ final public class CentralDirectoryParser {
         }
     }
 
+    private void visitIndex(CentralDirectoryIndex index) {
+        for (CentralDirectoryVisitor visitor : this.visitors) {
+            visitor.visitIndex(index);
+        }
+    }
+
     private void visitEnd() {
         for (CentralDirectoryVisitor visitor : this.visitors) {
             visitor.visitEnd();
@@ -31,4 +31,12 @@ public interface CentralDirectoryVisitor {
 
     void visitEnd();
 
+    /**
+     * Triggered instead of {@link #visitFileHeader} when the central directory has been
+     * indexed before.
+     * @param index pre-parsed entries
+     */
+    default void visitIndex(CentralDirectoryIndex index) {
+    }
+
 }
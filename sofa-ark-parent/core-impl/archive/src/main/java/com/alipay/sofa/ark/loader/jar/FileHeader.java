@@ -35,6 +35,15 @@ interface FileHeader {
      */
     boolean hasName(String name, String suffix);
 
+    /**
+     * Returns {@code true} if the header has the given name, bytes are compared as they
+     * are without decoding.
+     * @param name the encoded name to test
+     * @param suffix an additional encoded suffix (or {@code null})
+     * @return {@code true} if the header has the given name
+     */
+    boolean hasName(AsciiBytes name, AsciiBytes suffix);
+
     /**
      * Return the offset of the load file header within the archive data.
      * @return the local header offset
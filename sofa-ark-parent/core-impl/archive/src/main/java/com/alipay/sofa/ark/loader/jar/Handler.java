@@ -17,14 +17,12 @@
 package com.alipay.sofa.ark.loader.jar;
 
 import com.alipay.sofa.ark.common.util.StringUtils;
+import com.alipay.sofa.ark.spi.constant.Constants;
 
 import java.io.File;
 import java.io.IOException;
-import java.lang.ref.SoftReference;
 import java.lang.reflect.Method;
 import java.net.*;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -40,15 +38,15 @@ public class Handler extends URLStreamHandler {
     // NOTE: in order to be found as a URL protocol handler, this class must be public,
     // must be named Handler and must be in a package ending '.jar'
 
-    private static final String                      JAR_PROTOCOL      = "jar:";
+    private static final String        JAR_PROTOCOL      = "jar:";
 
-    private static final String                      FILE_PROTOCOL     = "file:";
+    private static final String        FILE_PROTOCOL     = "file:";
 
-    private static final String                      SEPARATOR         = "!/";
+    private static final String        SEPARATOR         = "!/";
 
-    private static final String[]                    FALLBACK_HANDLERS = { "sun.net.www.protocol.jar.Handler" };
+    private static final String[]      FALLBACK_HANDLERS = { "sun.net.www.protocol.jar.Handler" };
 
-    private static final Method                      OPEN_CONNECTION_METHOD;
+    private static final Method        OPEN_CONNECTION_METHOD;
 
     static {
         Method method = null;
@@ -60,15 +58,19 @@ public class Handler extends URLStreamHandler {
         OPEN_CONNECTION_METHOD = method;
     }
 
-    private static SoftReference<Map<File, JarFile>> rootFileCache;
+    private static final RootFileCache ROOT_FILE_CACHE   = new RootFileCache(
+                                                             Integer
+                                                                 .getInteger(
+                                                                     Constants.JAR_ROOT_FILE_CACHE_SIZE,
+                                                                     Constants.DEFAULT_JAR_ROOT_FILE_CACHE_SIZE),
+                                                             Boolean
+                                                                 .getBoolean(Constants.JAR_ROOT_FILE_CACHE_SOFT));
 
-    static {
-        rootFileCache = new SoftReference<>(null);
-    }
+    private static volatile File       executableRootFile;
 
-    private final JarFile                            jarFile;
+    private final JarFile              jarFile;
 
-    private URLStreamHandler                         fallbackHandler;
+    private URLStreamHandler           fallbackHandler;
 
     public Handler() {
         this(null);
@@ -285,35 +287,53 @@ public class Handler extends URLStreamHandler {
 
     private JarFile getRootJarFile(String name) throws IOException {
         try {
-            if (!name.startsWith(FILE_PROTOCOL)) {
-                throw new IllegalStateException("Not a file URL");
-            }
-            String path = name.substring(FILE_PROTOCOL.length());
-            File file = new File(URLDecoder.decode(path, "UTF-8"));
-            Map<File, JarFile> cache = rootFileCache.get();
-            JarFile result = (cache == null ? null : cache.get(file));
-            if (result == null) {
-                result = new JarFile(file);
-                addToRootFileCache(file, result);
-            }
-            return result;
+            return ROOT_FILE_CACHE.getOrOpen(getRootFile(name));
         } catch (Exception ex) {
             throw new IOException("Unable to open root Jar file '" + name + "'", ex);
         }
     }
 
+    private static File getRootFile(String name) throws IOException {
+        if (!name.startsWith(FILE_PROTOCOL)) {
+            throw new IllegalStateException("Not a file URL");
+        }
+        String path = name.substring(FILE_PROTOCOL.length());
+        return new File(URLDecoder.decode(path, "UTF-8"));
+    }
+
     /**
-     * Add the given {@link JarFile} to the root file cache.
-     * @param sourceFile the source file to add
-     * @param jarFile the jar file.
+     * Remove the given root file from the root file cache and close its jar file, so that
+     * the file of an uninstalled biz is no longer held open. The caller must own the root
+     * file solely, the executable ark jar is never removed as it is shared by the container,
+     * plugins and static biz.
+     * @param rootFile root file
+     * @throws IOException if the jar file can not be closed
      */
-    static void addToRootFileCache(File sourceFile, JarFile jarFile) {
-        Map<File, JarFile> cache = rootFileCache.get();
-        if (cache == null) {
-            cache = new ConcurrentHashMap<>(16);
-            rootFileCache = new SoftReference<>(cache);
+    public static void removeFromRootFileCache(File rootFile) throws IOException {
+        File executableRootFile = Handler.executableRootFile;
+        if (executableRootFile != null && executableRootFile.equals(rootFile)) {
+            return;
+        }
+        JarFile jarFile = ROOT_FILE_CACHE.remove(rootFile);
+        if (jarFile != null) {
+            jarFile.close();
         }
-        cache.put(sourceFile, jarFile);
+    }
+
+    /**
+     * Set the executable ark jar, which is never removed from the root file cache
+     * @param rootFile the executable ark jar
+     */
+    public static void setExecutableRootFile(File rootFile) {
+        Handler.executableRootFile = rootFile;
+    }
+
+    /**
+     * Get the cache of root jar files opened by handlers
+     * @return root file cache
+     */
+    public static RootFileCache getRootFileCache() {
+        return ROOT_FILE_CACHE;
     }
 
     /**
@@ -326,4 +346,13 @@ public class Handler extends URLStreamHandler {
         JarURLConnection.setUseFastExceptions(useFastConnectionExceptions);
     }
 
+    /**
+     * Whether a generic static exception can be thrown by the current thread when a URL
+     * cannot be connected.
+     * @return if fast connection exceptions are used
+     */
+    public static boolean isUseFastConnectionExceptions() {
+        return JarURLConnection.isUseFastExceptions();
+    }
+
 }
@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.ark.loader.jar;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.Inflater;
+
+/**
+ * Bounded pool of {@link Inflater} together with their input buffer, so opening a
+ * compressed entry neither allocates an inflater, whose native memory is only freed by
+ * end or finalization, nor its buffer. When the pool is exhausted a new one is created,
+ * and an inflater released to a full pool is ended at once.
+ *
+ * @author ruoshan
+ * @since 1.1.7
+ */
+public class InflaterPool {
+
+    static final int                    BUFFER_SIZE    = 8192;
+
+    private final int                   capacity;
+
+    private final Queue<PooledInflater> pool           = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger         size           = new AtomicInteger();
+
+    private final LongAdder             acquireCount   = new LongAdder();
+
+    private final LongAdder             exhaustedCount = new LongAdder();
+
+    private final LongAdder             discardCount   = new LongAdder();
+
+    public InflaterPool(int capacity) {
+        this.capacity = capacity;
+    }
+
+    PooledInflater acquire() {
+        this.acquireCount.increment();
+        PooledInflater inflater = this.pool.poll();
+        if (inflater != null) {
+            this.size.decrementAndGet();
+            return inflater;
+        }
+        this.exhaustedCount.increment();
+        return new PooledInflater(new Inflater(true), new byte[BUFFER_SIZE]);
+    }
+
+    void release(PooledInflater inflater) {
+        if (this.size.incrementAndGet() <= this.capacity) {
+            inflater.inflater.reset();
+            this.pool.offer(inflater);
+        } else {
+            this.size.decrementAndGet();
+            this.discardCount.increment();
+            inflater.inflater.end();
+        }
+    }
+
+    public int getCapacity() {
+        return this.capacity;
+    }
+
+    /**
+     * Number of idle inflaters in pool
+     * @return idle count
+     */
+    public int getIdleCount() {
+        return this.size.get();
+    }
+
+    public long getAcquireCount() {
+        return this.acquireCount.sum();
+    }
+
+    /**
+     * Number of acquires which found the pool empty and created a new inflater
+     * @return exhausted count
+     */
+    public long getExhaustedCount() {
+        return this.exhaustedCount.sum();
+    }
+
+    /**
+     * Number of releases which found the pool full and ended the inflater
+     * @return discard count
+     */
+    public long getDiscardCount() {
+        return this.discardCount.sum();
+    }
+
+    /**
+     * Inflater and its input buffer.
+     */
+    static final class PooledInflater {
+
+        private final Inflater inflater;
+
+        private final byte[]   buffer;
+
+        PooledInflater(Inflater inflater, byte[] buffer) {
+            this.inflater = inflater;
+            this.buffer = buffer;
+        }
+
+        Inflater getInflater() {
+            return this.inflater;
+        }
+
+        byte[] getBuffer() {
+            return this.buffer;
+        }
+
+    }
+
+}
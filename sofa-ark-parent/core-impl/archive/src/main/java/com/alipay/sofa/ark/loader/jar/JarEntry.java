@@ -31,17 +31,20 @@ import java.util.jar.Manifest;
  */
 public class JarEntry extends java.util.jar.JarEntry implements FileHeader {
 
-    private Certificate[] certificates;
+    private Certificate[]    certificates;
 
-    private CodeSigner[]  codeSigners;
+    private CodeSigner[]     codeSigners;
 
-    private final JarFile jarFile;
+    private final JarFile    jarFile;
 
-    private long          localHeaderOffset;
+    private final AsciiBytes asciiName;
+
+    private long             localHeaderOffset;
 
     JarEntry(JarFile jarFile, CentralDirectoryFileHeader header) {
         super(header.getName().toString());
         this.jarFile = jarFile;
+        this.asciiName = header.getName();
         this.localHeaderOffset = header.getLocalHeaderOffset();
         setCompressedSize(header.getCompressedSize());
         setMethod(header.getMethod());
@@ -59,6 +62,11 @@ public class JarEntry extends java.util.jar.JarEntry implements FileHeader {
                && getName().endsWith(suffix);
     }
 
+    @Override
+    public boolean hasName(AsciiBytes name, AsciiBytes suffix) {
+        return this.asciiName.matches(name, suffix);
+    }
+
     /**
      * Return a {@link URL} for this {@link JarEntry}.
      * @return the URL for the entry
@@ -16,6 +16,7 @@
  */
 package com.alipay.sofa.ark.loader.jar;
 
+import com.alipay.sofa.ark.loader.data.MappedRandomAccessData;
 import com.alipay.sofa.ark.loader.data.RandomAccessData;
 import com.alipay.sofa.ark.loader.data.RandomAccessData.ResourceAccess;
 import com.alipay.sofa.ark.loader.data.RandomAccessDataFile;
@@ -28,6 +29,7 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLStreamHandler;
 import java.net.URLStreamHandlerFactory;
+import java.nio.channels.WritableByteChannel;
 import java.util.Enumeration;
 import java.util.Iterator;
 import java.util.jar.JarInputStream;
@@ -48,31 +50,33 @@ import java.util.zip.ZipEntry;
  */
 public class JarFile extends java.util.jar.JarFile {
 
-    private static final String        MANIFEST_NAME            = "META-INF/MANIFEST.MF";
+    private static final String             MANIFEST_NAME            = "META-INF/MANIFEST.MF";
 
-    private static final String        PROTOCOL_HANDLER         = "java.protocol.handler.pkgs";
+    private static final String             PROTOCOL_HANDLER         = "java.protocol.handler.pkgs";
 
-    private static final String        HANDLERS_PACKAGE         = "com.alipay.sofa.ark.loader";
+    private static final String             HANDLERS_PACKAGE         = "com.alipay.sofa.ark.loader";
 
-    private static final AsciiBytes    META_INF                 = new AsciiBytes("META-INF/");
+    private static final AsciiBytes         META_INF                 = new AsciiBytes("META-INF/");
 
-    private static final AsciiBytes    SIGNATURE_FILE_EXTENSION = new AsciiBytes(".SF");
+    private static final AsciiBytes         SIGNATURE_FILE_EXTENSION = new AsciiBytes(".SF");
 
-    private final RandomAccessDataFile rootFile;
+    private final RandomAccessDataFile      rootFile;
 
-    private final String               pathFromRoot;
+    private final CentralDirectoryIndexFile indexFile;
 
-    private final RandomAccessData     data;
+    private final String                    pathFromRoot;
 
-    private final JarFileType          type;
+    private final RandomAccessData          data;
 
-    private URL                        url;
+    private final JarFileType               type;
 
-    private JarFileEntries             entries;
+    private URL                             url;
 
-    private SoftReference<Manifest>    manifest;
+    private JarFileEntries                  entries;
 
-    private boolean                    signed;
+    private SoftReference<Manifest>         manifest;
+
+    private boolean                         signed;
 
     /**
      * Create a new {@link JarFile} backed by the specified file.
@@ -83,38 +87,60 @@ public class JarFile extends java.util.jar.JarFile {
         this(new RandomAccessDataFile(file));
     }
 
+    /**
+     * Create a new {@link JarFile} backed by the specified file.
+     * @param file the root jar file
+     * @param mapped whether to read the file, as well as its nested jars, through memory
+     * mapped regions instead of file handles
+     * @throws IOException if the file cannot be read
+     */
+    public JarFile(File file, boolean mapped) throws IOException {
+        this(new RandomAccessDataFile(file), mapped);
+    }
+
     /**
      * Create a new {@link JarFile} backed by the specified file.
      * @param file the root jar file
      * @throws IOException if the file cannot be read
      */
     JarFile(RandomAccessDataFile file) throws IOException {
-        this(file, "", file, JarFileType.DIRECT);
+        this(file, false);
+    }
+
+    private JarFile(RandomAccessDataFile file, boolean mapped) throws IOException {
+        this(file, CentralDirectoryIndexFile.isEnabled() ? CentralDirectoryIndexFile.load(file
+            .getFile()) : null, "", mapped ? new MappedRandomAccessData(file.getFile()) : file,
+            JarFileType.DIRECT);
     }
 
     /**
      * Private constructor used to create a new {@link JarFile} either directly or from a
      * nested entry.
      * @param rootFile the root jar file
+     * @param indexFile the sidecar index of the root jar file, may be null
      * @param pathFromRoot the name of this file
      * @param data the underlying data
      * @param type the type of the jar file
      * @throws IOException if the file cannot be read
      */
-    private JarFile(RandomAccessDataFile rootFile, String pathFromRoot, RandomAccessData data,
-                    JarFileType type) throws IOException {
-        this(rootFile, pathFromRoot, data, null, type);
+    private JarFile(RandomAccessDataFile rootFile, CentralDirectoryIndexFile indexFile,
+                    String pathFromRoot, RandomAccessData data, JarFileType type)
+                                                                                 throws IOException {
+        this(rootFile, indexFile, pathFromRoot, data, null, type);
     }
 
-    private JarFile(RandomAccessDataFile rootFile, String pathFromRoot, RandomAccessData data,
-                    JarEntryFilter filter, JarFileType type) throws IOException {
+    private JarFile(RandomAccessDataFile rootFile, CentralDirectoryIndexFile indexFile,
+                    String pathFromRoot, RandomAccessData data, JarEntryFilter filter,
+                    JarFileType type) throws IOException {
         super(rootFile.getFile());
         this.rootFile = rootFile;
+        this.indexFile = indexFile;
         this.pathFromRoot = pathFromRoot;
         CentralDirectoryParser parser = new CentralDirectoryParser();
         this.entries = parser.addVisitor(new JarFileEntries(this, filter));
         parser.addVisitor(centralDirectoryVisitor());
-        this.data = parser.parse(data, filter == null);
+        this.data = parser.parse(data, filter == null, (indexFile == null || filter != null) ? null
+            : indexFile.getIndex(pathFromRoot));
         this.type = type;
     }
 
@@ -134,6 +160,11 @@ public class JarFile extends java.util.jar.JarFile {
                 }
             }
 
+            @Override
+            public void visitIndex(CentralDirectoryIndex index) {
+                JarFile.this.signed = index.isSigned();
+            }
+
             @Override
             public void visitEnd() {
             }
@@ -170,6 +201,25 @@ public class JarFile extends java.util.jar.JarFile {
         return manifest;
     }
 
+    /**
+     * Read main attributes of manifest by a streaming reader, the manifest is parsed
+     * as a whole only if it has been cached already
+     * @param reader streaming manifest reader
+     * @return main attributes, null if there is no manifest
+     * @throws IOException if the manifest can not be read
+     */
+    public StreamingManifestReader.MainAttributes readManifest(StreamingManifestReader reader)
+                                                                                              throws IOException {
+        Manifest manifest = (this.manifest == null ? null : this.manifest.get());
+        if (manifest != null || this.type == JarFileType.NESTED_DIRECTORY) {
+            manifest = getManifest();
+            return manifest == null ? null : reader.read(manifest);
+        }
+        try (InputStream inputStream = getInputStream(MANIFEST_NAME, ResourceAccess.ONCE)) {
+            return inputStream == null ? null : reader.read(inputStream);
+        }
+    }
+
     @Override
     public Enumeration<java.util.jar.JarEntry> entries() {
         final Iterator<JarEntry> iterator = this.entries.iterator();
@@ -197,6 +247,25 @@ public class JarFile extends java.util.jar.JarFile {
         return this.entries.containsEntry(name);
     }
 
+    /**
+     * Check entry by a name encoded once, such as a class entry name looked up in every
+     * jar of a classpath
+     * @param name encoded entry name
+     * @return whether the entry exists
+     */
+    public boolean containsEntry(AsciiBytes name) {
+        return this.entries.containsEntry(name);
+    }
+
+    /**
+     * Get entry by a name encoded once, candidates are compared without decoding
+     * @param name encoded entry name
+     * @return entry, null if not found
+     */
+    public JarEntry getJarEntry(AsciiBytes name) {
+        return this.entries.getEntry(name);
+    }
+
     @Override
     public ZipEntry getEntry(String name) {
         return this.entries.getEntry(name);
@@ -214,6 +283,18 @@ public class JarFile extends java.util.jar.JarFile {
         return getInputStream(ze == null ? null : ze.getName(), access);
     }
 
+    /**
+     * Transfer the content of an entry to a channel. Bytes of a stored entry, such as a
+     * nested jar, are moved without a copy on the heap.
+     * @param ze the zip entry
+     * @param target the channel to write to
+     * @return the number of bytes transferred, -1 if the entry does not exist
+     * @throws IOException in case of I/O errors
+     */
+    public long transferTo(ZipEntry ze, WritableByteChannel target) throws IOException {
+        return this.entries.transferTo(ze.getName(), target);
+    }
+
     InputStream getInputStream(String name, ResourceAccess access) throws IOException {
         return this.entries.getInputStream(name, access);
     }
@@ -224,7 +305,7 @@ public class JarFile extends java.util.jar.JarFile {
      * @return a {@link JarFile} for the entry
      * @throws IOException if the nested jar file cannot be read
      */
-    public synchronized JarFile getNestedJarFile(final ZipEntry entry) throws IOException {
+    public JarFile getNestedJarFile(final ZipEntry entry) throws IOException {
         return getNestedJarFile((JarEntry) entry);
     }
 
@@ -234,7 +315,7 @@ public class JarFile extends java.util.jar.JarFile {
      * @return a {@link JarFile} for the entry
      * @throws IOException if the nested jar file cannot be read
      */
-    public synchronized JarFile getNestedJarFile(JarEntry entry) throws IOException {
+    public JarFile getNestedJarFile(JarEntry entry) throws IOException {
         try {
             return createJarFileFromEntry(entry);
         } catch (Exception ex) {
@@ -262,9 +343,11 @@ public class JarFile extends java.util.jar.JarFile {
             }
 
         };
-        return new JarFile(this.rootFile, this.pathFromRoot + "!/"
-                                          + entry.getName().substring(0, sourceName.length() - 1),
-            this.data, filter, JarFileType.NESTED_DIRECTORY);
+        return new JarFile(this.rootFile, this.indexFile, this.pathFromRoot
+                                                          + "!/"
+                                                          + entry.getName().substring(0,
+                                                              sourceName.length() - 1), this.data,
+            filter, JarFileType.NESTED_DIRECTORY);
     }
 
     private JarFile createJarFileFromFileEntry(JarEntry entry) throws IOException {
@@ -276,7 +359,8 @@ public class JarFile extends java.util.jar.JarFile {
                         + "mechanism used to create your executable jar file");
         }
         RandomAccessData entryData = this.entries.getEntryData(entry.getName());
-        return new JarFile(this.rootFile, this.pathFromRoot + "!/" + entry.getName(), entryData,
+        return new JarFile(this.rootFile, this.indexFile, this.pathFromRoot + "!/"
+                                                          + entry.getName(), entryData,
             JarFileType.NESTED_JAR);
     }
 
@@ -320,6 +404,34 @@ public class JarFile extends java.util.jar.JarFile {
         return sb.append(str).append(this.pathFromRoot).toString();
     }
 
+    /**
+     * Whether entries are loaded from sidecar index instead of parsing central directory.
+     * @return true if indexed
+     */
+    public boolean isIndexed() {
+        return this.entries.isIndexed();
+    }
+
+    CentralDirectoryIndex getCentralDirectoryIndex() {
+        return this.entries.toIndex(this.signed);
+    }
+
+    /**
+     * Number of entry lookups served by the parsed entry cache.
+     * @return cache hit count
+     */
+    public long getEntryCacheHitCount() {
+        return this.entries.getCacheHitCount();
+    }
+
+    /**
+     * Number of entry lookups which had to parse the central directory record.
+     * @return cache miss count
+     */
+    public long getEntryCacheMissCount() {
+        return this.entries.getCacheMissCount();
+    }
+
     boolean isSigned() {
         return this.signed;
     }
@@ -18,10 +18,15 @@ package com.alipay.sofa.ark.loader.jar;
 
 import com.alipay.sofa.ark.loader.data.RandomAccessData;
 import com.alipay.sofa.ark.loader.data.RandomAccessData.ResourceAccess;
+import com.alipay.sofa.ark.spi.constant.Constants;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.zip.ZipEntry;
 
 /**
@@ -39,42 +44,52 @@ import java.util.zip.ZipEntry;
  */
 public class JarFileEntries implements CentralDirectoryVisitor, Iterable<JarEntry> {
 
-    private static final long              LOCAL_FILE_HEADER_SIZE = 30;
+    private static final long                 LOCAL_FILE_HEADER_SIZE = 30;
 
-    private static final String            SLASH                  = "/";
+    private static final String               SLASH                  = "/";
 
-    private static final String            NO_SUFFIX              = "";
+    private static final String               NO_SUFFIX              = "";
 
-    protected static final int             ENTRY_CACHE_SIZE       = 25;
+    private static final AsciiBytes           SLASH_BYTES            = new AsciiBytes(SLASH);
 
-    private final JarFile                  jarFile;
+    private static final int                  TRANSFER_BUFFER_SIZE   = 8192;
 
-    private final JarEntryFilter           filter;
+    protected static final int                ENTRY_CACHE_SIZE       = Integer
+                                                                         .getInteger(
+                                                                             Constants.JAR_ENTRY_CACHE_SIZE,
+                                                                             Constants.DEFAULT_JAR_ENTRY_CACHE_SIZE);
 
-    private RandomAccessData               centralDirectoryData;
+    protected static final boolean            ENTRY_CACHE_PIN_ALL    = Boolean
+                                                                         .getBoolean(Constants.JAR_ENTRY_CACHE_PIN_ALL);
 
-    private int                            size;
+    private final JarFile                     jarFile;
 
-    private int[]                          hashCodes;
+    private final JarEntryFilter              filter;
 
-    private int[]                          centralDirectoryOffsets;
+    private RandomAccessData                  centralDirectoryData;
 
-    private int[]                          positions;
+    private int                               size;
 
-    private final Map<Integer, FileHeader> entriesCache           = Collections
-                                                                      .synchronizedMap(new LinkedHashMap<Integer, FileHeader>(
-                                                                          16, 0.75f, true) {
+    private int[]                             hashCodes;
 
-                                                                          @Override
-                                                                          protected boolean removeEldestEntry(Map.Entry<Integer, FileHeader> eldest) {
-                                                                              if (JarFileEntries.this.jarFile
-                                                                                  .isSigned()) {
-                                                                                  return false;
-                                                                              }
-                                                                              return size() >= ENTRY_CACHE_SIZE;
-                                                                          }
+    private int[]                             centralDirectoryOffsets;
 
-                                                                      });
+    private int[]                             positions;
+
+    private boolean                           indexed;
+
+    /**
+     * Lock free direct mapped cache of parsed headers, slot of an entry is its index
+     * masked by capacity, so a hit neither locks nor mutates. When all entries are
+     * pinned, every entry owns its slot and is never evicted.
+     */
+    private AtomicReferenceArray<CachedEntry> entriesCache;
+
+    private boolean                           entriesPinned;
+
+    private final LongAdder                   cacheHitCount          = new LongAdder();
+
+    private final LongAdder                   cacheMissCount         = new LongAdder();
 
     public JarFileEntries(JarFile jarFile, JarEntryFilter filter) {
         this.jarFile = jarFile;
@@ -106,14 +121,37 @@ public class JarFileEntries implements CentralDirectoryVisitor, Iterable<JarEntr
         this.size++;
     }
 
+    @Override
+    public void visitIndex(CentralDirectoryIndex index) {
+        this.size = index.getSize();
+        this.hashCodes = index.getHashCodes();
+        this.centralDirectoryOffsets = index.getCentralDirectoryOffsets();
+        this.positions = index.getPositions();
+        this.indexed = true;
+    }
+
     @Override
     public void visitEnd() {
-        sort(0, this.size - 1);
-        int[] positions = this.positions;
-        this.positions = new int[positions.length];
-        for (int i = 0; i < this.size; i++) {
-            this.positions[positions[i]] = i;
+        if (!this.indexed) {
+            sort(0, this.size - 1);
+            int[] positions = this.positions;
+            this.positions = new int[positions.length];
+            for (int i = 0; i < this.size; i++) {
+                this.positions[positions[i]] = i;
+            }
         }
+        // entries of signed jar carry certificates, so they must never be evicted
+        this.entriesPinned = ENTRY_CACHE_PIN_ALL || this.jarFile.isSigned();
+        this.entriesCache = new AtomicReferenceArray<>(this.entriesPinned ? this.size
+            : cacheCapacity(ENTRY_CACHE_SIZE));
+    }
+
+    private static int cacheCapacity(int size) {
+        int capacity = 1;
+        while (capacity < size && capacity < (1 << 30)) {
+            capacity <<= 1;
+        }
+        return capacity;
     }
 
     private void sort(int left, int right) {
@@ -169,6 +207,25 @@ public class JarFileEntries implements CentralDirectoryVisitor, Iterable<JarEntr
         return getEntry(name, JarEntry.class, true);
     }
 
+    /**
+     * Variant of {@link #containsEntry(String)} for a name encoded once by the caller
+     * @param name encoded entry name
+     * @return whether the entry exists
+     */
+    public boolean containsEntry(AsciiBytes name) {
+        return getEntry(name, FileHeader.class, true) != null;
+    }
+
+    /**
+     * Variant of {@link #getEntry(String)} for a name encoded once by the caller, so
+     * candidates sharing the hash code are compared byte by byte without decoding
+     * @param name encoded entry name
+     * @return entry, null if not found
+     */
+    public JarEntry getEntry(AsciiBytes name) {
+        return getEntry(name, JarEntry.class, true);
+    }
+
     public InputStream getInputStream(String name, ResourceAccess access) throws IOException {
         FileHeader entry = getEntry(name, FileHeader.class, false);
         return getInputStream(entry, access);
@@ -185,6 +242,38 @@ public class JarFileEntries implements CentralDirectoryVisitor, Iterable<JarEntr
         return inputStream;
     }
 
+    /**
+     * Transfer the content of an entry to a channel. Stored entries are moved straight
+     * from the underlying data, compressed ones are inflated through a buffer.
+     * @param name entry name
+     * @param target the channel to write to
+     * @return the number of bytes transferred, -1 if the entry does not exist
+     * @throws IOException in case of I/O errors
+     */
+    public long transferTo(String name, WritableByteChannel target) throws IOException {
+        FileHeader entry = getEntry(name, FileHeader.class, false);
+        if (entry == null) {
+            return -1;
+        }
+        if (entry.getMethod() == ZipEntry.STORED) {
+            return getEntryData(entry).transferTo(target);
+        }
+        try (InputStream inputStream = getInputStream(entry, ResourceAccess.ONCE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(TRANSFER_BUFFER_SIZE);
+            long transferred = 0;
+            int count;
+            while ((count = inputStream.read(buffer.array())) != -1) {
+                buffer.limit(count);
+                while (buffer.hasRemaining()) {
+                    target.write(buffer);
+                }
+                buffer.clear();
+                transferred += count;
+            }
+            return transferred;
+        }
+    }
+
     public RandomAccessData getEntryData(String name) throws IOException {
         FileHeader entry = getEntry(name, FileHeader.class, false);
         if (entry == null) {
@@ -216,6 +305,29 @@ public class JarFileEntries implements CentralDirectoryVisitor, Iterable<JarEntr
         return entry;
     }
 
+    private <T extends FileHeader> T getEntry(AsciiBytes name, Class<T> type, boolean cacheEntry) {
+        int hashCode = name.hashCode();
+        T entry = getEntry(hashCode, name, null, type, cacheEntry);
+        if (entry == null) {
+            hashCode = AsciiBytes.hashCode(hashCode, SLASH);
+            entry = getEntry(hashCode, name, SLASH_BYTES, type, cacheEntry);
+        }
+        return entry;
+    }
+
+    private <T extends FileHeader> T getEntry(int hashCode, AsciiBytes name, AsciiBytes suffix,
+                                              Class<T> type, boolean cacheEntry) {
+        int index = getFirstIndex(hashCode);
+        while (index >= 0 && index < this.size && this.hashCodes[index] == hashCode) {
+            T entry = getEntry(index, type, cacheEntry);
+            if (entry.hasName(name, suffix)) {
+                return entry;
+            }
+            index++;
+        }
+        return null;
+    }
+
     private <T extends FileHeader> T getEntry(int hashCode, String name, String suffix,
                                               Class<T> type, boolean cacheEntry) {
         int index = getFirstIndex(hashCode);
@@ -232,7 +344,7 @@ public class JarFileEntries implements CentralDirectoryVisitor, Iterable<JarEntr
     @SuppressWarnings("unchecked")
     private <T extends FileHeader> T getEntry(int index, Class<T> type, boolean cacheEntry) {
         try {
-            FileHeader cached = this.entriesCache.get(index);
+            FileHeader cached = getCachedEntry(index);
             FileHeader entry = (cached != null ? cached : CentralDirectoryFileHeader
                 .fromRandomAccessData(this.centralDirectoryData,
                     this.centralDirectoryOffsets[index], this.filter));
@@ -241,7 +353,7 @@ public class JarFileEntries implements CentralDirectoryVisitor, Iterable<JarEntr
                 entry = new JarEntry(this.jarFile, (CentralDirectoryFileHeader) entry);
             }
             if (cacheEntry && cached != entry) {
-                this.entriesCache.put(index, entry);
+                this.entriesCache.lazySet(cacheSlot(index), new CachedEntry(index, entry));
             }
             return (T) entry;
         } catch (IOException ex) {
@@ -249,6 +361,20 @@ public class JarFileEntries implements CentralDirectoryVisitor, Iterable<JarEntr
         }
     }
 
+    private FileHeader getCachedEntry(int index) {
+        CachedEntry cached = this.entriesCache.get(cacheSlot(index));
+        if (cached != null && cached.index == index) {
+            this.cacheHitCount.increment();
+            return cached.entry;
+        }
+        this.cacheMissCount.increment();
+        return null;
+    }
+
+    private int cacheSlot(int index) {
+        return this.entriesPinned ? index : index & (this.entriesCache.length() - 1);
+    }
+
     private int getFirstIndex(int hashCode) {
         int index = Arrays.binarySearch(this.hashCodes, 0, this.size, hashCode);
         if (index < 0) {
@@ -261,13 +387,53 @@ public class JarFileEntries implements CentralDirectoryVisitor, Iterable<JarEntr
     }
 
     public void clearCache() {
-        this.entriesCache.clear();
+        for (int i = 0; i < this.entriesCache.length(); i++) {
+            this.entriesCache.set(i, null);
+        }
+    }
+
+    /**
+     * Export parsed entries, only meaningful when no filter is applied
+     * @param signed whether the jar is signed
+     * @return index of entries
+     */
+    CentralDirectoryIndex toIndex(boolean signed) {
+        return new CentralDirectoryIndex(this.size, this.hashCodes, this.centralDirectoryOffsets,
+            this.positions, signed);
+    }
+
+    boolean isIndexed() {
+        return this.indexed;
+    }
+
+    public long getCacheHitCount() {
+        return this.cacheHitCount.sum();
+    }
+
+    public long getCacheMissCount() {
+        return this.cacheMissCount.sum();
     }
 
     private AsciiBytes applyFilter(AsciiBytes name) {
         return (this.filter == null ? name : this.filter.apply(name));
     }
 
+    /**
+     * Parsed header of the entry at index.
+     */
+    private static final class CachedEntry {
+
+        private final int        index;
+
+        private final FileHeader entry;
+
+        CachedEntry(int index, FileHeader entry) {
+            this.index = index;
+            this.entry = entry;
+        }
+
+    }
+
     /**
      * Iterator for contained entries.
      */
@@ -18,6 +18,7 @@ package com.alipay.sofa.ark.loader.jar;
 
 import java.io.*;
 import java.net.*;
+import java.nio.channels.WritableByteChannel;
 import java.security.Permission;
 import com.alipay.sofa.ark.loader.data.RandomAccessData.ResourceAccess;
 
@@ -163,6 +164,31 @@ final public class JarURLConnection extends java.net.JarURLConnection {
         return inputStream;
     }
 
+    /**
+     * Transfer the content of the connection to a channel instead of reading it through
+     * {@link #getInputStream()}, stored entries are moved without a copy on the heap.
+     * @param target the channel to write to
+     * @return the number of bytes transferred
+     * @throws IOException in case of I/O errors
+     */
+    public long transferTo(WritableByteChannel target) throws IOException {
+        if (this.jarFile == null) {
+            throw FILE_NOT_FOUND_EXCEPTION;
+        }
+        if (this.jarEntryName.isEmpty() && this.jarFile.getType() == JarFile.JarFileType.DIRECT) {
+            throw new IOException("no entry name specified");
+        }
+        connect();
+        if (this.jarEntryName.isEmpty()) {
+            return this.jarFile.getData().transferTo(target);
+        }
+        long transferred = this.jarFile.transferTo(this.jarEntry, target);
+        if (transferred < 0) {
+            throwFileNotFound(this.jarEntryName, this.jarFile);
+        }
+        return transferred;
+    }
+
     private void throwFileNotFound(Object entry, JarFile jarFile) throws FileNotFoundException {
         if (Boolean.TRUE.equals(useFastExceptions.get())) {
             throw FILE_NOT_FOUND_EXCEPTION;
@@ -235,6 +261,10 @@ final public class JarURLConnection extends java.net.JarURLConnection {
         JarURLConnection.useFastExceptions.set(useFastExceptions);
     }
 
+    static boolean isUseFastExceptions() {
+        return Boolean.TRUE.equals(JarURLConnection.useFastExceptions.get());
+    }
+
     static JarURLConnection get(URL url, JarFile jarFile) throws IOException {
         String spec = extractFullSpec(url, jarFile.getPathFromRoot());
         int separator;
@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.ark.loader.jar;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of root {@link JarFile}s opened by {@link Handler}. Each entry is held
+ * either strongly, so it survives memory pressure, or softly. When the cache is full the
+ * least recently used entry is evicted. Evicted jar files are not closed, as classloaders
+ * may still read from them, they are only no longer pinned by the cache. Jar files of
+ * uninstalled biz are removed and closed through {@link #remove(File)}.
+ *
+ * @author ruoshan
+ * @since 1.1.7
+ */
+public class RootFileCache {
+
+    private final int                      capacity;
+
+    private final boolean                  soft;
+
+    private final Map<File, CachedJarFile> cache         = new ConcurrentHashMap<>();
+
+    private final AtomicLong               clock         = new AtomicLong();
+
+    private final LongAdder                hitCount      = new LongAdder();
+
+    private final LongAdder                openCount     = new LongAdder();
+
+    private final LongAdder                evictionCount = new LongAdder();
+
+    public RootFileCache(int capacity, boolean soft) {
+        this.capacity = Math.max(capacity, 1);
+        this.soft = soft;
+    }
+
+    /**
+     * Get cached jar file
+     * @param file root file
+     * @return jar file, null if not cached or cleared by GC
+     */
+    public JarFile get(File file) {
+        CachedJarFile cached = this.cache.get(file);
+        if (cached == null) {
+            return null;
+        }
+        JarFile jarFile = cached.get();
+        if (jarFile == null) {
+            this.cache.remove(file, cached);
+            return null;
+        }
+        cached.lastAccess = this.clock.incrementAndGet();
+        this.hitCount.increment();
+        return jarFile;
+    }
+
+    /**
+     * Get cached jar file, or open and cache it. If another thread opened the same file
+     * at the same time, the one cached first wins and the other is closed.
+     * @param file root file
+     * @return jar file
+     * @throws IOException if the file can not be opened
+     */
+    public JarFile getOrOpen(File file) throws IOException {
+        JarFile jarFile = get(file);
+        if (jarFile != null) {
+            return jarFile;
+        }
+        jarFile = new JarFile(file);
+        this.openCount.increment();
+        CachedJarFile cached = newCachedJarFile(jarFile);
+        while (true) {
+            CachedJarFile existing = this.cache.putIfAbsent(file, cached);
+            if (existing == null) {
+                evictIfNecessary();
+                return jarFile;
+            }
+            JarFile existingJarFile = existing.get();
+            if (existingJarFile != null) {
+                jarFile.close();
+                return existingJarFile;
+            }
+            if (this.cache.replace(file, existing, cached)) {
+                return jarFile;
+            }
+        }
+    }
+
+    /**
+     * Cache jar file, replacing the one cached before
+     * @param file root file
+     * @param jarFile jar file
+     */
+    public void put(File file, JarFile jarFile) {
+        this.cache.put(file, newCachedJarFile(jarFile));
+        evictIfNecessary();
+    }
+
+    /**
+     * Remove cached jar file
+     * @param file root file
+     * @return jar file removed, null if not cached or cleared by GC
+     */
+    public JarFile remove(File file) {
+        CachedJarFile cached = this.cache.remove(file);
+        return cached == null ? null : cached.get();
+    }
+
+    private CachedJarFile newCachedJarFile(JarFile jarFile) {
+        return new CachedJarFile(jarFile, this.soft, this.clock.incrementAndGet());
+    }
+
+    private void evictIfNecessary() {
+        while (this.cache.size() > this.capacity) {
+            Map.Entry<File, CachedJarFile> eldest = null;
+            for (Map.Entry<File, CachedJarFile> entry : this.cache.entrySet()) {
+                if (eldest == null || entry.getValue().lastAccess < eldest.getValue().lastAccess) {
+                    eldest = entry;
+                }
+            }
+            if (eldest != null && this.cache.remove(eldest.getKey(), eldest.getValue())) {
+                this.evictionCount.increment();
+            }
+        }
+    }
+
+    public int getCapacity() {
+        return this.capacity;
+    }
+
+    public boolean isSoft() {
+        return this.soft;
+    }
+
+    public int getSize() {
+        return this.cache.size();
+    }
+
+    public long getHitCount() {
+        return this.hitCount.sum();
+    }
+
+    /**
+     * Number of root files opened because they were not cached, each of them parsed
+     * the central directory once
+     * @return open count
+     */
+    public long getOpenCount() {
+        return this.openCount.sum();
+    }
+
+    public long getEvictionCount() {
+        return this.evictionCount.sum();
+    }
+
+    /**
+     * Jar file held strongly or softly.
+     */
+    private static final class CachedJarFile {
+
+        private final JarFile                strongReference;
+
+        private final SoftReference<JarFile> softReference;
+
+        private volatile long                lastAccess;
+
+        private CachedJarFile(JarFile jarFile, boolean soft, long lastAccess) {
+            this.strongReference = soft ? null : jarFile;
+            this.softReference = soft ? new SoftReference<>(jarFile) : null;
+            this.lastAccess = lastAccess;
+        }
+
+        private JarFile get() {
+            return this.strongReference != null ? this.strongReference : this.softReference.get();
+        }
+
+    }
+
+}
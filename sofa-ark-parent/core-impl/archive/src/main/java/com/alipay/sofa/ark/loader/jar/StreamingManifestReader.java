@@ -0,0 +1,317 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.ark.loader.jar;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.jar.Manifest;
+
+/**
+ * Reads selected attributes of the main section of a manifest straight from its bytes,
+ * without building a {@link java.util.jar.Manifest}. Reading stops at the end of the
+ * main section, attributes which are not asked for are skipped, and values of list
+ * attributes are split at the separator while being read, so a very long value is
+ * never materialized as a whole.
+ *
+ * @author ruoshan
+ * @since 1.1.7
+ */
+public class StreamingManifestReader {
+
+    private static final int  BUFFER_SIZE = 4096;
+
+    private final Set<String> valueNames  = new HashSet<>();
+
+    private final Set<String> listNames   = new HashSet<>();
+
+    private final byte        separator;
+
+    /**
+     * @param separator separator of list attribute values, such as ','
+     */
+    public StreamingManifestReader(char separator) {
+        this.separator = (byte) separator;
+    }
+
+    /**
+     * Attributes whose value is read as a whole
+     * @param names attribute names
+     * @return this reader
+     */
+    public StreamingManifestReader value(String... names) {
+        for (String name : names) {
+            this.valueNames.add(name.toLowerCase(Locale.ENGLISH));
+        }
+        return this;
+    }
+
+    /**
+     * Attributes whose value is split at separator, elements are trimmed
+     * @param names attribute names
+     * @return this reader
+     */
+    public StreamingManifestReader list(String... names) {
+        for (String name : names) {
+            this.listNames.add(name.toLowerCase(Locale.ENGLISH));
+        }
+        return this;
+    }
+
+    /**
+     * Read main attributes from manifest bytes, the stream is not closed
+     * @param inputStream manifest input stream
+     * @return main attributes
+     * @throws IOException if the stream can not be read
+     */
+    public MainAttributes read(InputStream inputStream) throws IOException {
+        MainAttributes attributes = new MainAttributes();
+        LineReader lineReader = new LineReader(inputStream);
+        ValueReader valueReader = null;
+        while (lineReader.readLine()) {
+            byte[] line = lineReader.line;
+            int length = lineReader.length;
+            if (length == 0) {
+                // end of main section
+                break;
+            }
+            if (line[0] == ' ') {
+                if (valueReader != null) {
+                    valueReader.append(line, 1, length);
+                }
+                continue;
+            }
+            if (valueReader != null) {
+                valueReader.finish(attributes);
+                valueReader = null;
+            }
+            int colon = indexOf(line, length, (byte) ':');
+            if (colon <= 0) {
+                continue;
+            }
+            String name = new String(line, 0, colon, StandardCharsets.UTF_8)
+                .toLowerCase(Locale.ENGLISH);
+            boolean isList = this.listNames.contains(name);
+            if (isList || this.valueNames.contains(name)) {
+                valueReader = new ValueReader(name, isList);
+                int start = colon + 1;
+                if (start < length && line[start] == ' ') {
+                    start++;
+                }
+                valueReader.append(line, start, length);
+            }
+        }
+        if (valueReader != null) {
+            valueReader.finish(attributes);
+        }
+        return attributes;
+    }
+
+    /**
+     * Read main attributes from a manifest which has been parsed already
+     * @param manifest manifest
+     * @return main attributes
+     */
+    public MainAttributes read(Manifest manifest) {
+        MainAttributes attributes = new MainAttributes();
+        for (Map.Entry<Object, Object> entry : manifest.getMainAttributes().entrySet()) {
+            String name = entry.getKey().toString().toLowerCase(Locale.ENGLISH);
+            boolean isList = this.listNames.contains(name);
+            if (isList || this.valueNames.contains(name)) {
+                byte[] value = ((String) entry.getValue()).getBytes(StandardCharsets.UTF_8);
+                ValueReader valueReader = new ValueReader(name, isList);
+                valueReader.append(value, 0, value.length);
+                valueReader.finish(attributes);
+            }
+        }
+        return attributes;
+    }
+
+    private static int indexOf(byte[] bytes, int length, byte target) {
+        for (int i = 0; i < length; i++) {
+            if (bytes[i] == target) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Main attributes read by {@link StreamingManifestReader}, attribute names are case
+     * insensitive.
+     */
+    public static class MainAttributes {
+
+        private final Map<String, String>      values = new HashMap<>();
+
+        private final Map<String, Set<String>> lists  = new HashMap<>();
+
+        /**
+         * @param name attribute name
+         * @return value, null if absent
+         */
+        public String getValue(String name) {
+            return this.values.get(name.toLowerCase(Locale.ENGLISH));
+        }
+
+        /**
+         * @param name attribute name
+         * @return elements in order, empty if absent
+         */
+        public Set<String> getList(String name) {
+            Set<String> list = this.lists.get(name.toLowerCase(Locale.ENGLISH));
+            return list == null ? new LinkedHashSet<String>() : list;
+        }
+
+    }
+
+    private final class ValueReader {
+
+        private final String      name;
+
+        private final boolean     isList;
+
+        private final Set<String> elements;
+
+        private byte[]            buffer = new byte[64];
+
+        private int               length;
+
+        private ValueReader(String name, boolean isList) {
+            this.name = name;
+            this.isList = isList;
+            this.elements = isList ? new LinkedHashSet<String>() : Collections.<String> emptySet();
+        }
+
+        private void append(byte[] bytes, int start, int end) {
+            for (int i = start; i < end; i++) {
+                if (this.isList && bytes[i] == separator) {
+                    flushElement();
+                } else {
+                    if (this.length == this.buffer.length) {
+                        this.buffer = Arrays.copyOf(this.buffer, this.length * 2);
+                    }
+                    this.buffer[this.length++] = bytes[i];
+                }
+            }
+        }
+
+        private void flushElement() {
+            int start = 0;
+            int end = this.length;
+            while (start < end && this.buffer[start] <= ' ') {
+                start++;
+            }
+            while (end > start && this.buffer[end - 1] <= ' ') {
+                end--;
+            }
+            if (end > start) {
+                this.elements.add(new String(this.buffer, start, end - start,
+                    StandardCharsets.UTF_8));
+            }
+            this.length = 0;
+        }
+
+        private void finish(MainAttributes attributes) {
+            if (this.isList) {
+                flushElement();
+                attributes.lists.put(this.name, this.elements);
+            } else {
+                attributes.values.put(this.name, new String(this.buffer, 0, this.length,
+                    StandardCharsets.UTF_8));
+            }
+        }
+
+    }
+
+    /**
+     * Reads lines ended by CR, LF or CRLF into a reused buffer.
+     */
+    private static final class LineReader {
+
+        private final InputStream inputStream;
+
+        private final byte[]      buffer = new byte[BUFFER_SIZE];
+
+        private int               position;
+
+        private int               limit;
+
+        private byte[]            line   = new byte[128];
+
+        private int               length;
+
+        private LineReader(InputStream inputStream) {
+            this.inputStream = inputStream;
+        }
+
+        private boolean readLine() throws IOException {
+            this.length = 0;
+            int b = read();
+            if (b == -1) {
+                return false;
+            }
+            while (b != -1 && b != '\n' && b != '\r') {
+                if (this.length == this.line.length) {
+                    this.line = Arrays.copyOf(this.line, this.length * 2);
+                }
+                this.line[this.length++] = (byte) b;
+                b = read();
+            }
+            if (b == '\r') {
+                if (peek() == '\n') {
+                    read();
+                }
+            }
+            return true;
+        }
+
+        private int read() throws IOException {
+            if (this.position == this.limit && !fill()) {
+                return -1;
+            }
+            return this.buffer[this.position++] & 0xFF;
+        }
+
+        private int peek() throws IOException {
+            if (this.position == this.limit && !fill()) {
+                return -1;
+            }
+            return this.buffer[this.position] & 0xFF;
+        }
+
+        private boolean fill() throws IOException {
+            int count = this.inputStream.read(this.buffer, 0, this.buffer.length);
+            if (count <= 0) {
+                return false;
+            }
+            this.position = 0;
+            this.limit = count;
+            return true;
+        }
+
+    }
+
+}
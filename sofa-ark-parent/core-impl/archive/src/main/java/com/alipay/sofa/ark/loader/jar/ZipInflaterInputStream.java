@@ -16,10 +16,11 @@
  */
 package com.alipay.sofa.ark.loader.jar;
 
+import com.alipay.sofa.ark.spi.constant.Constants;
+
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.zip.Inflater;
 import java.util.zip.InflaterInputStream;
 
 /**
@@ -30,15 +31,41 @@ import java.util.zip.InflaterInputStream;
  */
 public class ZipInflaterInputStream extends InflaterInputStream {
 
-    private boolean extraBytesWritten;
+    private static final InflaterPool         INFLATER_POOL = new InflaterPool(
+                                                                Integer
+                                                                    .getInteger(
+                                                                        Constants.JAR_INFLATER_POOL_SIZE,
+                                                                        Constants.DEFAULT_JAR_INFLATER_POOL_SIZE));
+
+    private final InflaterPool.PooledInflater pooledInflater;
+
+    private boolean                           extraBytesWritten;
+
+    private int                               available;
 
-    private int     available;
+    private boolean                           closed;
 
     ZipInflaterInputStream(InputStream inputStream, int size) {
-        super(inputStream, new Inflater(true), getInflaterBufferSize(size));
+        this(inputStream, size, INFLATER_POOL.acquire());
+    }
+
+    private ZipInflaterInputStream(InputStream inputStream, int size,
+                                   InflaterPool.PooledInflater pooledInflater) {
+        // buffer of size one is replaced at once by the pooled one
+        super(inputStream, pooledInflater.getInflater(), 1);
+        this.pooledInflater = pooledInflater;
+        this.buf = pooledInflater.getBuffer();
         this.available = size;
     }
 
+    /**
+     * Get the pool shared by all compressed entry streams
+     * @return inflater pool
+     */
+    public static InflaterPool getInflaterPool() {
+        return INFLATER_POOL;
+    }
+
     @Override
     public int available() throws IOException {
         if (this.available < 0) {
@@ -58,8 +85,15 @@ public class ZipInflaterInputStream extends InflaterInputStream {
 
     @Override
     public void close() throws IOException {
-        super.close();
-        this.inf.end();
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        try {
+            super.close();
+        } finally {
+            INFLATER_POOL.release(this.pooledInflater);
+        }
     }
 
     @Override
@@ -77,12 +111,4 @@ public class ZipInflaterInputStream extends InflaterInputStream {
         }
     }
 
-    private static int getInflaterBufferSize(long size) {
-        // inflater likes some space
-        size += 2;
-        size = (size > 65536 ? 8192 : size);
-        size = (size <= 0 ? 4096 : size);
-        return (int) size;
-    }
-
 }
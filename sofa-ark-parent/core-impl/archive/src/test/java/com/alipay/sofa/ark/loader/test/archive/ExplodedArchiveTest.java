@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.ark.loader.test.archive;
+
+import com.alipay.sofa.ark.loader.archive.ExplodedArchive;
+import com.alipay.sofa.ark.loader.test.base.BaseTest;
+import com.alipay.sofa.ark.spi.archive.Archive;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @author ruoshan
+ * @since 1.1.7
+ */
+public class ExplodedArchiveTest extends BaseTest {
+
+    @Test
+    public void testFileIndex() throws IOException {
+        File root = Files.createTempDirectory("exploded").toFile();
+        root.deleteOnExit();
+        Assert.assertTrue(new File(root, "META-INF").mkdir());
+        Assert.assertTrue(new File(root, "lib/b").mkdirs());
+        Assert.assertTrue(new File(root, "META-INF/MANIFEST.MF").createNewFile());
+        Assert.assertTrue(new File(root, "lib/a.jar").createNewFile());
+        Assert.assertTrue(new File(root, "lib/b/c.txt").createNewFile());
+
+        ExplodedArchive archive = new ExplodedArchive(root);
+        Assert.assertEquals(Arrays.asList("META-INF/", "META-INF/MANIFEST.MF", "lib/", "lib/a.jar",
+            "lib/b/", "lib/b/c.txt"), getEntryNames(archive));
+        Assert.assertTrue(archive.containsEntry("lib/b/"));
+        Assert.assertFalse(archive.containsEntry("lib/d.jar"));
+
+        Assert.assertEquals(
+            Arrays.asList("META-INF/", "META-INF/MANIFEST.MF", "lib/", "lib/a.jar", "lib/b/"),
+            getEntryNames(new ExplodedArchive(root, false)));
+
+        Assert.assertTrue(new File(root, "lib/d.jar").createNewFile());
+        Assert.assertFalse(archive.containsEntry("lib/d.jar"));
+        archive.refresh();
+        Assert.assertTrue(archive.containsEntry("lib/d.jar"));
+
+        List<Archive> nestedArchives = archive.getNestedArchives(new Archive.EntryFilter() {
+            @Override
+            public boolean matches(Archive.Entry entry) {
+                return entry.isDirectory() && entry.getName().equals("lib/b/");
+            }
+        });
+        Assert.assertEquals(1, nestedArchives.size());
+        Assert.assertTrue(nestedArchives.get(0) instanceof ExplodedArchive);
+        Assert.assertTrue(((ExplodedArchive) nestedArchives.get(0)).containsEntry("c.txt"));
+    }
+
+    private List<String> getEntryNames(Archive archive) {
+        List<String> names = new ArrayList<>();
+        for (Archive.Entry entry : archive) {
+            names.add(entry.getName());
+        }
+        return names;
+    }
+
+}
@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.ark.loader.test.archive;
+
+import com.alipay.sofa.ark.loader.archive.JarFileArchive;
+import com.alipay.sofa.ark.loader.test.base.BaseTest;
+import com.alipay.sofa.ark.spi.archive.Archive;
+import com.alipay.sofa.ark.spi.constant.Constants;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author ruoshan
+ * @since 1.1.7
+ */
+public class JarFileArchiveTest extends BaseTest {
+
+    private final Archive.EntryFilter nestedFilter = new Archive.EntryFilter() {
+                                                       @Override
+                                                       public boolean matches(Archive.Entry entry) {
+                                                           return entry.isDirectory()
+                                                                  || entry.getName().endsWith(
+                                                                      ".jar");
+                                                       }
+                                                   };
+
+    @After
+    public void after() {
+        System.clearProperty(Constants.ARCHIVE_DISCOVERY_PARALLEL_ENABLE);
+        System.clearProperty(Constants.ARCHIVE_DISCOVERY_PARALLEL_POOL_SIZE);
+    }
+
+    @Test
+    public void testGetNestedArchivesInParallel() throws IOException {
+        List<URL> urls = getNestedArchiveUrls();
+        Assert.assertEquals(4, urls.size());
+
+        System.setProperty(Constants.ARCHIVE_DISCOVERY_PARALLEL_ENABLE, "true");
+        System.setProperty(Constants.ARCHIVE_DISCOVERY_PARALLEL_POOL_SIZE, "2");
+        Assert.assertEquals(urls, getNestedArchiveUrls());
+
+        List<Archive> archives = new JarFileArchive(getTempDemoZip())
+            .getNestedArchives(nestedFilter);
+        Archive junitArchive = archives.get(2);
+        Assert.assertTrue(junitArchive.getUrl().toString().endsWith("lib/junit-4.12.jar!/"));
+        Assert.assertEquals("JUnit",
+            junitArchive.getManifest().getMainAttributes().getValue("Implementation-Title"));
+    }
+
+    @Test
+    public void testGetNestedArchivesWithIllegalPoolSize() throws IOException {
+        List<URL> urls = getNestedArchiveUrls();
+        System.setProperty(Constants.ARCHIVE_DISCOVERY_PARALLEL_ENABLE, "true");
+        System.setProperty(Constants.ARCHIVE_DISCOVERY_PARALLEL_POOL_SIZE, "0");
+        Assert.assertEquals(urls, getNestedArchiveUrls());
+    }
+
+    private List<URL> getNestedArchiveUrls() throws IOException {
+        List<URL> urls = new ArrayList<>();
+        for (Archive archive : new JarFileArchive(getTempDemoZip()).getNestedArchives(nestedFilter)) {
+            urls.add(archive.getUrl());
+        }
+        return urls;
+    }
+
+}
@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.ark.loader.test.data;
+
+import com.alipay.sofa.ark.loader.data.MappedRandomAccessData;
+import com.alipay.sofa.ark.loader.data.RandomAccessData;
+import com.alipay.sofa.ark.loader.test.base.BaseTest;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+
+/**
+ * @author ruoshan
+ * @since 1.1.7
+ */
+public class MappedRandomAccessDataTest extends BaseTest {
+
+    @Test
+    public void testInputStream() throws IOException {
+        MappedRandomAccessData testData = new MappedRandomAccessData(getTempDemoFile());
+        try (InputStream is = testData.getInputStream(RandomAccessData.ResourceAccess.PER_READ)) {
+            byte[] bytes = new byte[20];
+            Assert.assertEquals(16, is.read(bytes));
+            for (int i = 0; i < 16; ++i) {
+                Assert.assertEquals('1' + i / 2, bytes[i] & 0xFF);
+            }
+            Assert.assertEquals(-1, is.read());
+        }
+    }
+
+    @Test
+    public void testSize() throws IOException {
+        MappedRandomAccessData testData = new MappedRandomAccessData(getTempDemoFile());
+        Assert.assertEquals(16, testData.getSize());
+    }
+
+    @Test
+    public void testSubsection() throws IOException {
+        MappedRandomAccessData testData = new MappedRandomAccessData(getTempDemoFile());
+        try {
+            testData.getSubsection(0, 17);
+            Assert.fail("Should throws IndexOutOfBoundsException");
+        } catch (Exception ex) {
+            Assert.assertTrue(ex instanceof IndexOutOfBoundsException);
+        }
+
+        RandomAccessData subData = testData.getSubsection(2, 4);
+        try (InputStream is = subData.getInputStream(RandomAccessData.ResourceAccess.ONCE)) {
+            byte[] bytes = new byte[10];
+            Assert.assertEquals(4, is.read(bytes));
+            for (int i = 0; i < 4; ++i) {
+                Assert.assertEquals('2' + i / 2, bytes[i] & 0xFF);
+            }
+        }
+    }
+
+    @Test
+    public void testReadAcrossChunks() throws IOException {
+        MappedRandomAccessData testData = new MappedRandomAccessData(getTempDemoFile(), 3);
+        RandomAccessData subData = testData.getSubsection(1, 14);
+        try (InputStream is = subData.getInputStream(RandomAccessData.ResourceAccess.PER_READ)) {
+            Assert.assertEquals('1', is.read());
+            Assert.assertEquals(2, is.skip(2));
+            byte[] bytes = new byte[8];
+            Assert.assertEquals(8, is.read(bytes));
+            for (int i = 0; i < 8; ++i) {
+                Assert.assertEquals('1' + (i + 4) / 2, bytes[i] & 0xFF);
+            }
+            Assert.assertEquals(3, is.skip(10));
+            Assert.assertEquals(-1, is.read(bytes));
+        }
+    }
+
+    @Test
+    public void testTransferAcrossChunks() throws IOException {
+        MappedRandomAccessData testData = new MappedRandomAccessData(getTempDemoFile(), 3);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        Assert.assertEquals(10,
+            testData.getSubsection(2, 10).transferTo(Channels.newChannel(outputStream)));
+        Assert.assertEquals("2233445566", new String(outputStream.toByteArray()));
+    }
+
+}
@@ -46,4 +46,15 @@ public class AsciiBytesTest {
         asciiBytes.append(suffixAsciiBytes).equals(content + suffix);
         asciiBytes.append(suffixBytes).equals(content + suffix);
     }
+
+    @Test
+    public void testMatches() {
+        AsciiBytes name = new AsciiBytes("com/alipay/");
+        Assert.assertTrue(name.matches(new AsciiBytes("com/alipay"), new AsciiBytes("/")));
+        Assert.assertTrue(name.matches(new AsciiBytes("com/alipay/"), null));
+        Assert.assertFalse(name.matches(new AsciiBytes("com/alipay"), null));
+        Assert.assertFalse(name.matches(new AsciiBytes("com/alipax"), new AsciiBytes("/")));
+        Assert.assertTrue(asciiBytes.substring(8, 10).matches(new AsciiBytes("i"),
+            new AsciiBytes("s")));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,211 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.ark.loader.test.jar;
+
+import com.alipay.sofa.ark.loader.jar.CentralDirectoryIndexFile;
+import com.alipay.sofa.ark.loader.jar.JarFile;
+import com.alipay.sofa.ark.loader.test.base.BaseTest;
+import com.alipay.sofa.ark.spi.constant.Constants;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+
+/**
+ * @author ruoshan
+ * @since 1.1.7
+ */
+public class CentralDirectoryIndexFileTest extends BaseTest {
+
+    @After
+    public void after() {
+        System.clearProperty(Constants.JAR_INDEX_ENABLE);
+        CentralDirectoryIndexFile.getIndexFile(getTempDemoZip()).delete();
+    }
+
+    @Test
+    public void testIndexedJarFile() throws IOException {
+        File jar = getTempDemoZip();
+        Assert.assertTrue(CentralDirectoryIndexFile.createIfNecessary(jar));
+        Assert.assertFalse(CentralDirectoryIndexFile.createIfNecessary(jar));
+        Assert.assertEquals(2, CentralDirectoryIndexFile.load(jar).size());
+
+        System.setProperty(Constants.JAR_INDEX_ENABLE, "true");
+        JarFile jarFile = new JarFile(jar);
+        Assert.assertTrue(jarFile.isIndexed());
+        Assert.assertEquals("v1", jarFile.getManifest().getMainAttributes().getValue("k1"));
+        Assert.assertTrue(jarFile.containsEntry(TEST_ENTRY));
+        Assert.assertEquals(TEST_ENTRY_COMMENT, jarFile.getEntry(TEST_ENTRY).getComment());
+
+        JarFile nestJarFile = jarFile.getNestedJarFile(jarFile.getJarEntry("lib/junit-4.12.jar"));
+        Assert.assertTrue(nestJarFile.isIndexed());
+        Assert.assertEquals("JUnit",
+            nestJarFile.getManifest().getMainAttributes().getValue("Implementation-Title"));
+        Assert.assertNotNull(nestJarFile.getEntry("org/junit/Test.class"));
+        Assert.assertNull(nestJarFile.getEntry("org/junit/NotExist.class"));
+
+        System.clearProperty(Constants.JAR_INDEX_ENABLE);
+        Assert.assertFalse(new JarFile(jar).isIndexed());
+    }
+
+    @Test
+    public void testStaleIndexFile() throws IOException {
+        File jar = getTempDemoZip();
+        CentralDirectoryIndexFile.createIfNecessary(jar);
+        long lastModified = jar.lastModified();
+        try {
+            Assert.assertTrue(jar.setLastModified(lastModified - 2000));
+            Assert.assertNull(CentralDirectoryIndexFile.load(jar));
+            Assert.assertTrue(CentralDirectoryIndexFile.createIfNecessary(jar));
+            Assert.assertNotNull(CentralDirectoryIndexFile.load(jar));
+        } finally {
+            jar.setLastModified(lastModified);
+        }
+    }
+
+    @Test
+    public void testReplacedJarWithSameSizeAndLastModified() throws IOException {
+        File jar = File.createTempFile("replaced", ".jar");
+        jar.deleteOnExit();
+        FileUtils.copyFile(getTempDemoZip(), jar);
+        try {
+            Assert.assertTrue(CentralDirectoryIndexFile.createIfNecessary(jar));
+            long length = jar.length();
+            long lastModified = jar.lastModified();
+            // change a byte of the last central directory header, just before end record
+            try (RandomAccessFile randomAccessFile = new RandomAccessFile(jar, "rw")) {
+                long position = randomAccessFile.length() - 22 - 1;
+                randomAccessFile.seek(position);
+                int value = randomAccessFile.read();
+                randomAccessFile.seek(position);
+                randomAccessFile.write(value ^ 1);
+            }
+            Assert.assertTrue(jar.setLastModified(lastModified));
+            Assert.assertEquals(length, jar.length());
+            Assert.assertNull(CentralDirectoryIndexFile.load(jar));
+        } finally {
+            CentralDirectoryIndexFile.getIndexFile(jar).delete();
+            jar.delete();
+        }
+    }
+
+    @Test
+    public void testIndexFileValidatedByEndRecord() throws IOException {
+        File jar = File.createTempFile("trusted", ".jar");
+        jar.deleteOnExit();
+        FileUtils.copyFile(getTempDemoZip(), jar);
+        try {
+            // jar older than the sidecar by more than timestamp granularity
+            long lastModified = jar.lastModified() - 10000;
+            Assert.assertTrue(jar.setLastModified(lastModified));
+            Assert.assertTrue(CentralDirectoryIndexFile.createIfNecessary(jar));
+            // central directory content is not compared, end record is
+            try (RandomAccessFile randomAccessFile = new RandomAccessFile(jar, "rw")) {
+                long position = randomAccessFile.length() - 22 - 1;
+                randomAccessFile.seek(position);
+                int value = randomAccessFile.read();
+                randomAccessFile.seek(position);
+                randomAccessFile.write(value ^ 1);
+            }
+            Assert.assertTrue(jar.setLastModified(lastModified));
+            Assert.assertNotNull(CentralDirectoryIndexFile.load(jar));
+
+            try (RandomAccessFile randomAccessFile = new RandomAccessFile(jar, "rw")) {
+                // entry count of end record
+                long position = randomAccessFile.length() - 22 + 10;
+                randomAccessFile.seek(position);
+                int value = randomAccessFile.read();
+                randomAccessFile.seek(position);
+                randomAccessFile.write(value ^ 1);
+            }
+            Assert.assertTrue(jar.setLastModified(lastModified));
+            Assert.assertNull(CentralDirectoryIndexFile.load(jar));
+        } finally {
+            CentralDirectoryIndexFile.getIndexFile(jar).delete();
+            jar.delete();
+        }
+    }
+
+    @Test
+    public void testIndexedJarFileFasterThanParsing() throws IOException {
+        File jar = File.createTempFile("large", ".jar");
+        jar.deleteOnExit();
+        try (JarOutputStream output = new JarOutputStream(new FileOutputStream(jar))) {
+            for (int i = 0; i < 20000; ++i) {
+                output.putNextEntry(new ZipEntry("com/alipay/sofa/ark/test/Class" + i + ".class"));
+                output.closeEntry();
+            }
+        }
+        try {
+            Assert.assertTrue(jar.setLastModified(jar.lastModified() - 10000));
+            Assert.assertTrue(CentralDirectoryIndexFile.createIfNecessary(jar));
+            long parsing = Long.MAX_VALUE;
+            long indexed = Long.MAX_VALUE;
+            for (int i = 0; i < 10; ++i) {
+                System.clearProperty(Constants.JAR_INDEX_ENABLE);
+                parsing = Math.min(parsing, timeToOpen(jar, false));
+                System.setProperty(Constants.JAR_INDEX_ENABLE, "true");
+                indexed = Math.min(indexed, timeToOpen(jar, true));
+            }
+            Assert.assertTrue(String.format("indexed: %dns, parsing: %dns", indexed, parsing),
+                indexed < parsing);
+        } finally {
+            CentralDirectoryIndexFile.getIndexFile(jar).delete();
+            jar.delete();
+        }
+    }
+
+    private long timeToOpen(File jar, boolean indexed) throws IOException {
+        long start = System.nanoTime();
+        JarFile jarFile = new JarFile(jar);
+        long time = System.nanoTime() - start;
+        try {
+            Assert.assertEquals(indexed, jarFile.isIndexed());
+            Assert.assertTrue(jarFile.containsEntry("com/alipay/sofa/ark/test/Class1.class"));
+        } finally {
+            jarFile.close();
+        }
+        return time;
+    }
+
+    @Test
+    public void testBrokenIndexFile() throws IOException {
+        File jar = getTempDemoZip();
+        CentralDirectoryIndexFile.createIfNecessary(jar);
+        try (RandomAccessFile indexFile = new RandomAccessFile(
+            CentralDirectoryIndexFile.getIndexFile(jar), "rw")) {
+            indexFile.seek(indexFile.length() / 2);
+            int value = indexFile.read();
+            indexFile.seek(indexFile.length() / 2);
+            indexFile.write(value + 1);
+        }
+        Assert.assertNull(CentralDirectoryIndexFile.load(jar));
+
+        System.setProperty(Constants.JAR_INDEX_ENABLE, "true");
+        JarFile jarFile = new JarFile(jar);
+        Assert.assertFalse(jarFile.isIndexed());
+        Assert.assertTrue(jarFile.containsEntry(TEST_ENTRY));
+    }
+
+}
@@ -16,13 +16,19 @@
  */
 package com.alipay.sofa.ark.loader.test.jar;
 
+import com.alipay.sofa.ark.loader.jar.AsciiBytes;
 import com.alipay.sofa.ark.loader.jar.JarEntry;
+import com.alipay.sofa.ark.loader.jar.InflaterPool;
 import com.alipay.sofa.ark.loader.jar.JarFile;
+import com.alipay.sofa.ark.loader.jar.ZipInflaterInputStream;
 import com.alipay.sofa.ark.loader.test.base.BaseTest;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
 import java.util.jar.Manifest;
 import java.util.zip.ZipEntry;
 
@@ -57,4 +63,106 @@ public class JarFileTest extends BaseTest {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testMappedJarFile() throws IOException {
+        JarFile jarFile = new JarFile(getTempDemoZip(), true);
+        Assert.assertEquals("v1", jarFile.getManifest().getMainAttributes().getValue("k1"));
+        Assert.assertTrue(jarFile.containsEntry(TEST_ENTRY));
+
+        JarFile nestJarFile = jarFile.getNestedJarFile(jarFile.getJarEntry("lib/junit-4.12.jar"));
+        Assert.assertEquals("JUnit",
+            nestJarFile.getManifest().getMainAttributes().getValue("Implementation-Title"));
+        Assert.assertNotNull(nestJarFile.getEntry("org/junit/Test.class"));
+
+        // mapped regions are left to GC, nested jar files are still readable
+        jarFile.close();
+        try (InputStream inputStream = nestJarFile.getInputStream(nestJarFile
+            .getEntry("org/junit/Test.class"))) {
+            Assert.assertTrue(readAll(inputStream).length > 0);
+        }
+    }
+
+    @Test
+    public void testTransferTo() throws IOException {
+        for (boolean mapped : new boolean[] { false, true }) {
+            JarFile jarFile = new JarFile(getTempDemoZip(), mapped);
+            for (String name : new String[] { "lib/junit-4.12.jar", "META-INF/MANIFEST.MF" }) {
+                ZipEntry entry = jarFile.getEntry(name);
+                ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+                Assert.assertEquals(entry.getSize(),
+                    jarFile.transferTo(entry, Channels.newChannel(outputStream)));
+                try (InputStream inputStream = jarFile.getInputStream(entry)) {
+                    Assert.assertTrue(compareByteArray(readAll(inputStream),
+                        outputStream.toByteArray()));
+                }
+            }
+            Assert.assertEquals(
+                -1,
+                jarFile.transferTo(new ZipEntry("absent"),
+                    Channels.newChannel(new ByteArrayOutputStream())));
+            jarFile.close();
+        }
+    }
+
+    private byte[] readAll(InputStream inputStream) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int count;
+        while ((count = inputStream.read(buffer)) != -1) {
+            outputStream.write(buffer, 0, count);
+        }
+        return outputStream.toByteArray();
+    }
+
+    @Test
+    public void testGetEntryByAsciiBytes() throws IOException {
+        JarFile jarFile = new JarFile(getTempDemoZip());
+        JarEntry entry = jarFile.getJarEntry(new AsciiBytes(TEST_ENTRY));
+        Assert.assertEquals(TEST_ENTRY, entry.getName());
+        Assert.assertTrue(jarFile.containsEntry(new AsciiBytes("lib/junit-4.12.jar")));
+        Assert.assertEquals("lib/", jarFile.getJarEntry(new AsciiBytes("lib")).getName());
+        Assert.assertNull(jarFile.getJarEntry(new AsciiBytes("lib/absent.jar")));
+        Assert.assertFalse(jarFile.containsEntry(new AsciiBytes("absent")));
+        jarFile.close();
+    }
+
+    @Test
+    public void testEntryCache() throws IOException {
+        JarFile jarFile = new JarFile(getTempDemoZip());
+        Assert.assertNotNull(jarFile.getEntry(TEST_ENTRY));
+        long hitCount = jarFile.getEntryCacheHitCount();
+        long missCount = jarFile.getEntryCacheMissCount();
+
+        Assert.assertNotNull(jarFile.getEntry(TEST_ENTRY));
+        Assert.assertEquals(hitCount + 1, jarFile.getEntryCacheHitCount());
+        Assert.assertEquals(missCount, jarFile.getEntryCacheMissCount());
+
+        jarFile.clearCache();
+        Assert.assertNotNull(jarFile.getEntry(TEST_ENTRY));
+        Assert.assertEquals(hitCount + 1, jarFile.getEntryCacheHitCount());
+        Assert.assertEquals(missCount + 1, jarFile.getEntryCacheMissCount());
+    }
+
+    @Test
+    public void testInflaterPool() throws IOException {
+        JarFile jarFile = new JarFile(getTempDemoZip());
+        ZipEntry manifestEntry = jarFile.getEntry("META-INF/MANIFEST.MF");
+        Assert.assertEquals(ZipEntry.DEFLATED, manifestEntry.getMethod());
+        InflaterPool inflaterPool = ZipInflaterInputStream.getInflaterPool();
+        jarFile.getInputStream(manifestEntry).close();
+
+        long acquireCount = inflaterPool.getAcquireCount();
+        long exhaustedCount = inflaterPool.getExhaustedCount();
+        int idleCount = inflaterPool.getIdleCount();
+        InputStream inputStream = jarFile.getInputStream(manifestEntry);
+        Assert.assertEquals(idleCount - 1, inflaterPool.getIdleCount());
+        Assert.assertEquals("v1", new Manifest(inputStream).getMainAttributes().getValue("k1"));
+        inputStream.close();
+        inputStream.close();
+
+        Assert.assertEquals(acquireCount + 1, inflaterPool.getAcquireCount());
+        Assert.assertEquals(exhaustedCount, inflaterPool.getExhaustedCount());
+        Assert.assertEquals(idleCount, inflaterPool.getIdleCount());
+    }
+
+}
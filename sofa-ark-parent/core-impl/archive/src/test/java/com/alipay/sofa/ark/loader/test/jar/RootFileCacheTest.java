@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.ark.loader.test.jar;
+
+import com.alipay.sofa.ark.loader.jar.Handler;
+import com.alipay.sofa.ark.loader.jar.JarFile;
+import com.alipay.sofa.ark.loader.jar.RootFileCache;
+import com.alipay.sofa.ark.loader.test.base.BaseTest;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * @author ruoshan
+ * @since 1.1.7
+ */
+public class RootFileCacheTest extends BaseTest {
+
+    @Test
+    public void testStrongCache() throws IOException {
+        RootFileCache cache = new RootFileCache(4, false);
+        File file = getTempDemoZip();
+        JarFile jarFile = cache.getOrOpen(file);
+        Assert.assertSame(jarFile, cache.getOrOpen(file));
+        Assert.assertSame(jarFile, cache.get(file));
+        Assert.assertEquals(1, cache.getOpenCount());
+        Assert.assertEquals(2, cache.getHitCount());
+        Assert.assertFalse(cache.isSoft());
+        jarFile.close();
+    }
+
+    @Test
+    public void testEvictAndReopen() throws IOException {
+        RootFileCache cache = new RootFileCache(1, true);
+        File file = getTempDemoZip();
+        File copy = File.createTempFile("demo-copy", ".zip");
+        copy.deleteOnExit();
+        Files.copy(file.toPath(), copy.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+        JarFile jarFile = cache.getOrOpen(file);
+        JarFile copyJarFile = cache.getOrOpen(copy);
+        Assert.assertEquals(1, cache.getSize());
+        Assert.assertEquals(1, cache.getEvictionCount());
+        Assert.assertNull(cache.get(file));
+        Assert.assertSame(copyJarFile, cache.get(copy));
+
+        JarFile reopened = cache.getOrOpen(file);
+        Assert.assertNotSame(jarFile, reopened);
+        Assert.assertEquals(3, cache.getOpenCount());
+        Assert.assertEquals(2, cache.getEvictionCount());
+
+        jarFile.close();
+        copyJarFile.close();
+        reopened.close();
+    }
+
+    @Test
+    public void testRemove() throws IOException {
+        RootFileCache cache = new RootFileCache(4, false);
+        File file = getTempDemoZip();
+        JarFile jarFile = cache.getOrOpen(file);
+        Assert.assertSame(jarFile, cache.remove(file));
+        Assert.assertNull(cache.remove(file));
+        Assert.assertNull(cache.get(file));
+        Assert.assertEquals(0, cache.getSize());
+        jarFile.close();
+
+        URL url = new URL("jar:" + file.toURI() + "!/");
+        Assert.assertNotNull(new Handler().getRootJarFileFromUrl(url));
+        Assert.assertNotNull(Handler.getRootFileCache().get(file));
+
+        // the executable ark jar is shared, never removed
+        Handler.setExecutableRootFile(file);
+        try {
+            Handler.removeFromRootFileCache(file);
+            Assert.assertNotNull(Handler.getRootFileCache().get(file));
+        } finally {
+            Handler.setExecutableRootFile(null);
+        }
+        Handler.removeFromRootFileCache(file);
+        Assert.assertNull(Handler.getRootFileCache().get(file));
+    }
+
+}
@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.ark.loader.test.jar;
+
+import com.alipay.sofa.ark.loader.jar.JarFile;
+import com.alipay.sofa.ark.loader.jar.StreamingManifestReader;
+import com.alipay.sofa.ark.loader.jar.StreamingManifestReader.MainAttributes;
+import com.alipay.sofa.ark.loader.test.base.BaseTest;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.jar.Attributes;
+import java.util.jar.Manifest;
+
+/**
+ * @author ruoshan
+ * @since 1.1.7
+ */
+public class StreamingManifestReaderTest extends BaseTest {
+
+    private final StreamingManifestReader reader = new StreamingManifestReader(',').value(
+                                                     "Ark-Biz-Name").list("import-packages");
+
+    @Test
+    public void testReadContinuationLines() throws IOException {
+        StringBuilder packages = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            packages.append(i == 0 ? "" : ", ").append("com.alipay.sofa.ark.pkg").append(i);
+        }
+        Manifest manifest = new Manifest();
+        Attributes attributes = manifest.getMainAttributes();
+        attributes.put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        attributes.putValue("Ark-Biz-Name",
+            "ark-biz-name-which-is-long-enough-to-be-wrapped-by-manifest");
+        attributes.putValue("Import-Packages", packages.toString());
+        attributes.putValue("Other", "other");
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        manifest.write(outputStream);
+
+        MainAttributes mainAttributes = reader.read(new ByteArrayInputStream(outputStream
+            .toByteArray()));
+        Assert.assertEquals("ark-biz-name-which-is-long-enough-to-be-wrapped-by-manifest",
+            mainAttributes.getValue("ark-biz-name"));
+        Assert.assertEquals(100, mainAttributes.getList("Import-Packages").size());
+        Assert.assertTrue(mainAttributes.getList("Import-Packages").contains(
+            "com.alipay.sofa.ark.pkg99"));
+        Assert.assertNull(mainAttributes.getValue("Other"));
+        Assert.assertEquals(reader.read(manifest).getList("Import-Packages"),
+            mainAttributes.getList("Import-Packages"));
+    }
+
+    @Test
+    public void testReadMainSectionOnly() throws IOException {
+        String content = "Manifest-Version: 1.0\r\nimport-packages: a, ,b\r\n c,\r\n\r\n"
+                         + "Name: d\r\nArk-Biz-Name: d\r\n";
+        MainAttributes mainAttributes = reader.read(new ByteArrayInputStream(content
+            .getBytes(StandardCharsets.UTF_8)));
+        Assert.assertEquals(Arrays.asList("a", "bc"),
+            Arrays.asList(mainAttributes.getList("Import-Packages").toArray()));
+        Assert.assertNull(mainAttributes.getValue("Ark-Biz-Name"));
+        Assert.assertTrue(mainAttributes.getList("Export-Packages").isEmpty());
+    }
+
+    @Test
+    public void testReadJarManifest() throws IOException {
+        JarFile jarFile = new JarFile(getTempDemoZip());
+        MainAttributes mainAttributes = jarFile.readManifest(new StreamingManifestReader(',')
+            .value("k1").list("k2"));
+        Assert.assertEquals("v1", mainAttributes.getValue("k1"));
+        Assert.assertTrue(mainAttributes.getList("k2").contains("v2"));
+        jarFile.close();
+    }
+
+}
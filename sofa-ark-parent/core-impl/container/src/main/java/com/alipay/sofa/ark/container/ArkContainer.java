@@ -25,6 +25,8 @@ import com.alipay.sofa.ark.loader.archive.ExplodedArchive;
 import com.alipay.sofa.ark.spi.argument.LaunchCommand;
 import com.alipay.sofa.ark.loader.ExecutableArkBizJar;
 import com.alipay.sofa.ark.loader.archive.JarFileArchive;
+import com.alipay.sofa.ark.loader.jar.CentralDirectoryIndexFile;
+import com.alipay.sofa.ark.loader.jar.Handler;
 import com.alipay.sofa.ark.spi.archive.ExecutableArchive;
 import com.alipay.sofa.ark.spi.constant.Constants;
 import com.alipay.sofa.ark.spi.pipeline.PipelineContext;
@@ -93,8 +95,11 @@ public class ArkContainer {
                 if (rootFile.isDirectory()) {
                     executableArchive = new ExecutableArkBizJar(new ExplodedArchive(rootFile));
                 } else {
+                    createJarIndexIfNecessary(rootFile);
+                    Handler.setExecutableRootFile(rootFile);
                     executableArchive = new ExecutableArkBizJar(new JarFileArchive(rootFile,
-                        launchCommand.getExecutableArkBizJar()));
+                        launchCommand.getExecutableArkBizJar(), Boolean.parseBoolean(ArkConfigs
+                            .getStringValue(Constants.ARCHIVE_MMAP_ENABLE, "false"))));
                 }
                 return new ArkContainer(executableArchive, launchCommand).start();
             } else {
@@ -191,6 +196,23 @@ public class ArkContainer {
         return urls;
     }
 
+    /**
+     * Write central directory index next to the executable ark jar, so the jar and its
+     * nested jars are opened without parsing central directory on later starts
+     * @param rootFile executable ark jar
+     */
+    private static void createJarIndexIfNecessary(File rootFile) {
+        if (!CentralDirectoryIndexFile.isEnabled()) {
+            return;
+        }
+        try {
+            CentralDirectoryIndexFile.createIfNecessary(rootFile);
+        } catch (IOException ex) {
+            ArkLoggerFactory.getDefaultLogger().warn(
+                String.format("Failed to create jar index of %s", rootFile), ex);
+        }
+    }
+
     /**
      * reInitialize Ark Logger
      *
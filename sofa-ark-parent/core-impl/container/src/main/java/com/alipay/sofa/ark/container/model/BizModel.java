@@ -17,13 +17,17 @@
 package com.alipay.sofa.ark.container.model;
 
 import com.alipay.sofa.ark.bootstrap.MainMethodRunner;
+import com.alipay.sofa.ark.common.log.ArkLogger;
+import com.alipay.sofa.ark.common.log.ArkLoggerFactory;
 import com.alipay.sofa.ark.common.util.AssertUtils;
 import com.alipay.sofa.ark.common.util.BizIdentityUtils;
 import com.alipay.sofa.ark.common.util.ClassLoaderUtils;
 import com.alipay.sofa.ark.common.util.ParseUtils;
 import com.alipay.sofa.ark.common.util.StringUtils;
 import com.alipay.sofa.ark.container.service.ArkServiceContainerHolder;
+import com.alipay.sofa.ark.container.service.classloader.ImportMatcher;
 import com.alipay.sofa.ark.exception.ArkRuntimeException;
+import com.alipay.sofa.ark.loader.jar.Handler;
 import com.alipay.sofa.ark.spi.constant.Constants;
 import com.alipay.sofa.ark.spi.event.biz.AfterBizStartupEvent;
 import com.alipay.sofa.ark.spi.event.biz.AfterBizStopEvent;
@@ -50,42 +54,49 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class BizModel implements Biz {
 
-    private String              bizName;
+    private static final ArkLogger LOGGER                        = ArkLoggerFactory
+                                                                     .getDefaultLogger();
 
-    private String              bizVersion;
+    private static final Object    START_LOCK                    = new Object();
 
-    private BizState            bizState;
+    private String                 bizName;
 
-    private String              mainClass;
+    private String                 bizVersion;
 
-    private String              webContextPath;
+    private BizState               bizState;
 
-    private URL[]               urls;
+    private String                 mainClass;
 
-    private ClassLoader         classLoader;
+    private String                 webContextPath;
 
-    private Map<String, String> attributes                    = new ConcurrentHashMap<>();
+    private URL[]                  urls;
 
-    private int                 priority                      = DEFAULT_PRECEDENCE;
+    private ClassLoader            classLoader;
 
-    private Set<String>         denyImportPackages;
+    private Map<String, String>    attributes                    = new ConcurrentHashMap<>();
 
-    private Set<String>         denyImportPackageNodes        = new HashSet<>();
+    private int                    priority                      = DEFAULT_PRECEDENCE;
 
-    private Set<String>         denyImportPackageStems        = new HashSet<>();
+    private Set<String>            denyImportPackages;
 
-    private Set<String>         denyImportClasses;
+    private Set<String>            denyImportPackageNodes        = new HashSet<>();
 
-    private Set<String>         denyImportResources           = new HashSet<>();
+    private Set<String>            denyImportPackageStems        = new HashSet<>();
 
-    private Set<String>         injectPluginDependencies      = new HashSet<>();
-    private Set<String>         injectExportPackages          = new HashSet<>();
+    private Set<String>            denyImportClasses;
 
-    private Set<String>         denyPrefixImportResourceStems = new HashSet<>();
+    private Set<String>            denyImportResources           = new HashSet<>();
 
-    private Set<String>         denySuffixImportResourceStems = new HashSet<>();
+    private Set<String>            injectPluginDependencies      = new HashSet<>();
+    private Set<String>            injectExportPackages          = new HashSet<>();
 
-    private File                bizTempWorkDir;
+    private Set<String>            denyPrefixImportResourceStems = new HashSet<>();
+
+    private Set<String>            denySuffixImportResourceStems = new HashSet<>();
+
+    private File                   bizTempWorkDir;
+
+    private volatile ImportMatcher denyImportMatcher;
 
     public BizModel setBizName(String bizName) {
         AssertUtils.isFalse(StringUtils.isEmpty(bizName), "Biz Name must not be empty!");
@@ -132,24 +143,38 @@ public class BizModel implements Biz {
     }
 
     public BizModel setDenyImportPackages(String denyImportPackages) {
-        this.denyImportPackages = StringUtils.strToSet(denyImportPackages,
-            Constants.MANIFEST_VALUE_SPLIT);
+        return setDenyImportPackageSet(StringUtils.strToSet(denyImportPackages,
+            Constants.MANIFEST_VALUE_SPLIT));
+    }
+
+    public BizModel setDenyImportPackageSet(Set<String> denyImportPackages) {
+        this.denyImportPackages = denyImportPackages;
         ParseUtils.parsePackageNodeAndStem(this.denyImportPackages, this.denyImportPackageStems,
             this.denyImportPackageNodes);
+        this.denyImportMatcher = null;
         return this;
     }
 
     public BizModel setDenyImportClasses(String denyImportClasses) {
-        this.denyImportClasses = StringUtils.strToSet(denyImportClasses,
-            Constants.MANIFEST_VALUE_SPLIT);
+        return setDenyImportClassSet(StringUtils.strToSet(denyImportClasses,
+            Constants.MANIFEST_VALUE_SPLIT));
+    }
+
+    public BizModel setDenyImportClassSet(Set<String> denyImportClasses) {
+        this.denyImportClasses = denyImportClasses;
+        this.denyImportMatcher = null;
         return this;
     }
 
     public BizModel setDenyImportResources(String denyImportResources) {
-        ParseUtils.parseResourceAndStem(
-            StringUtils.strToSet(denyImportResources, Constants.MANIFEST_VALUE_SPLIT),
-            this.denyPrefixImportResourceStems, denySuffixImportResourceStems,
-            this.denyImportResources);
+        return setDenyImportResourceSet(StringUtils.strToSet(denyImportResources,
+            Constants.MANIFEST_VALUE_SPLIT));
+    }
+
+    public BizModel setDenyImportResourceSet(Set<String> denyImportResources) {
+        ParseUtils.parseResourceAndStem(denyImportResources, this.denyPrefixImportResourceStems,
+            denySuffixImportResourceStems, this.denyImportResources);
+        this.denyImportMatcher = null;
         return this;
     }
 
@@ -169,8 +194,12 @@ public class BizModel implements Biz {
     }
 
     public BizModel setInjectExportPackages(String injectExportPackages) {
-        this.injectExportPackages = StringUtils.strToSet(injectExportPackages,
-            Constants.MANIFEST_VALUE_SPLIT);
+        return setInjectExportPackageSet(StringUtils.strToSet(injectExportPackages,
+            Constants.MANIFEST_VALUE_SPLIT));
+    }
+
+    public BizModel setInjectExportPackageSet(Set<String> injectExportPackages) {
+        this.injectExportPackages = injectExportPackages;
         return this;
     }
 
@@ -238,6 +267,19 @@ public class BizModel implements Biz {
         return denyImportResources;
     }
 
+    /**
+     * Get compiled deny-import patterns, compiled once until deny-import is changed
+     * @return deny-import matcher
+     */
+    public ImportMatcher getDenyImportMatcher() {
+        ImportMatcher matcher = denyImportMatcher;
+        if (matcher == null) {
+            matcher = ImportMatcher.denyImportOf(this);
+            denyImportMatcher = matcher;
+        }
+        return matcher;
+    }
+
     public Set<String> getInjectPluginDependencies() {
         return injectPluginDependencies;
     }
@@ -263,9 +305,12 @@ public class BizModel implements Biz {
             EventAdminService.class);
         try {
             eventAdminService.sendEvent(new BeforeBizStartupEvent(this));
-            resetProperties();
-            MainMethodRunner mainMethodRunner = new MainMethodRunner(mainClass, args);
-            mainMethodRunner.run();
+            // main methods read and write JVM global system properties, never run two at once
+            synchronized (START_LOCK) {
+                resetProperties();
+                MainMethodRunner mainMethodRunner = new MainMethodRunner(mainClass, args);
+                mainMethodRunner.run();
+            }
             // this can trigger health checker handler
             eventAdminService.sendEvent(new AfterBizStartupEvent(this));
         } catch (Throwable e) {
@@ -301,10 +346,12 @@ public class BizModel implements Biz {
             bizManagerService.unRegisterBiz(bizName, bizVersion);
             bizState = BizState.UNRESOLVED;
             eventAdminService.sendEvent(new BeforeBizRecycleEvent(this));
+            closeRootJarFile();
             urls = null;
             denyImportPackages = null;
             denyImportClasses = null;
             denyImportResources = null;
+            denyImportMatcher = null;
             if (bizTempWorkDir != null && bizTempWorkDir.exists()) {
                 bizTempWorkDir.delete();
             }
@@ -340,6 +387,21 @@ public class BizModel implements Biz {
         return "Ark Biz: " + getIdentity();
     }
 
+    /**
+     * Only the file of a dynamically installed biz is owned by this biz alone, it is deleted
+     * on stop as well. Static biz are nested in the executable ark jar, which is shared.
+     */
+    private void closeRootJarFile() {
+        if (bizTempWorkDir == null || !bizTempWorkDir.isFile()) {
+            return;
+        }
+        try {
+            Handler.removeFromRootFileCache(bizTempWorkDir);
+        } catch (Throwable t) {
+            LOGGER.warn(String.format("Failed to close root jar file %s", bizTempWorkDir), t);
+        }
+    }
+
     private void resetProperties() {
         System.getProperties().remove("logging.path");
     }
@@ -20,6 +20,7 @@ import com.alipay.sofa.ark.common.util.ClassLoaderUtils;
 import com.alipay.sofa.ark.common.util.ParseUtils;
 import com.alipay.sofa.ark.common.util.StringUtils;
 import com.alipay.sofa.ark.container.service.ArkServiceContainerHolder;
+import com.alipay.sofa.ark.container.service.classloader.ImportMatcher;
 import com.alipay.sofa.ark.exception.ArkRuntimeException;
 import com.alipay.sofa.ark.spi.constant.Constants;
 import com.alipay.sofa.ark.spi.event.plugin.AfterPluginStartupEvent;
@@ -43,53 +44,55 @@ import java.util.Set;
  */
 public class PluginModel implements Plugin {
 
-    private String          pluginName;
+    private String                 pluginName;
 
-    private String          groupId;
+    private String                 groupId;
 
-    private String          artifactId;
+    private String                 artifactId;
 
-    private String          version;
+    private String                 version;
 
-    private int             priority                  = DEFAULT_PRECEDENCE;
+    private int                    priority                  = DEFAULT_PRECEDENCE;
 
-    private Set<String>     exportPackages;
+    private Set<String>            exportPackages;
 
-    private Set<String>     exportPackageNodes        = new HashSet<>();
+    private Set<String>            exportPackageNodes        = new HashSet<>();
 
-    private Set<String>     exportPackageStems        = new HashSet<>();
+    private Set<String>            exportPackageStems        = new HashSet<>();
 
-    private Set<String>     exportClasses;
+    private Set<String>            exportClasses;
 
-    private Set<String>     importPackages;
+    private Set<String>            importPackages;
 
-    private Set<String>     importPackageNodes        = new HashSet<>();
+    private Set<String>            importPackageNodes        = new HashSet<>();
 
-    private Set<String>     importPackageStems        = new HashSet<>();
+    private Set<String>            importPackageStems        = new HashSet<>();
 
-    private Set<String>     importClasses;
+    private Set<String>            importClasses;
 
-    private Set<String>     importResources           = new HashSet<>();
+    private Set<String>            importResources           = new HashSet<>();
 
-    private Set<String>     importPrefixResourceStems = new HashSet<>();
-    private Set<String>     importSuffixResourceStems = new HashSet<>();
+    private Set<String>            importPrefixResourceStems = new HashSet<>();
+    private Set<String>            importSuffixResourceStems = new HashSet<>();
 
-    private Set<String>     exportResources           = new HashSet<>();
+    private Set<String>            exportResources           = new HashSet<>();
 
-    private Set<String>     exportPrefixResourceStems = new HashSet<>();
-    private Set<String>     exportSuffixResourceStems = new HashSet<>();
+    private Set<String>            exportPrefixResourceStems = new HashSet<>();
+    private Set<String>            exportSuffixResourceStems = new HashSet<>();
 
-    private String          activator;
+    private String                 activator;
 
-    private URL[]           urls;
+    private URL[]                  urls;
 
-    private URL             pluginUrl;
+    private URL                    pluginUrl;
 
-    private ClassLoader     pluginClassLoader;
+    private ClassLoader            pluginClassLoader;
 
-    private PluginContext   pluginContext;
+    private PluginContext          pluginContext;
 
-    private PluginActivator pluginActivator;
+    private PluginActivator        pluginActivator;
+
+    private volatile ImportMatcher importMatcher;
 
     public PluginModel setPluginName(String pluginName) {
         this.pluginName = pluginName;
@@ -127,14 +130,26 @@ public class PluginModel implements Plugin {
     }
 
     public PluginModel setExportPackages(String exportPackages) {
-        this.exportPackages = StringUtils.strToSet(exportPackages, Constants.MANIFEST_VALUE_SPLIT);
+        return setExportPackageSet(StringUtils.strToSet(exportPackages,
+            Constants.MANIFEST_VALUE_SPLIT));
+    }
+
+    public PluginModel setExportPackageSet(Set<String> exportPackages) {
+        this.exportPackages = exportPackages;
         ParseUtils.parsePackageNodeAndStem(this.exportPackages, this.exportPackageStems,
             this.exportPackageNodes);
         return this;
     }
 
     public PluginModel setExportPackages(String exportPackages, Set<String> exportExtensionPackages) {
-        this.exportPackages = StringUtils.strToSet(exportPackages, Constants.MANIFEST_VALUE_SPLIT);
+        return setExportPackageSet(
+            StringUtils.strToSet(exportPackages, Constants.MANIFEST_VALUE_SPLIT),
+            exportExtensionPackages);
+    }
+
+    public PluginModel setExportPackageSet(Set<String> exportPackages,
+                                           Set<String> exportExtensionPackages) {
+        this.exportPackages = new HashSet<>(exportPackages);
         this.exportPackages.addAll(exportExtensionPackages);
         ParseUtils.parsePackageNodeAndStem(this.exportPackages, this.exportPackageStems,
             this.exportPackageNodes);
@@ -142,33 +157,59 @@ public class PluginModel implements Plugin {
     }
 
     public PluginModel setExportClasses(String exportClasses) {
-        this.exportClasses = StringUtils.strToSet(exportClasses, Constants.MANIFEST_VALUE_SPLIT);
+        return setExportClassSet(StringUtils
+            .strToSet(exportClasses, Constants.MANIFEST_VALUE_SPLIT));
+    }
+
+    public PluginModel setExportClassSet(Set<String> exportClasses) {
+        this.exportClasses = exportClasses;
         return this;
     }
 
     public PluginModel setImportPackages(String importPackages) {
-        this.importPackages = StringUtils.strToSet(importPackages, Constants.MANIFEST_VALUE_SPLIT);
+        return setImportPackageSet(StringUtils.strToSet(importPackages,
+            Constants.MANIFEST_VALUE_SPLIT));
+    }
+
+    public PluginModel setImportPackageSet(Set<String> importPackages) {
+        this.importPackages = importPackages;
         ParseUtils.parsePackageNodeAndStem(this.importPackages, this.importPackageStems,
             this.importPackageNodes);
+        this.importMatcher = null;
         return this;
     }
 
     public PluginModel setImportClasses(String importClasses) {
-        this.importClasses = StringUtils.strToSet(importClasses, Constants.MANIFEST_VALUE_SPLIT);
+        return setImportClassSet(StringUtils
+            .strToSet(importClasses, Constants.MANIFEST_VALUE_SPLIT));
+    }
+
+    public PluginModel setImportClassSet(Set<String> importClasses) {
+        this.importClasses = importClasses;
+        this.importMatcher = null;
         return this;
     }
 
     public PluginModel setImportResources(String importResources) {
-        ParseUtils.parseResourceAndStem(
-            StringUtils.strToSet(importResources, Constants.MANIFEST_VALUE_SPLIT),
-            this.importPrefixResourceStems, importSuffixResourceStems, this.importResources);
+        return setImportResourceSet(StringUtils.strToSet(importResources,
+            Constants.MANIFEST_VALUE_SPLIT));
+    }
+
+    public PluginModel setImportResourceSet(Set<String> importResources) {
+        ParseUtils.parseResourceAndStem(importResources, this.importPrefixResourceStems,
+            importSuffixResourceStems, this.importResources);
+        this.importMatcher = null;
         return this;
     }
 
     public PluginModel setExportResources(String exportResources) {
-        ParseUtils.parseResourceAndStem(
-            StringUtils.strToSet(exportResources, Constants.MANIFEST_VALUE_SPLIT),
-            this.exportPrefixResourceStems, exportSuffixResourceStems, this.exportResources);
+        return setExportResourceSet(StringUtils.strToSet(exportResources,
+            Constants.MANIFEST_VALUE_SPLIT));
+    }
+
+    public PluginModel setExportResourceSet(Set<String> exportResources) {
+        ParseUtils.parseResourceAndStem(exportResources, this.exportPrefixResourceStems,
+            exportSuffixResourceStems, this.exportResources);
         return this;
     }
 
@@ -302,6 +343,19 @@ public class PluginModel implements Plugin {
         return exportSuffixResourceStems;
     }
 
+    /**
+     * Get compiled import patterns, compiled once until import is changed
+     * @return import matcher
+     */
+    public ImportMatcher getImportMatcher() {
+        ImportMatcher matcher = importMatcher;
+        if (matcher == null) {
+            matcher = ImportMatcher.importOf(this);
+            importMatcher = matcher;
+        }
+        return matcher;
+    }
+
     @Override
     public URL getPluginURL() {
         return pluginUrl;
@@ -16,13 +16,17 @@
  */
 package com.alipay.sofa.ark.container.service.biz;
 
+import com.alipay.sofa.ark.api.ArkConfigs;
+import com.alipay.sofa.ark.common.log.ArkLoggerFactory;
 import com.alipay.sofa.ark.common.util.AssertUtils;
-import com.alipay.sofa.ark.common.util.StringUtils;
 import com.alipay.sofa.ark.container.model.BizModel;
 import com.alipay.sofa.ark.container.service.classloader.BizClassLoader;
 import com.alipay.sofa.ark.loader.JarBizArchive;
 import com.alipay.sofa.ark.loader.archive.JarFileArchive;
+import com.alipay.sofa.ark.loader.jar.CentralDirectoryIndexFile;
 import com.alipay.sofa.ark.loader.jar.JarFile;
+import com.alipay.sofa.ark.loader.jar.StreamingManifestReader;
+import com.alipay.sofa.ark.loader.jar.StreamingManifestReader.MainAttributes;
 import com.alipay.sofa.ark.spi.archive.Archive;
 import com.alipay.sofa.ark.spi.archive.BizArchive;
 import com.alipay.sofa.ark.spi.constant.Constants;
@@ -41,8 +45,6 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
-import java.util.jar.Attributes;
 
 import static com.alipay.sofa.ark.spi.constant.Constants.*;
 
@@ -55,14 +57,24 @@ import static com.alipay.sofa.ark.spi.constant.Constants.*;
 @Singleton
 public class BizFactoryServiceImpl implements BizFactoryService {
 
+    private static final StreamingManifestReader MANIFEST_READER = new StreamingManifestReader(
+                                                                     MANIFEST_VALUE_SPLIT.charAt(0));
+
+    static {
+        MANIFEST_READER.value(ARK_BIZ_NAME, ARK_BIZ_VERSION, MAIN_CLASS_ATTRIBUTE,
+            PRIORITY_ATTRIBUTE, WEB_CONTEXT_PATH);
+        MANIFEST_READER.list(DENY_IMPORT_PACKAGES, DENY_IMPORT_CLASSES, DENY_IMPORT_RESOURCES,
+            INJECT_PLUGIN_DEPENDENCIES, INJECT_EXPORT_PACKAGES);
+    }
+
     @Inject
-    private PluginManagerService pluginManagerService;
+    private PluginManagerService                 pluginManagerService;
 
     @Override
     public Biz createBiz(BizArchive bizArchive) throws IOException {
         AssertUtils.isTrue(isArkBiz(bizArchive), "Archive must be a ark biz!");
         BizModel bizModel = new BizModel();
-        Attributes manifestMainAttributes = bizArchive.getManifest().getMainAttributes();
+        MainAttributes manifestMainAttributes = readManifest(bizArchive);
         bizModel
             .setBizState(BizState.RESOLVED)
             .setBizName(manifestMainAttributes.getValue(ARK_BIZ_NAME))
@@ -70,12 +82,12 @@ public class BizFactoryServiceImpl implements BizFactoryService {
             .setMainClass(manifestMainAttributes.getValue(MAIN_CLASS_ATTRIBUTE))
             .setPriority(manifestMainAttributes.getValue(PRIORITY_ATTRIBUTE))
             .setWebContextPath(manifestMainAttributes.getValue(WEB_CONTEXT_PATH))
-            .setDenyImportPackages(manifestMainAttributes.getValue(DENY_IMPORT_PACKAGES))
-            .setDenyImportClasses(manifestMainAttributes.getValue(DENY_IMPORT_CLASSES))
-            .setDenyImportResources(manifestMainAttributes.getValue(DENY_IMPORT_RESOURCES))
+            .setDenyImportPackageSet(manifestMainAttributes.getList(DENY_IMPORT_PACKAGES))
+            .setDenyImportClassSet(manifestMainAttributes.getList(DENY_IMPORT_CLASSES))
+            .setDenyImportResourceSet(manifestMainAttributes.getList(DENY_IMPORT_RESOURCES))
             .setInjectPluginDependencies(
-                getInjectDependencies(manifestMainAttributes.getValue(INJECT_PLUGIN_DEPENDENCIES)))
-            .setInjectExportPackages(manifestMainAttributes.getValue(INJECT_EXPORT_PACKAGES))
+                new HashSet<>(manifestMainAttributes.getList(INJECT_PLUGIN_DEPENDENCIES)))
+            .setInjectExportPackageSet(manifestMainAttributes.getList(INJECT_EXPORT_PACKAGES))
             .setClassPath(bizArchive.getUrls())
             .setClassLoader(
                 new BizClassLoader(bizModel.getIdentity(), getBizUcp(bizModel.getClassPath())));
@@ -84,7 +96,16 @@ public class BizFactoryServiceImpl implements BizFactoryService {
 
     @Override
     public Biz createBiz(File file) throws IOException {
-        JarFile bizFile = new JarFile(file);
+        if (CentralDirectoryIndexFile.isEnabled()) {
+            try {
+                CentralDirectoryIndexFile.createIfNecessary(file);
+            } catch (IOException ex) {
+                ArkLoggerFactory.getDefaultLogger().warn(
+                    String.format("Failed to create jar index of %s", file), ex);
+            }
+        }
+        JarFile bizFile = new JarFile(file, Boolean.parseBoolean(ArkConfigs.getStringValue(
+            ARCHIVE_MMAP_ENABLE, "false")));
         JarFileArchive jarFileArchive = new JarFileArchive(bizFile);
         JarBizArchive bizArchive = new JarBizArchive(jarFileArchive);
         BizModel biz = (BizModel) createBiz(bizArchive);
@@ -92,13 +113,20 @@ public class BizFactoryServiceImpl implements BizFactoryService {
         return biz;
     }
 
-    private Set<String> getInjectDependencies(String injectPluginDependencies) {
-        Set<String> dependencies = new HashSet<>();
-        if (StringUtils.strToSet(injectPluginDependencies, Constants.MANIFEST_VALUE_SPLIT) != null) {
-            dependencies.addAll(StringUtils.strToSet(injectPluginDependencies,
-                Constants.MANIFEST_VALUE_SPLIT));
+    /**
+     * Only attributes of the main section used by biz model are read from the manifest
+     * of a jar biz, their values are split while being read
+     */
+    private MainAttributes readManifest(BizArchive bizArchive) throws IOException {
+        if (bizArchive instanceof JarBizArchive
+            && ((JarBizArchive) bizArchive).getArchive() instanceof JarFileArchive) {
+            MainAttributes mainAttributes = ((JarFileArchive) ((JarBizArchive) bizArchive)
+                .getArchive()).readManifest(MANIFEST_READER);
+            if (mainAttributes != null) {
+                return mainAttributes;
+            }
         }
-        return dependencies;
+        return MANIFEST_READER.read(bizArchive.getManifest());
     }
 
     private boolean isArkBiz(BizArchive bizArchive) {
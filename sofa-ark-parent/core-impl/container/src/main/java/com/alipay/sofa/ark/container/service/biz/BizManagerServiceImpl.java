@@ -21,7 +21,6 @@ import com.alipay.sofa.ark.common.util.BizIdentityUtils;
 import com.alipay.sofa.ark.common.util.OrderComparator;
 import com.alipay.sofa.ark.common.util.StringUtils;
 import com.alipay.sofa.ark.container.model.BizModel;
-import com.alipay.sofa.ark.spi.constant.Constants;
 import com.alipay.sofa.ark.spi.model.Biz;
 import com.alipay.sofa.ark.spi.model.BizState;
 import com.alipay.sofa.ark.spi.service.biz.BizManagerService;
@@ -39,16 +38,39 @@ import java.util.concurrent.ConcurrentHashMap;
 @Singleton
 public class BizManagerServiceImpl implements BizManagerService {
 
-    private final ConcurrentHashMap<String, ConcurrentHashMap<String, Biz>> bizRegistration = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, Biz>> bizRegistration     = new ConcurrentHashMap<>();
+
+    /**
+     * indexes of registered biz, updated together with bizRegistration under the lock
+     */
+    private final ConcurrentHashMap<String, Biz>                            bizIdentityIndex    = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<ClassLoader, Biz>                       bizClassLoaderIndex = new ConcurrentHashMap<>();
+
+    private final Object                                                    registrationLock    = new Object();
+
+    /**
+     * bumped on every change of registration, sorted snapshot is rebuilt when stale or no
+     * longer sorted, as priority of a registered biz may still change
+     */
+    private volatile long                                                   registrationVersion;
+
+    private volatile BizSnapshot                                            bizSnapshot;
 
     @Override
-    @SuppressWarnings("unchecked")
     public boolean registerBiz(Biz biz) {
         AssertUtils.assertNotNull(biz, "Biz must not be null.");
         AssertUtils.isTrue(biz.getBizState() == BizState.RESOLVED, "BizState must be RESOLVED.");
-        bizRegistration.putIfAbsent(biz.getBizName(), new ConcurrentHashMap<String, Biz>(16));
-        ConcurrentHashMap bizCache = bizRegistration.get(biz.getBizName());
-        return bizCache.put(biz.getBizVersion(), biz) == null;
+        synchronized (registrationLock) {
+            bizRegistration.putIfAbsent(biz.getBizName(), new ConcurrentHashMap<String, Biz>(16));
+            ConcurrentHashMap<String, Biz> bizCache = bizRegistration.get(biz.getBizName());
+            Biz previous = bizCache.put(biz.getBizVersion(), biz);
+            if (previous != null) {
+                removeFromIndex(previous);
+            }
+            addToIndex(biz);
+            return previous == null;
+        }
     }
 
     @Override
@@ -62,11 +84,17 @@ public class BizManagerServiceImpl implements BizManagerService {
     public Biz unRegisterBizStrictly(String bizName, String bizVersion) {
         AssertUtils.isFalse(StringUtils.isEmpty(bizName), "Biz name must not be empty.");
         AssertUtils.isFalse(StringUtils.isEmpty(bizVersion), "Biz version must not be empty.");
-        ConcurrentHashMap<String, Biz> bizCache = bizRegistration.get(bizName);
-        if (bizCache != null) {
-            return bizCache.remove(bizVersion);
+        synchronized (registrationLock) {
+            ConcurrentHashMap<String, Biz> bizCache = bizRegistration.get(bizName);
+            if (bizCache != null) {
+                Biz biz = bizCache.remove(bizVersion);
+                if (biz != null) {
+                    removeFromIndex(biz);
+                }
+                return biz;
+            }
+            return null;
         }
-        return null;
     }
 
     @Override
@@ -93,24 +121,18 @@ public class BizManagerServiceImpl implements BizManagerService {
 
     @Override
     public Biz getBizByIdentity(String bizIdentity) {
-        AssertUtils.isTrue(BizIdentityUtils.isValid(bizIdentity),
-            "Format of Biz Identity is error.");
-        String[] str = bizIdentity.split(Constants.STRING_COLON);
-        return getBiz(str[0], str[1]);
+        Biz biz = bizIdentity == null ? null : bizIdentityIndex.get(bizIdentity);
+        if (biz == null) {
+            // identity of a registered biz is valid, so only check format on miss
+            AssertUtils.isTrue(BizIdentityUtils.isValid(bizIdentity),
+                "Format of Biz Identity is error.");
+        }
+        return biz;
     }
 
     @Override
     public Biz getBizByClassLoader(ClassLoader classLoader) {
-        for (Map.Entry<String, ConcurrentHashMap<String, Biz>> bizMapEntry : bizRegistration
-            .entrySet()) {
-            for (Map.Entry<String, Biz> bizEntry : bizMapEntry.getValue().entrySet()) {
-                Biz biz = bizEntry.getValue();
-                if (biz.getBizClassLoader().equals(classLoader)) {
-                    return biz;
-                }
-            }
-        }
-        return null;
+        return classLoader == null ? null : bizClassLoaderIndex.get(classLoader);
     }
 
     @Override
@@ -129,12 +151,20 @@ public class BizManagerServiceImpl implements BizManagerService {
 
     @Override
     public List<Biz> getBizInOrder() {
-        List<Biz> bizList = new ArrayList<>();
-        for (String bizName : bizRegistration.keySet()) {
-            bizList.addAll(bizRegistration.get(bizName).values());
+        BizSnapshot snapshot = bizSnapshot;
+        long version = registrationVersion;
+        if (snapshot == null || snapshot.version != version || !isSorted(snapshot.bizList)) {
+            List<Biz> bizList = new ArrayList<>();
+            for (ConcurrentHashMap<String, Biz> bizCache : bizRegistration.values()) {
+                bizList.addAll(bizCache.values());
+            }
+            Collections.sort(bizList, new OrderComparator());
+            // stamped with the version read before collecting, so a change racing with
+            // the rebuild leaves the snapshot stale
+            snapshot = new BizSnapshot(version, bizList);
+            bizSnapshot = snapshot;
         }
-        Collections.sort(bizList, new OrderComparator());
-        return bizList;
+        return new ArrayList<>(snapshot.bizList);
     }
 
     @Override
@@ -191,28 +221,87 @@ public class BizManagerServiceImpl implements BizManagerService {
 
     @Override
     public BizState getBizState(String bizIdentity) {
-        AssertUtils.isTrue(BizIdentityUtils.isValid(bizIdentity),
-            "Format of Biz Identity is error.");
-        String[] str = bizIdentity.split(Constants.STRING_COLON);
-        return getBizState(str[0], str[1]);
+        Biz biz = getBizByIdentity(bizIdentity);
+        return biz != null ? biz.getBizState() : BizState.UNRESOLVED;
     }
 
     @Override
     public boolean removeAndAddBiz(Biz addingBiz, Biz removingBiz) {
-        Set<Map.Entry<String, ConcurrentHashMap<String, Biz>>> bizEntrySet = bizRegistration.entrySet();
-        bizEntrySet.forEach(item -> {
-            String bizName = item.getKey();
-            if (removingBiz.getBizName().equals(bizName)){
-                bizEntrySet.remove(item);
-                return;
+        synchronized (registrationLock) {
+            ConcurrentHashMap<String, Biz> removed = bizRegistration.remove(removingBiz
+                .getBizName());
+            if (removed != null) {
+                for (Biz biz : removed.values()) {
+                    removeFromIndex(biz);
+                }
+            }
+            bizRegistration.putIfAbsent(addingBiz.getBizName(), new ConcurrentHashMap<>(16));
+            Biz previous = bizRegistration.get(addingBiz.getBizName()).put(
+                addingBiz.getBizVersion(), addingBiz);
+            if (previous != null) {
+                removeFromIndex(previous);
             }
-        });
-        bizRegistration.putIfAbsent(addingBiz.getBizName(), new ConcurrentHashMap<>(16));
-        return bizRegistration.get(addingBiz.getBizName()).put(addingBiz.getBizVersion(), addingBiz) == null;
+            addToIndex(addingBiz);
+            return previous == null;
+        }
     }
 
+    /**
+     * The returned map is a copy of the registration, so the identity, classloader and
+     * order indexes of this service can not be bypassed, register and un-register biz
+     * through this service instead.
+     */
     @Override
     public ConcurrentHashMap<String, ConcurrentHashMap<String, Biz>> getBizRegistration() {
-        return bizRegistration;
+        ConcurrentHashMap<String, ConcurrentHashMap<String, Biz>> registration = new ConcurrentHashMap<>();
+        synchronized (registrationLock) {
+            for (Map.Entry<String, ConcurrentHashMap<String, Biz>> entry : bizRegistration
+                .entrySet()) {
+                registration.put(entry.getKey(), new ConcurrentHashMap<>(entry.getValue()));
+            }
+        }
+        return registration;
+    }
+
+    private boolean isSorted(List<Biz> bizList) {
+        OrderComparator comparator = new OrderComparator();
+        for (int i = 1; i < bizList.size(); ++i) {
+            if (comparator.compare(bizList.get(i - 1), bizList.get(i)) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void addToIndex(Biz biz) {
+        bizIdentityIndex.put(biz.getIdentity(), biz);
+        if (biz.getBizClassLoader() != null) {
+            bizClassLoaderIndex.put(biz.getBizClassLoader(), biz);
+        }
+        registrationVersion++;
+    }
+
+    private void removeFromIndex(Biz biz) {
+        bizIdentityIndex.remove(biz.getIdentity(), biz);
+        if (biz.getBizClassLoader() != null) {
+            bizClassLoaderIndex.remove(biz.getBizClassLoader(), biz);
+        }
+        registrationVersion++;
+    }
+
+    /**
+     * Registered biz sorted by order, stamped with the registration version it was
+     * built from.
+     */
+    private static class BizSnapshot {
+
+        private final long      version;
+
+        private final List<Biz> bizList;
+
+        BizSnapshot(long version, List<Biz> bizList) {
+            this.version = version;
+            this.bizList = bizList;
+        }
     }
 }
\ No newline at end of file
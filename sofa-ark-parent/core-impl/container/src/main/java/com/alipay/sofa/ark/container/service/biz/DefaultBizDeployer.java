@@ -16,14 +16,29 @@
  */
 package com.alipay.sofa.ark.container.service.biz;
 
+import com.alipay.sofa.ark.api.ArkConfigs;
 import com.alipay.sofa.ark.common.log.ArkLogger;
 import com.alipay.sofa.ark.common.log.ArkLoggerFactory;
+import com.alipay.sofa.ark.common.thread.CommonThreadPool;
 import com.alipay.sofa.ark.exception.ArkRuntimeException;
 import com.alipay.sofa.ark.spi.model.Biz;
 import com.alipay.sofa.ark.spi.service.ArkInject;
 import com.alipay.sofa.ark.spi.service.biz.BizDeployer;
 import com.alipay.sofa.ark.spi.service.biz.BizManagerService;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static com.alipay.sofa.ark.spi.constant.Constants.BIZ_DEPLOY_PARALLEL_ENABLE;
+import static com.alipay.sofa.ark.spi.constant.Constants.BIZ_DEPLOY_PARALLEL_POOL_SIZE;
+import static com.alipay.sofa.ark.spi.constant.Constants.MASTER_BIZ;
+
 /**
  * Biz Deployer to deploy Biz
  *
@@ -46,16 +61,100 @@ public class DefaultBizDeployer implements BizDeployer {
 
     @Override
     public void deploy() {
-        for (Biz biz : bizManagerService.getBizInOrder()) {
+        List<Biz> bizInOrder = bizManagerService.getBizInOrder();
+        if (bizInOrder.size() > 1
+            && Boolean.parseBoolean(ArkConfigs.getStringValue(BIZ_DEPLOY_PARALLEL_ENABLE, "false"))) {
+            deployInParallel(bizInOrder);
+            return;
+        }
+
+        for (Biz biz : bizInOrder) {
+            startBiz(biz);
+        }
+    }
+
+    /**
+     * Start every group of biz with the same priority concurrently, groups are started one
+     * after another in priority order, master biz is a group on its own.
+     */
+    private void deployInParallel(List<Biz> bizInOrder) {
+        String masterBizName = ArkConfigs.getStringValue(MASTER_BIZ);
+        int poolSize = Math.max(1, ArkConfigs.getIntValue(BIZ_DEPLOY_PARALLEL_POOL_SIZE, Runtime
+            .getRuntime().availableProcessors()));
+        ThreadPoolExecutor executor = new CommonThreadPool().setCorePoolSize(poolSize)
+            .setMaximumPoolSize(poolSize).setQueueSize(-1).setThreadPoolName("BizDeploy")
+            .setDaemon(true).getExecutor();
+        try {
+            int from = 0;
+            while (from < bizInOrder.size()) {
+                int to = from + 1;
+                while (to < bizInOrder.size()
+                       && bizInOrder.get(to).getPriority() == bizInOrder.get(from).getPriority()
+                       && !bizInOrder.get(from).getBizName().equals(masterBizName)
+                       && !bizInOrder.get(to).getBizName().equals(masterBizName)) {
+                    ++to;
+                }
+                startConcurrently(bizInOrder.subList(from, to), executor);
+                from = to;
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private void startConcurrently(List<Biz> bizList, ExecutorService executor) {
+        if (bizList.size() == 1) {
+            startBiz(bizList.get(0));
+            return;
+        }
+
+        final Queue<ArkRuntimeException> failures = new ConcurrentLinkedQueue<>();
+        List<Future<?>> futures = new ArrayList<>(bizList.size());
+        for (final Biz biz : bizList) {
+            futures.add(executor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    // fail fast, biz not started yet is skipped once any biz failed
+                    if (!failures.isEmpty()) {
+                        return;
+                    }
+                    try {
+                        startBiz(biz);
+                    } catch (ArkRuntimeException e) {
+                        failures.add(e);
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
             try {
-                LOGGER.info(String.format("Begin to start biz: %s", biz.getBizName()));
-                biz.start(arguments);
-                LOGGER.info(String.format("Finish to start biz: %s", biz.getBizName()));
-            } catch (Throwable e) {
-                LOGGER.error(String.format("Start biz: %s meet error", biz.getBizName()), e);
-                throw new ArkRuntimeException(e);
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ArkRuntimeException("Interrupted while starting biz", e);
+            } catch (ExecutionException e) {
+                failures.add(new ArkRuntimeException(e.getCause()));
             }
         }
+
+        if (!failures.isEmpty()) {
+            ArkRuntimeException failure = failures.poll();
+            for (ArkRuntimeException e : failures) {
+                failure.addSuppressed(e);
+            }
+            throw failure;
+        }
+    }
+
+    private void startBiz(Biz biz) {
+        try {
+            LOGGER.info(String.format("Begin to start biz: %s", biz.getBizName()));
+            biz.start(arguments);
+            LOGGER.info(String.format("Finish to start biz: %s", biz.getBizName()));
+        } catch (Throwable e) {
+            LOGGER.error(String.format("Start biz: %s meet error", biz.getBizName()), e);
+            throw new ArkRuntimeException(e);
+        }
     }
 
     @Override
@@ -16,27 +16,42 @@
  */
 package com.alipay.sofa.ark.container.service.classloader;
 
+import com.alipay.sofa.ark.api.ArkConfigs;
 import com.alipay.sofa.ark.bootstrap.UseFastConnectionExceptionsEnumeration;
 import com.alipay.sofa.ark.common.log.ArkLoggerFactory;
 import com.alipay.sofa.ark.common.util.StringUtils;
 import com.alipay.sofa.ark.container.service.ArkServiceContainerHolder;
 import com.alipay.sofa.ark.exception.ArkLoaderException;
+import com.alipay.sofa.ark.loader.jar.AsciiBytes;
 import com.alipay.sofa.ark.loader.jar.Handler;
 import com.alipay.sofa.ark.spi.service.classloader.ClassLoaderService;
 import sun.misc.CompoundEnumeration;
 
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
-import java.net.JarURLConnection;
+import java.io.InputStream;
 import java.net.URL;
 import java.net.URLClassLoader;
-import java.net.URLConnection;
 import java.security.AccessController;
+import java.security.CodeSigner;
+import java.security.CodeSource;
 import java.security.PrivilegedExceptionAction;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Enumeration;
 import java.util.List;
-import java.util.jar.JarFile;
+import java.util.jar.Attributes;
+import java.util.jar.Attributes.Name;
+import java.util.jar.JarEntry;
+import java.util.jar.Manifest;
+
+import static com.alipay.sofa.ark.spi.constant.Constants.CLASSLOADER_DIRECT_READ_ENABLE;
+import static com.alipay.sofa.ark.spi.constant.Constants.CLASSLOADER_NEGATIVE_CACHE_SIZE;
+import static com.alipay.sofa.ark.spi.constant.Constants.CLASSLOADER_RESOURCE_CACHE_ENABLE;
+import static com.alipay.sofa.ark.spi.constant.Constants.CLASSLOADER_RESOURCE_CACHE_SIZE;
+import static com.alipay.sofa.ark.spi.constant.Constants.DEFAULT_CLASSLOADER_NEGATIVE_CACHE_SIZE;
+import static com.alipay.sofa.ark.spi.constant.Constants.DEFAULT_CLASSLOADER_RESOURCE_CACHE_SIZE;
 
 /**
  *
@@ -47,10 +62,23 @@ import java.util.jar.JarFile;
  */
 public abstract class AbstractClasspathClassLoader extends URLClassLoader {
 
-    protected static final String CLASS_RESOURCE_SUFFIX = ".class";
+    protected static final String       CLASS_RESOURCE_SUFFIX = ".class";
 
-    protected ClassLoaderService  classloaderService    = ArkServiceContainerHolder.getContainer()
-                                                            .getService(ClassLoaderService.class);
+    private static final String         JAVA_PACKAGE_PREFIX   = "java.";
+
+    protected ClassLoaderService        classloaderService    = ArkServiceContainerHolder
+                                                                  .getContainer().getService(
+                                                                      ClassLoaderService.class);
+
+    protected final NegativeClassCache  negativeClassCache;
+
+    protected final ResourceLookupCache resourceLookupCache;
+
+    private final boolean               directClassReadEnable;
+
+    private volatile JarPackageIndex    jarPackageIndex;
+
+    private final Object                jarPackageIndexLock   = new Object();
 
     static {
         ClassLoader.registerAsParallelCapable();
@@ -58,6 +86,13 @@ public abstract class AbstractClasspathClassLoader extends URLClassLoader {
 
     public AbstractClasspathClassLoader(URL[] urls) {
         super(urls, null);
+        this.negativeClassCache = new NegativeClassCache(ArkConfigs.getIntValue(
+            CLASSLOADER_NEGATIVE_CACHE_SIZE, DEFAULT_CLASSLOADER_NEGATIVE_CACHE_SIZE));
+        this.resourceLookupCache = new ResourceLookupCache(Boolean.parseBoolean(ArkConfigs
+            .getStringValue(CLASSLOADER_RESOURCE_CACHE_ENABLE, "false")), ArkConfigs.getIntValue(
+            CLASSLOADER_RESOURCE_CACHE_SIZE, DEFAULT_CLASSLOADER_RESOURCE_CACHE_SIZE));
+        this.directClassReadEnable = Boolean.parseBoolean(ArkConfigs.getStringValue(
+            CLASSLOADER_DIRECT_READ_ENABLE, "true"));
     }
 
     @Override
@@ -65,6 +100,19 @@ public abstract class AbstractClasspathClassLoader extends URLClassLoader {
         if (StringUtils.isEmpty(name)) {
             return null;
         }
+
+        // fast path, loaded class and java.* class never touch nested jar connection
+        Class<?> clazz = findLoadedClass(name);
+        if (clazz == null && name.startsWith(JAVA_PACKAGE_PREFIX)) {
+            clazz = resolveJDKClass(name);
+        }
+        if (clazz != null) {
+            if (resolve) {
+                super.resolveClass(clazz);
+            }
+            return clazz;
+        }
+
         Handler.setUseFastConnectionExceptions(true);
         try {
             definePackageIfNecessary(name);
@@ -105,21 +153,11 @@ public abstract class AbstractClasspathClassLoader extends URLClassLoader {
                         .toString();
                     String classEntryName = cen.append(className.replace('.', '/'))
                         .append(".class").toString();
-                    for (URL url : getURLs()) {
-                        try {
-                            URLConnection connection = url.openConnection();
-                            if (connection instanceof JarURLConnection) {
-                                JarFile jarFile = ((JarURLConnection) connection).getJarFile();
-                                if (jarFile.getEntry(classEntryName) != null
-                                    && jarFile.getEntry(packageEntryName) != null
-                                    && jarFile.getManifest() != null) {
-                                    definePackage(packageName, jarFile.getManifest(), url);
-                                    return null;
-                                }
-                            }
-                        } catch (IOException ex) {
-                            // Ignore
-                        }
+                    JarPackageIndex.PackageSource packageSource = getJarPackageIndex().find(
+                        packageEntryName, classEntryName);
+                    if (packageSource != null) {
+                        definePackage(packageName, packageSource.getManifest(),
+                            packageSource.getUrl());
                     }
                     return null;
                 }
@@ -129,6 +167,20 @@ public abstract class AbstractClasspathClassLoader extends URLClassLoader {
         }
     }
 
+    private JarPackageIndex getJarPackageIndex() {
+        JarPackageIndex packageIndex = jarPackageIndex;
+        if (packageIndex == null) {
+            synchronized (jarPackageIndexLock) {
+                packageIndex = jarPackageIndex;
+                if (packageIndex == null) {
+                    packageIndex = JarPackageIndex.build(getURLs());
+                    jarPackageIndex = packageIndex;
+                }
+            }
+        }
+        return packageIndex;
+    }
+
     /**
      * Real logic to load class，need to implement by Sub ClassLoader
      * @param name
@@ -141,14 +193,23 @@ public abstract class AbstractClasspathClassLoader extends URLClassLoader {
 
     @Override
     public URL getResource(String name) {
+        ResourceLookupCache.CachedValue<URL> cachedValue = resourceLookupCache.getResource(name);
+        if (cachedValue != null) {
+            return cachedValue.getValue();
+        }
+
+        long cacheVersion = ResourceLookupCache.currentVersion();
         Handler.setUseFastConnectionExceptions(true);
         try {
             URL ret = preFindResource(name);
-            if (ret != null) {
-                return ret;
+            if (ret == null) {
+                ret = getResourceInternal(name);
+            }
+            if (ret == null) {
+                ret = postFindResource(name);
             }
-            ret = getResourceInternal(name);
-            return ret != null ? ret : postFindResource(name);
+            resourceLookupCache.putResource(name, ret, cacheVersion);
+            return ret;
         } finally {
             Handler.setUseFastConnectionExceptions(false);
         }
@@ -183,6 +244,23 @@ public abstract class AbstractClasspathClassLoader extends URLClassLoader {
 
     @Override
     public Enumeration<URL> getResources(String name) throws IOException {
+        if (!resourceLookupCache.isEnabled()) {
+            return doGetResources(name);
+        }
+
+        ResourceLookupCache.CachedValue<List<URL>> cachedValue = resourceLookupCache
+            .getResources(name);
+        if (cachedValue != null) {
+            return Collections.enumeration(cachedValue.getValue());
+        }
+
+        long cacheVersion = ResourceLookupCache.currentVersion();
+        List<URL> urls = Collections.unmodifiableList(Collections.list(doGetResources(name)));
+        resourceLookupCache.putResources(name, urls, cacheVersion);
+        return Collections.enumeration(urls);
+    }
+
+    private Enumeration<URL> doGetResources(String name) throws IOException {
         Handler.setUseFastConnectionExceptions(true);
         try {
             Enumeration<URL> ret = preFindResources(name);
@@ -201,6 +279,10 @@ public abstract class AbstractClasspathClassLoader extends URLClassLoader {
         }
     }
 
+    public ResourceLookupCache getResourceLookupCache() {
+        return resourceLookupCache;
+    }
+
     /**
      * Real logic to get resources
      * @param name
@@ -298,6 +380,20 @@ public abstract class AbstractClasspathClassLoader extends URLClassLoader {
      * @return
      */
     protected Class<?> resolveLocalClass(String name) {
+        if (directClassReadEnable) {
+            JarPackageIndex packageIndex = getJarPackageIndex();
+            if (packageIndex.getJarSources() != null) {
+                synchronized (getClassLoadingLock(name)) {
+                    Class<?> clazz = findLoadedClass(name);
+                    try {
+                        return clazz != null ? clazz : defineClassFromJars(name,
+                            packageIndex.getJarSources());
+                    } catch (IOException ex) {
+                        // fallback to url connection
+                    }
+                }
+            }
+        }
         try {
             return super.loadClass(name, false);
         } catch (ClassNotFoundException e) {
@@ -306,6 +402,128 @@ public abstract class AbstractClasspathClassLoader extends URLClassLoader {
         return null;
     }
 
+    /**
+     * Read class bytes from the jars behind classpath urls directly, instead of going
+     * through url parsing and jar connections of {@link URLClassLoader}
+     * @param name class name
+     * @param jarSources jars in classpath order
+     * @return class, null if not found
+     * @throws IOException if class bytes can not be read
+     */
+    private Class<?> defineClassFromJars(String name, List<JarPackageIndex.PackageSource> jarSources)
+                                                                                                     throws IOException {
+        String classEntryName = name.replace('.', '/').concat(CLASS_RESOURCE_SUFFIX);
+        AsciiBytes encodedClassEntryName = new AsciiBytes(classEntryName);
+        for (JarPackageIndex.PackageSource jarSource : jarSources) {
+            JarEntry entry = jarSource.getJarEntry(classEntryName, encodedClassEntryName);
+            if (entry == null) {
+                continue;
+            }
+            byte[] bytes = readClassBytes(jarSource, entry);
+            definePackageIfNecessary(name, jarSource);
+            CodeSigner[] signers = entry.getCodeSigners();
+            CodeSource codeSource = signers == null ? jarSource.getCodeSource() : new CodeSource(
+                jarSource.getUrl(), signers);
+            return defineClass(name, bytes, 0, bytes.length, codeSource);
+        }
+        return null;
+    }
+
+    /**
+     * Read class bytes into an array of exactly the entry size, no buffer outlives the call
+     * @param jarSource jar which contains the class
+     * @param entry class entry
+     * @return class bytes
+     * @throws IOException if class bytes can not be read
+     */
+    private static byte[] readClassBytes(JarPackageIndex.PackageSource jarSource, JarEntry entry)
+                                                                                                 throws IOException {
+        try (InputStream inputStream = jarSource.getJarFile().getInputStream(entry)) {
+            long size = entry.getSize();
+            if (size < 0) {
+                ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+                byte[] buffer = new byte[4096];
+                int count;
+                while ((count = inputStream.read(buffer)) != -1) {
+                    outputStream.write(buffer, 0, count);
+                }
+                return outputStream.toByteArray();
+            }
+            byte[] bytes = new byte[(int) size];
+            int length = 0;
+            while (length < bytes.length) {
+                int count = inputStream.read(bytes, length, bytes.length - length);
+                if (count == -1) {
+                    throw new EOFException(String.format("Unexpected end of %s", entry.getName()));
+                }
+                length += count;
+            }
+            return bytes;
+        }
+    }
+
+    /**
+     * Define the package of class read directly from jar, or verify the package already
+     * defined is not sealed against the jar, as {@link URLClassLoader} does for the class
+     * it defines
+     * @param className class name
+     * @param jarSource jar which contains the class
+     * @throws SecurityException if the class violates package sealing
+     */
+    private void definePackageIfNecessary(String className, JarPackageIndex.PackageSource jarSource) {
+        int lastDot = className.lastIndexOf('.');
+        if (lastDot < 0) {
+            return;
+        }
+        String packageName = className.substring(0, lastDot);
+        if (verifyPackage(packageName, jarSource)) {
+            return;
+        }
+        try {
+            if (jarSource.getManifest() != null) {
+                definePackage(packageName, jarSource.getManifest(), jarSource.getUrl());
+            } else {
+                definePackage(packageName, null, null, null, null, null, null, null);
+            }
+        } catch (IllegalArgumentException ex) {
+            // Tolerate race condition due to being parallel capable, but verify the package
+            // defined by the other thread
+            verifyPackage(packageName, jarSource);
+        }
+    }
+
+    /**
+     * @return false if the package is not defined yet
+     * @throws SecurityException if the package is sealed by another jar, or the jar seals
+     *                           the package which is already defined unsealed
+     */
+    private boolean verifyPackage(String packageName, JarPackageIndex.PackageSource jarSource) {
+        Package pkg = getPackage(packageName);
+        if (pkg == null) {
+            return false;
+        }
+        if (pkg.isSealed()) {
+            if (!pkg.isSealed(jarSource.getUrl())) {
+                throw new SecurityException("sealing violation: package " + packageName
+                                            + " is sealed");
+            }
+        } else if (jarSource.getManifest() != null
+                   && isSealed(packageName, jarSource.getManifest())) {
+            throw new SecurityException("sealing violation: can't seal package " + packageName
+                                        + ": already loaded");
+        }
+        return true;
+    }
+
+    private static boolean isSealed(String packageName, Manifest manifest) {
+        Attributes attributes = manifest.getAttributes(packageName.replace('.', '/').concat("/"));
+        String sealed = attributes == null ? null : attributes.getValue(Name.SEALED);
+        if (sealed == null) {
+            sealed = manifest.getMainAttributes().getValue(Name.SEALED);
+        }
+        return "true".equalsIgnoreCase(sealed);
+    }
+
     /**
      * Load Java Agent Class
      * @param name className
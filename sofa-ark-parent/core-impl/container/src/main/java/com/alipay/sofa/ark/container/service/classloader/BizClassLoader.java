@@ -45,6 +45,10 @@ public class BizClassLoader extends AbstractClasspathClassLoader {
     private AtomicBoolean        isHookLoaded      = new AtomicBoolean(false);
     private AtomicBoolean        skipLoadHook      = new AtomicBoolean(false);
     private final Object         lock              = new Object();
+    /**
+     * biz of this classloader, resolved once it is registered and cleared before recycle
+     */
+    private volatile Biz         biz;
 
     static {
         ClassLoader.registerAsParallelCapable();
@@ -73,6 +77,13 @@ public class BizClassLoader extends AbstractClasspathClassLoader {
             clazz = findLoadedClass(name);
         }
 
+        // fail fast if class is known to be missing since last biz or plugin change
+        long cacheVersion = NegativeClassCache.currentVersion();
+        if (clazz == null && negativeClassCache.isMissed(name)) {
+            throw new ArkLoaderException(String.format(
+                "[ArkBiz Loader] %s : can not load class: %s", bizIdentity, name));
+        }
+
         // 2. JDK related class
         if (clazz == null) {
             clazz = resolveJDKClass(name);
@@ -115,18 +126,50 @@ public class BizClassLoader extends AbstractClasspathClassLoader {
             return clazz;
         }
 
+        negativeClassCache.markMissed(name, cacheVersion);
         throw new ArkLoaderException(String.format("[ArkBiz Loader] %s : can not load class: %s",
             bizIdentity, name));
     }
 
     @Override
     boolean shouldFindExportedClass(String className) {
-        return !classloaderService.isDeniedImportClass(bizIdentity, className);
+        ImportMatcher denyImportMatcher = getDenyImportMatcher();
+        return denyImportMatcher == null || !denyImportMatcher.matchClass(className);
     }
 
     @Override
     boolean shouldFindExportedResource(String resourceName) {
-        return !classloaderService.isDeniedImportResource(bizIdentity, resourceName);
+        ImportMatcher denyImportMatcher = getDenyImportMatcher();
+        return denyImportMatcher == null || !denyImportMatcher.matchResource(resourceName);
+    }
+
+    /**
+     * Get biz of this classloader without looking up registry once it is resolved
+     *
+     * @return biz, null if not registered yet
+     */
+    public Biz getBiz() {
+        Biz biz = this.biz;
+        if (biz == null) {
+            biz = bizManagerService.getBizByIdentity(bizIdentity);
+            this.biz = biz;
+        }
+        return biz;
+    }
+
+    /**
+     * Drop the resolved biz, called before the biz is recycled
+     */
+    public void clearBiz() {
+        this.biz = null;
+    }
+
+    private ImportMatcher getDenyImportMatcher() {
+        Biz biz = getBiz();
+        if (biz == null) {
+            return null;
+        }
+        return ImportMatcher.cachedDenyImportOf(biz);
     }
 
     private void loadBizClassLoaderHook() {
@@ -146,7 +189,7 @@ public class BizClassLoader extends AbstractClasspathClassLoader {
         try {
             loadBizClassLoaderHook();
             return bizClassLoaderHook == null ? null : bizClassLoaderHook.preFindClass(className,
-                classloaderService, bizManagerService.getBizByIdentity(bizIdentity));
+                classloaderService, getBiz());
         } catch (Throwable throwable) {
             throw new ArkLoaderException(String.format(
                 "Pre find class %s occurs an error via biz ClassLoaderHook: %s.", className,
@@ -159,7 +202,7 @@ public class BizClassLoader extends AbstractClasspathClassLoader {
         try {
             loadBizClassLoaderHook();
             return bizClassLoaderHook == null ? null : bizClassLoaderHook.postFindClass(className,
-                classloaderService, bizManagerService.getBizByIdentity(bizIdentity));
+                classloaderService, getBiz());
         } catch (Throwable throwable) {
             throw new ArkLoaderException(String.format(
                 "Post find class %s occurs an error via biz ClassLoaderHook: %s.", className,
@@ -171,28 +214,28 @@ public class BizClassLoader extends AbstractClasspathClassLoader {
     protected URL preFindResource(String resourceName) {
         loadBizClassLoaderHook();
         return bizClassLoaderHook == null ? null : bizClassLoaderHook.preFindResource(resourceName,
-            classloaderService, bizManagerService.getBizByIdentity(bizIdentity));
+            classloaderService, getBiz());
     }
 
     @Override
     protected URL postFindResource(String resourceName) {
         loadBizClassLoaderHook();
         return bizClassLoaderHook == null ? null : bizClassLoaderHook.postFindResource(
-            resourceName, classloaderService, bizManagerService.getBizByIdentity(bizIdentity));
+            resourceName, classloaderService, getBiz());
     }
 
     @Override
     protected Enumeration<URL> preFindResources(String resourceName) throws IOException {
         loadBizClassLoaderHook();
         return bizClassLoaderHook == null ? null : bizClassLoaderHook.preFindResources(
-            resourceName, classloaderService, bizManagerService.getBizByIdentity(bizIdentity));
+            resourceName, classloaderService, getBiz());
     }
 
     @Override
     protected Enumeration<URL> postFindResources(String resourceName) throws IOException {
         loadBizClassLoaderHook();
         return bizClassLoaderHook == null ? null : bizClassLoaderHook.postFindResources(
-            resourceName, classloaderService, bizManagerService.getBizByIdentity(bizIdentity));
+            resourceName, classloaderService, getBiz());
     }
 
     /**
@@ -19,14 +19,20 @@ package com.alipay.sofa.ark.container.service.classloader;
 import com.alipay.sofa.ark.common.log.ArkLogger;
 import com.alipay.sofa.ark.common.log.ArkLoggerFactory;
 import com.alipay.sofa.ark.common.util.AssertUtils;
-import com.alipay.sofa.ark.common.util.ClassUtils;
 import com.alipay.sofa.ark.common.util.ClassLoaderUtils;
 import com.alipay.sofa.ark.exception.ArkRuntimeException;
-import com.alipay.sofa.ark.spi.constant.Constants;
+import com.alipay.sofa.ark.spi.event.ArkEvent;
+import com.alipay.sofa.ark.spi.event.biz.AfterBizStopEvent;
+import com.alipay.sofa.ark.spi.event.biz.BeforeBizRecycleEvent;
+import com.alipay.sofa.ark.spi.event.biz.BeforeBizStartupEvent;
+import com.alipay.sofa.ark.spi.event.plugin.AfterPluginStartupEvent;
+import com.alipay.sofa.ark.spi.event.plugin.AfterPluginStopEvent;
 import com.alipay.sofa.ark.spi.model.Biz;
 import com.alipay.sofa.ark.spi.model.Plugin;
 import com.alipay.sofa.ark.spi.service.biz.BizManagerService;
 import com.alipay.sofa.ark.spi.service.classloader.ClassLoaderService;
+import com.alipay.sofa.ark.spi.service.event.EventAdminService;
+import com.alipay.sofa.ark.spi.service.event.EventHandler;
 import com.alipay.sofa.ark.spi.service.plugin.PluginManagerService;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
@@ -46,7 +52,7 @@ import java.util.concurrent.ConcurrentHashMap;
  * @since 0.1.0
  */
 @Singleton
-public class ClassLoaderServiceImpl implements ClassLoaderService {
+public class ClassLoaderServiceImpl implements ClassLoaderService, EventHandler {
 
     private static final ArkLogger                       LOGGER                                    = ArkLoggerFactory
                                                                                                        .getDefaultLogger();
@@ -58,10 +64,8 @@ public class ClassLoaderServiceImpl implements ClassLoaderService {
 
     private static final List<String>                    SUN_REFLECT_GENERATED_ACCESSOR            = new ArrayList<>();
 
-    /* export class and classloader relationship cache */
-    private ConcurrentHashMap<String, ClassLoader>       exportClassAndClassLoaderMap              = new ConcurrentHashMap<>();
-    private ConcurrentHashMap<String, ClassLoader>       exportNodeAndClassLoaderMap               = new ConcurrentHashMap<>();
-    private ConcurrentHashMap<String, ClassLoader>       exportStemAndClassLoaderMap               = new ConcurrentHashMap<>();
+    /* export class and classloader relationship index, rebuilt when plugins change */
+    private volatile ExportClassIndex                    exportClassIndex                          = ExportClassIndex.EMPTY;
 
     /* export cache and classloader relationship cache */
     private ConcurrentHashMap<String, List<ClassLoader>> exportResourceAndClassLoaderMap           = new ConcurrentHashMap<>();
@@ -79,6 +83,9 @@ public class ClassLoaderServiceImpl implements ClassLoaderService {
     @Inject
     private BizManagerService                            bizManagerService;
 
+    @Inject
+    private EventAdminService                            eventAdminService;
+
     static {
         SUN_REFLECT_GENERATED_ACCESSOR.add("sun.reflect.GeneratedMethodAccessor");
         SUN_REFLECT_GENERATED_ACCESSOR.add("sun.reflect.GeneratedConstructorAccessor");
@@ -117,16 +124,18 @@ public class ClassLoaderServiceImpl implements ClassLoaderService {
 
     @Override
     public void prepareExportClassAndResourceCache() {
+        ExportClassIndex.Builder exportClassIndexBuilder = new ExportClassIndex.Builder();
         for (Plugin plugin : pluginManagerService.getPluginsInOrder()) {
             for (String exportIndex : plugin.getExportPackageNodes()) {
-                exportNodeAndClassLoaderMap.putIfAbsent(exportIndex, plugin.getPluginClassLoader());
+                exportClassIndexBuilder
+                    .addExportPackage(exportIndex, plugin.getPluginClassLoader());
             }
             for (String exportIndex : plugin.getExportPackageStems()) {
-                exportStemAndClassLoaderMap.putIfAbsent(exportIndex, plugin.getPluginClassLoader());
+                exportClassIndexBuilder.addExportPackageStem(exportIndex,
+                    plugin.getPluginClassLoader());
             }
             for (String exportIndex : plugin.getExportClasses()) {
-                exportClassAndClassLoaderMap
-                    .putIfAbsent(exportIndex, plugin.getPluginClassLoader());
+                exportClassIndexBuilder.addExportClass(exportIndex, plugin.getPluginClassLoader());
             }
             for (String resource : plugin.getExportResources()) {
                 exportResourceAndClassLoaderMap.putIfAbsent(resource, new LinkedList<>());
@@ -143,73 +152,28 @@ public class ClassLoaderServiceImpl implements ClassLoaderService {
                     plugin.getPluginClassLoader());
             }
         }
+        exportClassIndex = exportClassIndexBuilder.build();
+        NegativeClassCache.invalidateAll();
+        ResourceLookupCache.invalidateAll();
     }
 
     @Override
     public boolean isClassInImport(String pluginName, String className) {
         Plugin plugin = pluginManagerService.getPluginByName(pluginName);
         AssertUtils.assertNotNull(plugin, "plugin: " + pluginName + " is null");
-
-        for (String importName : plugin.getImportClasses()) {
-            if (className.equals(importName)) {
-                return true;
-            }
-        }
-
-        String pkg = ClassUtils.getPackageName(className);
-        for (String pattern : plugin.getImportPackageNodes()) {
-            if (pkg.equals(pattern)) {
-                return true;
-            }
-        }
-
-        for (String pattern : plugin.getImportPackageStems()) {
-            if (pkg.startsWith(pattern)) {
-                return true;
-            }
-        }
-
-        return false;
+        return ImportMatcher.cachedImportOf(plugin).matchClass(className);
     }
 
     @Override
     public ClassLoader findExportClassLoader(String className) {
-        ClassLoader exportClassLoader = exportClassAndClassLoaderMap.get(className);
-        String packageName = ClassUtils.getPackageName(className);
-        if (exportClassLoader == null) {
-            exportClassLoader = exportNodeAndClassLoaderMap.get(packageName);
-        }
-        while (!Constants.DEFAULT_PACKAGE.equals(packageName) && exportClassLoader == null) {
-            exportClassLoader = exportStemAndClassLoaderMap.get(packageName);
-            packageName = ClassUtils.getPackageName(packageName);
-        }
-        return exportClassLoader;
+        return exportClassIndex.findExportClassLoader(className);
     }
 
     @Override
     public boolean isResourceInImport(String pluginName, String resourceName) {
         Plugin plugin = pluginManagerService.getPluginByName(pluginName);
         AssertUtils.assertNotNull(plugin, "plugin: " + pluginName + " is null");
-
-        for (String importResource : plugin.getImportResources()) {
-            if (importResource.equals(resourceName)) {
-                return true;
-            }
-        }
-
-        for (String importResource : plugin.getImportPrefixResourceStems()) {
-            if (resourceName.startsWith(importResource)) {
-                return true;
-            }
-        }
-
-        for (String importResource : plugin.getImportSuffixResourceStems()) {
-            if (resourceName.endsWith(importResource)) {
-                return true;
-            }
-        }
-
-        return false;
+        return ImportMatcher.cachedImportOf(plugin).matchResource(resourceName);
     }
 
     @Override
@@ -292,11 +256,29 @@ public class ClassLoaderServiceImpl implements ClassLoaderService {
         }
 
         jdkClassLoader = new JDKDelegateClassLoader(jdkUrls.toArray(new URL[0]), extClassLoader);
+        eventAdminService.register(this);
     }
 
     @Override
     public void dispose() throws ArkRuntimeException {
+        eventAdminService.unRegister(this);
+    }
 
+    @Override
+    public void handleEvent(ArkEvent event) {
+        // lookup results may change once biz or plugin is installed or uninstalled
+        if (event instanceof BeforeBizStartupEvent || event instanceof AfterBizStopEvent
+            || event instanceof AfterPluginStartupEvent || event instanceof AfterPluginStopEvent) {
+            NegativeClassCache.invalidateAll();
+            ResourceLookupCache.invalidateAll();
+        }
+        if (event instanceof BeforeBizRecycleEvent) {
+            ClassLoader bizClassLoader = ((BeforeBizRecycleEvent) event).getSource()
+                .getBizClassLoader();
+            if (bizClassLoader instanceof BizClassLoader) {
+                ((BizClassLoader) bizClassLoader).clearBiz();
+            }
+        }
     }
 
     private ClassLoader createAgentClassLoader() throws ArkRuntimeException {
@@ -306,58 +288,13 @@ public class ClassLoaderServiceImpl implements ClassLoaderService {
     @Override
     public boolean isDeniedImportClass(String bizIdentity, String className) {
         Biz biz = bizManagerService.getBizByIdentity(bizIdentity);
-        if (biz == null) {
-            return false;
-        }
-
-        for (String pattern : biz.getDenyImportClasses()) {
-            if (pattern.equals(className)) {
-                return true;
-            }
-        }
-
-        String pkg = ClassUtils.getPackageName(className);
-        for (String pattern : biz.getDenyImportPackageNodes()) {
-            if (pkg.equals(pattern)) {
-                return true;
-            }
-        }
-
-        for (String pattern : biz.getDenyImportPackageStems()) {
-            if (pkg.startsWith(pattern)) {
-                return true;
-            }
-        }
-
-        return false;
+        return biz != null && ImportMatcher.cachedDenyImportOf(biz).matchClass(className);
     }
 
     @Override
     public boolean isDeniedImportResource(String bizIdentity, String resourceName) {
         Biz biz = bizManagerService.getBizByIdentity(bizIdentity);
-        if (biz == null) {
-            return false;
-        }
-
-        for (String resource : biz.getDenyImportResources()) {
-            if (resource.equals(resourceName)) {
-                return true;
-            }
-        }
-
-        for (String resource : biz.getDenyPrefixImportResourceStems()) {
-            if (resourceName.startsWith(resource)) {
-                return true;
-            }
-        }
-
-        for (String resource : biz.getDenySuffixImportResourceStems()) {
-            if (resourceName.endsWith(resource)) {
-                return true;
-            }
-        }
-
-        return false;
+        return biz != null && ImportMatcher.cachedDenyImportOf(biz).matchResource(resourceName);
     }
 
     @Override
@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.ark.container.service.classloader;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable index of classes exported by plugins. Exported packages are kept in a
+ * character trie, so resolving a class name to its exporting classloader walks the
+ * name once and never allocates.
+ *
+ * <p>Resolving order is the same as plugin export semantic: exported class first,
+ * then exactly matched package, then the innermost matched package stem.</p>
+ *
+ * @author ruoshan
+ * @since 1.1.7
+ */
+public class ExportClassIndex {
+
+    public static final ExportClassIndex   EMPTY = new Builder().build();
+
+    private final Map<String, ClassLoader> exportClasses;
+
+    private final Node                     root;
+
+    private ExportClassIndex(Map<String, ClassLoader> exportClasses, Node root) {
+        this.exportClasses = exportClasses;
+        this.root = root;
+    }
+
+    /**
+     * Find the classloader which exports the class
+     * @param className class name
+     * @return exporting classloader, null if class is not exported
+     */
+    public ClassLoader findExportClassLoader(String className) {
+        ClassLoader classLoader = exportClasses.get(className);
+        if (classLoader != null) {
+            return classLoader;
+        }
+
+        int lastDot = className.lastIndexOf('.');
+        ClassLoader stemClassLoader = null;
+        Node node = root;
+        for (int i = 0; i < lastDot; ++i) {
+            node = node.child(className.charAt(i));
+            if (node == null) {
+                return stemClassLoader;
+            }
+            if (className.charAt(i + 1) == '.' && node.stemClassLoader != null) {
+                stemClassLoader = node.stemClassLoader;
+            }
+        }
+        if (lastDot > 0 && node.packageClassLoader != null) {
+            return node.packageClassLoader;
+        }
+        return stemClassLoader;
+    }
+
+    private static class Node {
+        private final char[]      keys;
+        private final Node[]      children;
+        private final ClassLoader packageClassLoader;
+        private final ClassLoader stemClassLoader;
+
+        private Node(char[] keys, Node[] children, ClassLoader packageClassLoader,
+                     ClassLoader stemClassLoader) {
+            this.keys = keys;
+            this.children = children;
+            this.packageClassLoader = packageClassLoader;
+            this.stemClassLoader = stemClassLoader;
+        }
+
+        private Node child(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            return index < 0 ? null : children[index];
+        }
+    }
+
+    /**
+     * Builder of {@link ExportClassIndex}, when the same class or package is exported
+     * more than once, the first one wins. So plugins should be added in priority order.
+     */
+    public static class Builder {
+        private final Map<String, ClassLoader> exportClasses = new HashMap<>();
+        private final BuilderNode              root          = new BuilderNode();
+
+        public Builder addExportClass(String className, ClassLoader classLoader) {
+            if (!exportClasses.containsKey(className)) {
+                exportClasses.put(className, classLoader);
+            }
+            return this;
+        }
+
+        public Builder addExportPackage(String packageName, ClassLoader classLoader) {
+            BuilderNode node = root.getOrCreate(packageName);
+            if (node.packageClassLoader == null) {
+                node.packageClassLoader = classLoader;
+            }
+            return this;
+        }
+
+        public Builder addExportPackageStem(String packageStem, ClassLoader classLoader) {
+            BuilderNode node = root.getOrCreate(packageStem);
+            if (node.stemClassLoader == null) {
+                node.stemClassLoader = classLoader;
+            }
+            return this;
+        }
+
+        public ExportClassIndex build() {
+            return new ExportClassIndex(new HashMap<>(exportClasses), root.freeze());
+        }
+    }
+
+    private static class BuilderNode {
+        private final TreeMap<Character, BuilderNode> children = new TreeMap<>();
+        private ClassLoader                           packageClassLoader;
+        private ClassLoader                           stemClassLoader;
+
+        private BuilderNode getOrCreate(String key) {
+            BuilderNode node = this;
+            for (int i = 0; i < key.length(); ++i) {
+                BuilderNode child = node.children.get(key.charAt(i));
+                if (child == null) {
+                    child = new BuilderNode();
+                    node.children.put(key.charAt(i), child);
+                }
+                node = child;
+            }
+            return node;
+        }
+
+        private Node freeze() {
+            char[] keys = new char[children.size()];
+            Node[] nodes = new Node[children.size()];
+            int index = 0;
+            for (Map.Entry<Character, BuilderNode> entry : children.entrySet()) {
+                keys[index] = entry.getKey();
+                nodes[index++] = entry.getValue().freeze();
+            }
+            return new Node(keys, nodes, packageClassLoader, stemClassLoader);
+        }
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.ark.container.service.classloader;
+
+import com.alipay.sofa.ark.container.model.BizModel;
+import com.alipay.sofa.ark.container.model.PluginModel;
+import com.alipay.sofa.ark.spi.constant.Constants;
+import com.alipay.sofa.ark.spi.model.Biz;
+import com.alipay.sofa.ark.spi.model.Plugin;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Compiled class and resource patterns, used for biz deny-import and plugin import.
+ * Package stems and prefix resource stems are kept in a prefix trie, suffix resource
+ * stems in a trie of reversed names, so a match costs O(name length).
+ *
+ * @author ruoshan
+ * @since 1.1.7
+ */
+public class ImportMatcher {
+
+    private final Set<String> classes;
+    private final Trie        packageNodes;
+    private final Trie        packageStems;
+    private final Set<String> resources;
+    private final Trie        prefixResourceStems;
+    private final Trie        suffixResourceStems;
+
+    public ImportMatcher(Set<String> classes, Set<String> packageNodes, Set<String> packageStems,
+                         Set<String> resources, Set<String> prefixResourceStems,
+                         Set<String> suffixResourceStems) {
+        this.classes = classes == null ? Collections.<String> emptySet() : new HashSet<>(classes);
+        this.packageNodes = Trie.of(packageNodes, false);
+        this.packageStems = Trie.of(packageStems, false);
+        this.resources = resources == null ? Collections.<String> emptySet() : new HashSet<>(
+            resources);
+        this.prefixResourceStems = Trie.of(prefixResourceStems, false);
+        this.suffixResourceStems = Trie.of(suffixResourceStems, true);
+    }
+
+    /**
+     * Compile deny-import patterns of biz
+     * @param biz biz
+     * @return matcher
+     */
+    public static ImportMatcher denyImportOf(Biz biz) {
+        return new ImportMatcher(biz.getDenyImportClasses(), biz.getDenyImportPackageNodes(),
+            biz.getDenyImportPackageStems(), biz.getDenyImportResources(),
+            biz.getDenyPrefixImportResourceStems(), biz.getDenySuffixImportResourceStems());
+    }
+
+    /**
+     * Get deny-import matcher of biz, the one cached by {@link BizModel} if possible
+     * @param biz biz
+     * @return matcher
+     */
+    public static ImportMatcher cachedDenyImportOf(Biz biz) {
+        // matcher of biz model is compiled once and reset when deny config changes
+        return biz instanceof BizModel ? ((BizModel) biz).getDenyImportMatcher()
+            : denyImportOf(biz);
+    }
+
+    /**
+     * Compile import patterns of plugin
+     * @param plugin plugin
+     * @return matcher
+     */
+    public static ImportMatcher importOf(Plugin plugin) {
+        return new ImportMatcher(plugin.getImportClasses(), plugin.getImportPackageNodes(),
+            plugin.getImportPackageStems(), plugin.getImportResources(),
+            plugin.getImportPrefixResourceStems(), plugin.getImportSuffixResourceStems());
+    }
+
+    /**
+     * Get import matcher of plugin, the one cached by {@link PluginModel} if possible
+     * @param plugin plugin
+     * @return matcher
+     */
+    public static ImportMatcher cachedImportOf(Plugin plugin) {
+        return plugin instanceof PluginModel ? ((PluginModel) plugin).getImportMatcher()
+            : importOf(plugin);
+    }
+
+    /**
+     * Whether class matches, i.e. the class itself, its package or one of its package
+     * stem is configured
+     * @param className class name
+     * @return
+     */
+    public boolean matchClass(String className) {
+        if (classes.contains(className)) {
+            return true;
+        }
+
+        int lastDot = className.lastIndexOf('.');
+        if (lastDot > 0) {
+            return packageNodes.contains(className, lastDot)
+                   || packageStems.containsPrefixOf(className, lastDot);
+        }
+        return packageNodes.contains(Constants.DEFAULT_PACKAGE, Constants.DEFAULT_PACKAGE.length())
+               || packageStems.containsPrefixOf(Constants.DEFAULT_PACKAGE,
+                   Constants.DEFAULT_PACKAGE.length());
+    }
+
+    /**
+     * Whether resource matches, i.e. the resource itself, one of its prefix or suffix
+     * stem is configured
+     * @param resourceName resource name
+     * @return
+     */
+    public boolean matchResource(String resourceName) {
+        return resources.contains(resourceName)
+               || prefixResourceStems.containsPrefixOf(resourceName, resourceName.length())
+               || suffixResourceStems.containsSuffixOf(resourceName);
+    }
+
+    /**
+     * Immutable character trie, a node is terminal when some key ends at it.
+     */
+    private static class Trie {
+        private static final Trie EMPTY = new Trie(new char[0], new Trie[0], false);
+
+        private final char[]      keys;
+        private final Trie[]      children;
+        private final boolean     terminal;
+
+        private Trie(char[] keys, Trie[] children, boolean terminal) {
+            this.keys = keys;
+            this.children = children;
+            this.terminal = terminal;
+        }
+
+        private static Trie of(Set<String> keys, boolean reversed) {
+            if (keys == null || keys.isEmpty()) {
+                return EMPTY;
+            }
+            TrieBuilder root = new TrieBuilder();
+            for (String key : keys) {
+                TrieBuilder node = root;
+                for (int i = 0; i < key.length(); ++i) {
+                    node = node.child(key.charAt(reversed ? key.length() - 1 - i : i));
+                }
+                node.terminal = true;
+            }
+            return root.freeze();
+        }
+
+        private Trie child(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            return index < 0 ? null : children[index];
+        }
+
+        /**
+         * whether name[0, end) is a key
+         */
+        private boolean contains(String name, int end) {
+            Trie node = this;
+            for (int i = 0; i < end && node != null; ++i) {
+                node = node.child(name.charAt(i));
+            }
+            return node != null && node.terminal;
+        }
+
+        /**
+         * whether some key is a prefix of name[0, end)
+         */
+        private boolean containsPrefixOf(String name, int end) {
+            Trie node = this;
+            for (int i = 0; node != null; ++i) {
+                if (node.terminal) {
+                    return true;
+                }
+                if (i == end) {
+                    return false;
+                }
+                node = node.child(name.charAt(i));
+            }
+            return false;
+        }
+
+        /**
+         * whether some key is a suffix of name, only valid for trie of reversed keys
+         */
+        private boolean containsSuffixOf(String name) {
+            Trie node = this;
+            for (int i = name.length() - 1; node != null; --i) {
+                if (node.terminal) {
+                    return true;
+                }
+                if (i < 0) {
+                    return false;
+                }
+                node = node.child(name.charAt(i));
+            }
+            return false;
+        }
+    }
+
+    private static class TrieBuilder {
+        private final TreeMap<Character, TrieBuilder> children = new TreeMap<>();
+        private boolean                               terminal;
+
+        private TrieBuilder child(char c) {
+            TrieBuilder child = children.get(c);
+            if (child == null) {
+                child = new TrieBuilder();
+                children.put(c, child);
+            }
+            return child;
+        }
+
+        private Trie freeze() {
+            char[] keys = new char[children.size()];
+            Trie[] nodes = new Trie[children.size()];
+            int index = 0;
+            for (Map.Entry<Character, TrieBuilder> entry : children.entrySet()) {
+                keys[index] = entry.getKey();
+                nodes[index++] = entry.getValue().freeze();
+            }
+            return new Trie(keys, nodes, terminal);
+        }
+    }
+}
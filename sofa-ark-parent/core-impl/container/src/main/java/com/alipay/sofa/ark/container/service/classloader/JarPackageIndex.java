@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.ark.container.service.classloader;
+
+import com.alipay.sofa.ark.loader.jar.AsciiBytes;
+
+import java.io.IOException;
+import java.net.JarURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.security.CodeSigner;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+
+/**
+ * Index from package directory entry to the jars of a classloader which contain it.
+ * The index is built from the central directories once, so defining a package needs
+ * a map lookup instead of opening a connection to every classpath url. When every
+ * classpath url is a jar, the opened jars are also kept in classpath order, so class
+ * bytes can be read from them directly.
+ *
+ * @author ruoshan
+ * @since 1.1.7
+ */
+public class JarPackageIndex {
+
+    private final Map<String, List<PackageSource>> packageSources;
+
+    private final List<PackageSource>              jarSources;
+
+    private JarPackageIndex(Map<String, List<PackageSource>> packageSources,
+                            List<PackageSource> jarSources) {
+        this.packageSources = packageSources;
+        this.jarSources = jarSources;
+    }
+
+    /**
+     * Build index of jar urls, only jars with manifest are indexed as they are the
+     * only ones which can be used to define package
+     * @param urls classpath urls in order
+     * @return package index
+     */
+    public static JarPackageIndex build(URL[] urls) {
+        Map<String, List<PackageSource>> packageSources = new HashMap<>();
+        List<PackageSource> jarSources = new ArrayList<>(urls.length);
+        for (URL url : urls) {
+            try {
+                URLConnection connection = url.openConnection();
+                if (!(connection instanceof JarURLConnection)) {
+                    jarSources = null;
+                    continue;
+                }
+                JarFile jarFile = ((JarURLConnection) connection).getJarFile();
+                Manifest manifest = jarFile.getManifest();
+                PackageSource packageSource = new PackageSource(url, jarFile, manifest);
+                if (jarSources != null) {
+                    jarSources.add(packageSource);
+                }
+                if (manifest == null) {
+                    continue;
+                }
+                Enumeration<JarEntry> entries = jarFile.entries();
+                while (entries.hasMoreElements()) {
+                    JarEntry entry = entries.nextElement();
+                    if (entry.isDirectory()) {
+                        List<PackageSource> sources = packageSources.get(entry.getName());
+                        if (sources == null) {
+                            sources = new ArrayList<>(1);
+                            packageSources.put(entry.getName(), sources);
+                        }
+                        sources.add(packageSource);
+                    }
+                }
+            } catch (IOException ex) {
+                jarSources = null;
+            }
+        }
+        return new JarPackageIndex(packageSources, jarSources);
+    }
+
+    /**
+     * Find the first jar which contains both the package directory and the class
+     * @param packageEntryName package directory entry name, such as com/alipay/
+     * @param classEntryName class entry name, such as com/alipay/A.class
+     * @return package source, null if not found
+     */
+    public PackageSource find(String packageEntryName, String classEntryName) {
+        List<PackageSource> sources = packageSources.get(packageEntryName);
+        if (sources != null) {
+            AsciiBytes encodedClassEntryName = new AsciiBytes(classEntryName);
+            for (PackageSource source : sources) {
+                if (source.getJarEntry(classEntryName, encodedClassEntryName) != null) {
+                    return source;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get jars in classpath order
+     * @return jar sources, null if any classpath url is not a readable jar
+     */
+    public List<PackageSource> getJarSources() {
+        return jarSources;
+    }
+
+    public static class PackageSource {
+        private final URL                                    url;
+        private final JarFile                                jarFile;
+        private final Manifest                               manifest;
+        private final CodeSource                             codeSource;
+
+        private final com.alipay.sofa.ark.loader.jar.JarFile arkJarFile;
+
+        private PackageSource(URL url, JarFile jarFile, Manifest manifest) {
+            this.url = url;
+            this.jarFile = jarFile;
+            if (jarFile instanceof com.alipay.sofa.ark.loader.jar.JarFile) {
+                this.arkJarFile = (com.alipay.sofa.ark.loader.jar.JarFile) jarFile;
+            } else {
+                this.arkJarFile = null;
+            }
+            this.manifest = manifest;
+            this.codeSource = new CodeSource(url, (CodeSigner[]) null);
+        }
+
+        public URL getUrl() {
+            return url;
+        }
+
+        public JarFile getJarFile() {
+            return jarFile;
+        }
+
+        /**
+         * Get entry of the jar, ark jars are looked up by the encoded name so that
+         * candidate entries are compared without decoding their names
+         * @param name entry name
+         * @param encodedName the same entry name encoded once by the caller
+         * @return jar entry, null if not found
+         */
+        public JarEntry getJarEntry(String name, AsciiBytes encodedName) {
+            return arkJarFile != null ? arkJarFile.getJarEntry(encodedName) : jarFile
+                .getJarEntry(name);
+        }
+
+        /**
+         * @return manifest, null if the jar has none
+         */
+        public Manifest getManifest() {
+            return manifest;
+        }
+
+        /**
+         * Get code source of unsigned class in the jar
+         * @return code source
+         */
+        public CodeSource getCodeSource() {
+            return codeSource;
+        }
+    }
+}
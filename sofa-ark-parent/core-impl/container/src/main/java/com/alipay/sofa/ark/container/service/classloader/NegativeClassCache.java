@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.ark.container.service.classloader;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache of class names which a classloader failed to load. Every entry records
+ * the global version observed before the lookup started, any biz or plugin lifecycle
+ * change bumps the version and so invalidates all entries of all classloaders.
+ *
+ * @author ruoshan
+ * @since 1.1.7
+ */
+public class NegativeClassCache {
+
+    private static final AtomicLong               VERSION = new AtomicLong();
+
+    private final int                             capacity;
+
+    private final ConcurrentHashMap<String, Long> missedClasses;
+
+    public NegativeClassCache(int capacity) {
+        this.capacity = capacity;
+        this.missedClasses = new ConcurrentHashMap<>(capacity > 0 ? Math.min(capacity, 256) : 1);
+    }
+
+    /**
+     * Current global version, should be fetched before resolving a class so that a
+     * concurrent invalidation is never hidden by a stale miss.
+     * @return current version
+     */
+    public static long currentVersion() {
+        return VERSION.get();
+    }
+
+    /**
+     * Invalidate misses cached by all classloaders
+     */
+    public static void invalidateAll() {
+        VERSION.incrementAndGet();
+    }
+
+    /**
+     * Whether class is known to be missing since last invalidation
+     * @param className class name
+     * @return
+     */
+    public boolean isMissed(String className) {
+        if (capacity <= 0) {
+            return false;
+        }
+        Long version = missedClasses.get(className);
+        return version != null && version == VERSION.get();
+    }
+
+    /**
+     * Record a failed lookup
+     * @param className class name
+     * @param version global version fetched before the lookup started
+     */
+    public void markMissed(String className, long version) {
+        if (capacity <= 0) {
+            return;
+        }
+        if (missedClasses.size() >= capacity) {
+            missedClasses.clear();
+        }
+        missedClasses.put(className, version);
+    }
+
+    public int size() {
+        return missedClasses.size();
+    }
+}
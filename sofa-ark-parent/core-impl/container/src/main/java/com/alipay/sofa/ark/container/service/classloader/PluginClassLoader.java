@@ -77,6 +77,13 @@ public class PluginClassLoader extends AbstractClasspathClassLoader {
             clazz = findLoadedClass(name);
         }
 
+        // fail fast if class is known to be missing since last biz or plugin change
+        long cacheVersion = NegativeClassCache.currentVersion();
+        if (clazz == null && negativeClassCache.isMissed(name)) {
+            throw new ArkLoaderException(String.format(
+                "[ArkPlugin Loader] %s : can not load class: %s", pluginName, name));
+        }
+
         // 2. JDK related class
         if (clazz == null) {
             clazz = resolveJDKClass(name);
@@ -119,6 +126,7 @@ public class PluginClassLoader extends AbstractClasspathClassLoader {
             return clazz;
         }
 
+        negativeClassCache.markMissed(name, cacheVersion);
         throw new ArkLoaderException(String.format(
             "[ArkPlugin Loader] %s : can not load class: %s", pluginName, name));
     }
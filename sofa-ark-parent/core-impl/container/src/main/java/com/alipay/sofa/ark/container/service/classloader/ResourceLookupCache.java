@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.ark.container.service.classloader;
+
+import java.net.URL;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache of resource lookup results of a classloader, including the resources
+ * which are not found. Like {@link NegativeClassCache}, entries record the global
+ * version observed before the lookup started, and any biz or plugin lifecycle change
+ * invalidates all entries of all classloaders.
+ *
+ * @author ruoshan
+ * @since 1.1.7
+ */
+public class ResourceLookupCache {
+
+    private static final AtomicLong                                 VERSION   = new AtomicLong();
+
+    private final boolean                                           enable;
+
+    private final int                                               capacity;
+
+    private final ConcurrentHashMap<String, CachedValue<URL>>       resource;
+
+    private final ConcurrentHashMap<String, CachedValue<List<URL>>> resources;
+
+    private final AtomicLong                                        hitCount  = new AtomicLong();
+
+    private final AtomicLong                                        missCount = new AtomicLong();
+
+    public ResourceLookupCache(boolean enable, int capacity) {
+        this.enable = enable && capacity > 0;
+        this.capacity = capacity;
+        int initialCapacity = this.enable ? Math.min(capacity, 256) : 1;
+        this.resource = new ConcurrentHashMap<>(initialCapacity);
+        this.resources = new ConcurrentHashMap<>(initialCapacity);
+    }
+
+    /**
+     * Current global version, should be fetched before looking up a resource
+     * @return current version
+     */
+    public static long currentVersion() {
+        return VERSION.get();
+    }
+
+    /**
+     * Invalidate resource lookup results cached by all classloaders
+     */
+    public static void invalidateAll() {
+        VERSION.incrementAndGet();
+    }
+
+    public boolean isEnabled() {
+        return enable;
+    }
+
+    /**
+     * Get cached result of {@link ClassLoader#getResource(String)}
+     * @param resourceName resource name
+     * @return cached value whose url may be null, null if not cached
+     */
+    public CachedValue<URL> getResource(String resourceName) {
+        return get(resource, resourceName);
+    }
+
+    public void putResource(String resourceName, URL url, long version) {
+        put(resource, resourceName, new CachedValue<>(url, version));
+    }
+
+    /**
+     * Get cached result of {@link ClassLoader#getResources(String)}
+     * @param resourceName resource name
+     * @return cached value, null if not cached
+     */
+    public CachedValue<List<URL>> getResources(String resourceName) {
+        return get(resources, resourceName);
+    }
+
+    public void putResources(String resourceName, List<URL> urls, long version) {
+        put(resources, resourceName, new CachedValue<>(urls, version));
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public int size() {
+        return resource.size() + resources.size();
+    }
+
+    private <T> CachedValue<T> get(ConcurrentHashMap<String, CachedValue<T>> cache,
+                                   String resourceName) {
+        if (!enable) {
+            return null;
+        }
+        CachedValue<T> cachedValue = cache.get(resourceName);
+        if (cachedValue != null && cachedValue.version == VERSION.get()) {
+            hitCount.incrementAndGet();
+            return cachedValue;
+        }
+        missCount.incrementAndGet();
+        return null;
+    }
+
+    private <T> void put(ConcurrentHashMap<String, CachedValue<T>> cache, String resourceName,
+                         CachedValue<T> cachedValue) {
+        if (!enable) {
+            return;
+        }
+        if (cache.size() >= capacity) {
+            cache.clear();
+        }
+        cache.put(resourceName, cachedValue);
+    }
+
+    public static class CachedValue<T> {
+        private final T    value;
+        private final long version;
+
+        private CachedValue(T value, long version) {
+            this.value = value;
+            this.version = version;
+        }
+
+        public T getValue() {
+            return value;
+        }
+    }
+}
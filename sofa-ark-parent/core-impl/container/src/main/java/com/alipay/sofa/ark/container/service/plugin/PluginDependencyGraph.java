@@ -0,0 +1,214 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.ark.container.service.plugin;
+
+import com.alipay.sofa.ark.common.util.ClassUtils;
+import com.alipay.sofa.ark.spi.model.Plugin;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Startup dependencies between plugins, which keep the order of
+ * {@link com.alipay.sofa.ark.spi.service.plugin.PluginManagerService#getPluginsInOrder()}
+ * wherever it matters. Plugins of different priority always start in priority order, as
+ * a plugin may rely on a plugin with higher priority without importing anything from it.
+ * Plugins of the same priority are related when one of them imports a class, package or
+ * resource which the other exports, and a related pair starts in the given order.
+ * Unrelated plugins of the same priority can start concurrently.
+ *
+ * @author ruoshan
+ * @since 1.1.7
+ */
+public class PluginDependencyGraph {
+
+    private final List<Plugin>              plugins;
+
+    private final Map<Plugin, List<Plugin>> dependencies;
+
+    private PluginDependencyGraph(List<Plugin> plugins, Map<Plugin, List<Plugin>> dependencies) {
+        this.plugins = plugins;
+        this.dependencies = dependencies;
+    }
+
+    /**
+     * Build graph of plugins
+     * @param pluginsInOrder plugins sorted by priority
+     * @return dependency graph
+     */
+    public static PluginDependencyGraph build(List<Plugin> pluginsInOrder) {
+        Map<Plugin, List<Plugin>> dependencies = new IdentityHashMap<>();
+        // plugins with the same priority as the current one start from groupStart, the
+        // previous priority from previousGroupStart, earlier ones are reached through it
+        int previousGroupStart = 0;
+        int groupStart = 0;
+        for (int i = 0; i < pluginsInOrder.size(); ++i) {
+            Plugin plugin = pluginsInOrder.get(i);
+            if (plugin.getPriority() != pluginsInOrder.get(groupStart).getPriority()) {
+                previousGroupStart = groupStart;
+                groupStart = i;
+            }
+            List<Plugin> pluginDependencies = new ArrayList<>(pluginsInOrder.subList(
+                previousGroupStart, groupStart));
+            for (int j = groupStart; j < i; ++j) {
+                Plugin candidate = pluginsInOrder.get(j);
+                if (isImported(plugin, candidate) || isImported(candidate, plugin)) {
+                    pluginDependencies.add(candidate);
+                }
+            }
+            dependencies.put(plugin, pluginDependencies);
+        }
+        return new PluginDependencyGraph(new ArrayList<>(pluginsInOrder), dependencies);
+    }
+
+    /**
+     * Plugins in priority order, dependencies of a plugin always come before it
+     * @return plugins
+     */
+    public List<Plugin> getPlugins() {
+        return plugins;
+    }
+
+    /**
+     * Plugins which should be started before the given plugin
+     * @param plugin plugin
+     * @return dependencies, empty if plugin can be started at once
+     */
+    public List<Plugin> getDependencies(Plugin plugin) {
+        List<Plugin> pluginDependencies = dependencies.get(plugin);
+        return pluginDependencies == null ? Collections.<Plugin> emptyList() : pluginDependencies;
+    }
+
+    /**
+     * Whether importer imports anything exported by exporter
+     */
+    static boolean isImported(Plugin importer, Plugin exporter) {
+        for (String className : nullToEmpty(importer.getImportClasses())) {
+            if (isClassExported(exporter, className)) {
+                return true;
+            }
+        }
+        for (String packageNode : nullToEmpty(importer.getImportPackageNodes())) {
+            if (isPackageExported(exporter, packageNode)) {
+                return true;
+            }
+        }
+        for (String packageStem : nullToEmpty(importer.getImportPackageStems())) {
+            if (anyStartsWith(exporter.getExportPackageNodes(), packageStem)
+                || isOverlapped(exporter.getExportPackageStems(), packageStem)
+                || anyStartsWith(exporter.getExportClasses(), packageStem)) {
+                return true;
+            }
+        }
+        return isResourceImported(importer, exporter);
+    }
+
+    private static boolean isResourceImported(Plugin importer, Plugin exporter) {
+        for (String resource : nullToEmpty(importer.getImportResources())) {
+            if (nullToEmpty(exporter.getExportResources()).contains(resource)
+                || isPrefixOf(exporter.getExportPrefixResourceStems(), resource)
+                || isSuffixOf(exporter.getExportSuffixResourceStems(), resource)) {
+                return true;
+            }
+        }
+        for (String prefixStem : nullToEmpty(importer.getImportPrefixResourceStems())) {
+            if (anyStartsWith(exporter.getExportResources(), prefixStem)
+                || isOverlapped(exporter.getExportPrefixResourceStems(), prefixStem)) {
+                return true;
+            }
+        }
+        for (String suffixStem : nullToEmpty(importer.getImportSuffixResourceStems())) {
+            for (String resource : nullToEmpty(exporter.getExportResources())) {
+                if (resource.endsWith(suffixStem)) {
+                    return true;
+                }
+            }
+            for (String exportSuffixStem : nullToEmpty(exporter.getExportSuffixResourceStems())) {
+                if (exportSuffixStem.endsWith(suffixStem) || suffixStem.endsWith(exportSuffixStem)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean isClassExported(Plugin exporter, String className) {
+        return nullToEmpty(exporter.getExportClasses()).contains(className)
+               || isPackageExported(exporter, ClassUtils.getPackageName(className));
+    }
+
+    private static boolean isPackageExported(Plugin exporter, String packageName) {
+        return nullToEmpty(exporter.getExportPackageNodes()).contains(packageName)
+               || isPrefixOf(exporter.getExportPackageStems(), packageName);
+    }
+
+    /**
+     * whether some element starts with prefix
+     */
+    private static boolean anyStartsWith(Set<String> candidates, String prefix) {
+        for (String candidate : nullToEmpty(candidates)) {
+            if (candidate.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * whether some element is a prefix of name
+     */
+    private static boolean isPrefixOf(Set<String> stems, String name) {
+        for (String stem : nullToEmpty(stems)) {
+            if (name.startsWith(stem)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * whether some element is a suffix of name
+     */
+    private static boolean isSuffixOf(Set<String> stems, String name) {
+        for (String stem : nullToEmpty(stems)) {
+            if (name.endsWith(stem)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * whether some stem and the given stem match a common name
+     */
+    private static boolean isOverlapped(Set<String> stems, String stem) {
+        for (String candidate : nullToEmpty(stems)) {
+            if (candidate.startsWith(stem) || stem.startsWith(candidate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Set<String> nullToEmpty(Set<String> set) {
+        return set == null ? Collections.<String> emptySet() : set;
+    }
+}
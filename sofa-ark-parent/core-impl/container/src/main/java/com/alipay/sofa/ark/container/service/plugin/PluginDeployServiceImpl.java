@@ -16,8 +16,10 @@
  */
 package com.alipay.sofa.ark.container.service.plugin;
 
+import com.alipay.sofa.ark.api.ArkConfigs;
 import com.alipay.sofa.ark.common.log.ArkLogger;
 import com.alipay.sofa.ark.common.log.ArkLoggerFactory;
+import com.alipay.sofa.ark.common.thread.CommonThreadPool;
 import com.alipay.sofa.ark.exception.ArkRuntimeException;
 import com.alipay.sofa.ark.spi.service.plugin.PluginManagerService;
 import com.alipay.sofa.ark.spi.model.Plugin;
@@ -26,7 +28,19 @@ import com.google.inject.Inject;
 import com.google.inject.Singleton;
 
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static com.alipay.sofa.ark.spi.constant.Constants.PLUGIN_DEPLOY_PARALLEL_ENABLE;
+import static com.alipay.sofa.ark.spi.constant.Constants.PLUGIN_DEPLOY_PARALLEL_POOL_SIZE;
 
 /**
  * Service Implementation to deploy ark plugin
@@ -37,14 +51,24 @@ import java.util.List;
 @Singleton
 public class PluginDeployServiceImpl implements PluginDeployService {
 
-    private static final ArkLogger LOGGER = ArkLoggerFactory.getDefaultLogger();
+    private static final ArkLogger  LOGGER             = ArkLoggerFactory.getDefaultLogger();
 
     @Inject
-    PluginManagerService           pluginManagerService;
+    PluginManagerService            pluginManagerService;
+
+    private final Map<String, Long> pluginStartupCosts = new ConcurrentHashMap<>();
 
     @Override
     public void deploy() throws ArkRuntimeException {
-        for (Plugin plugin : pluginManagerService.getPluginsInOrder()) {
+        List<Plugin> pluginsInOrder = pluginManagerService.getPluginsInOrder();
+        if (pluginsInOrder.size() > 1
+            && Boolean.parseBoolean(ArkConfigs.getStringValue(PLUGIN_DEPLOY_PARALLEL_ENABLE,
+                "false"))) {
+            deployInParallel(PluginDependencyGraph.build(pluginsInOrder));
+            return;
+        }
+
+        for (Plugin plugin : pluginsInOrder) {
             try {
                 deployPlugin(plugin);
             } catch (ArkRuntimeException e) {
@@ -55,17 +79,88 @@ public class PluginDeployServiceImpl implements PluginDeployService {
         }
     }
 
+    /**
+     * Start every plugin once all of its dependencies are started, stop scheduling new
+     * plugins after the first failure and report all failures together.
+     */
+    private void deployInParallel(PluginDependencyGraph dependencyGraph) throws ArkRuntimeException {
+        int poolSize = Math.max(1, ArkConfigs.getIntValue(PLUGIN_DEPLOY_PARALLEL_POOL_SIZE, Runtime
+            .getRuntime().availableProcessors()));
+        ThreadPoolExecutor executor = new CommonThreadPool().setCorePoolSize(poolSize)
+            .setMaximumPoolSize(poolSize).setQueueSize(-1).setThreadPoolName("PluginDeploy")
+            .setDaemon(true).getExecutor();
+
+        final Queue<ArkRuntimeException> failures = new ConcurrentLinkedQueue<>();
+        Map<Plugin, CompletableFuture<Void>> futures = new IdentityHashMap<>();
+        try {
+            for (final Plugin plugin : dependencyGraph.getPlugins()) {
+                List<Plugin> dependencies = dependencyGraph.getDependencies(plugin);
+                CompletableFuture<?>[] dependencyFutures = new CompletableFuture<?>[dependencies
+                    .size()];
+                for (int i = 0; i < dependencyFutures.length; ++i) {
+                    dependencyFutures[i] = futures.get(dependencies.get(i));
+                }
+                futures.put(plugin,
+                    CompletableFuture.allOf(dependencyFutures).thenRunAsync(new Runnable() {
+                        @Override
+                        public void run() {
+                            if (!failures.isEmpty()) {
+                                throw new ArkRuntimeException(String.format(
+                                    "Skip to deploy plugin: %s", plugin.getPluginName()));
+                            }
+                            try {
+                                deployPlugin(plugin);
+                            } catch (ArkRuntimeException e) {
+                                failures.add(e);
+                                throw e;
+                            }
+                        }
+                    }, executor));
+            }
+            for (CompletableFuture<Void> future : futures.values()) {
+                try {
+                    future.join();
+                } catch (CompletionException | CancellationException e) {
+                    // failures are collected by the deploying task
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        if (!failures.isEmpty()) {
+            ArkRuntimeException failure = failures.poll();
+            for (ArkRuntimeException e : failures) {
+                failure.addSuppressed(e);
+            }
+            LOGGER.error("Deploy plugins in parallel meet error", failure);
+            throw failure;
+        }
+    }
+
     private void deployPlugin(Plugin plugin) throws ArkRuntimeException {
         try {
             LOGGER.info(String.format("Start to deploy plugin: %s", plugin.getPluginName()));
+            long start = System.currentTimeMillis();
             plugin.start();
-            LOGGER.info(String.format("Finish to deploy plugin: %s", plugin.getPluginName()));
+            long cost = System.currentTimeMillis() - start;
+            pluginStartupCosts.put(plugin.getPluginName(), cost);
+            LOGGER.info(String.format("Finish to deploy plugin: %s, cost %d ms",
+                plugin.getPluginName(), cost));
         } catch (ArkRuntimeException e) {
             LOGGER.error(String.format("Start plugin: %s meet error", plugin.getPluginName()), e);
             throw e;
         }
     }
 
+    /**
+     * Startup cost of every deployed plugin
+     * @return plugin name to startup cost in milliseconds
+     */
+    public Map<String, Long> getPluginStartupCosts() {
+        return Collections.unmodifiableMap(pluginStartupCosts);
+    }
+
     @Override
     public void unDeploy() throws ArkRuntimeException {
         List<Plugin> pluginsInOrder = pluginManagerService.getPluginsInOrder();
@@ -25,6 +25,8 @@ import com.alipay.sofa.ark.container.service.classloader.PluginClassLoader;
 import com.alipay.sofa.ark.loader.JarPluginArchive;
 import com.alipay.sofa.ark.loader.archive.JarFileArchive;
 import com.alipay.sofa.ark.loader.jar.JarFile;
+import com.alipay.sofa.ark.loader.jar.StreamingManifestReader;
+import com.alipay.sofa.ark.loader.jar.StreamingManifestReader.MainAttributes;
 import com.alipay.sofa.ark.spi.archive.Archive;
 import com.alipay.sofa.ark.spi.archive.PluginArchive;
 import com.alipay.sofa.ark.spi.constant.Constants;
@@ -39,7 +41,6 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
-import java.util.jar.Attributes;
 
 import static com.alipay.sofa.ark.spi.constant.Constants.*;
 
@@ -52,12 +53,23 @@ import static com.alipay.sofa.ark.spi.constant.Constants.*;
 @Singleton
 public class PluginFactoryServiceImpl implements PluginFactoryService {
 
+    private static final StreamingManifestReader MANIFEST_READER = new StreamingManifestReader(
+                                                                     MANIFEST_VALUE_SPLIT.charAt(0));
+
+    static {
+        MANIFEST_READER.value(PLUGIN_NAME_ATTRIBUTE, GROUP_ID_ATTRIBUTE, ARTIFACT_ID_ATTRIBUTE,
+            PLUGIN_VERSION_ATTRIBUTE, PRIORITY_ATTRIBUTE, ACTIVATOR_ATTRIBUTE);
+        MANIFEST_READER.list(EXPORT_CLASSES_ATTRIBUTE, EXPORT_PACKAGES_ATTRIBUTE,
+            IMPORT_CLASSES_ATTRIBUTE, IMPORT_PACKAGES_ATTRIBUTE, IMPORT_RESOURCES_ATTRIBUTE,
+            EXPORT_RESOURCES_ATTRIBUTE);
+    }
+
     @Override
     public Plugin createPlugin(PluginArchive pluginArchive) throws IOException,
                                                            IllegalArgumentException {
         AssertUtils.isTrue(isArkPlugin(pluginArchive), "Archive must be a ark plugin!");
         PluginModel plugin = new PluginModel();
-        Attributes manifestMainAttributes = pluginArchive.getManifest().getMainAttributes();
+        MainAttributes manifestMainAttributes = readManifest(pluginArchive);
         plugin
             .setPluginName(manifestMainAttributes.getValue(PLUGIN_NAME_ATTRIBUTE))
             .setGroupId(manifestMainAttributes.getValue(GROUP_ID_ATTRIBUTE))
@@ -67,12 +79,12 @@ public class PluginFactoryServiceImpl implements PluginFactoryService {
             .setPluginActivator(manifestMainAttributes.getValue(ACTIVATOR_ATTRIBUTE))
             .setClassPath(pluginArchive.getUrls())
             .setPluginUrl(pluginArchive.getUrl())
-            .setExportClasses(manifestMainAttributes.getValue(EXPORT_CLASSES_ATTRIBUTE))
-            .setExportPackages(manifestMainAttributes.getValue(EXPORT_PACKAGES_ATTRIBUTE))
-            .setImportClasses(manifestMainAttributes.getValue(IMPORT_CLASSES_ATTRIBUTE))
-            .setImportPackages(manifestMainAttributes.getValue(IMPORT_PACKAGES_ATTRIBUTE))
-            .setImportResources(manifestMainAttributes.getValue(IMPORT_RESOURCES_ATTRIBUTE))
-            .setExportResources(manifestMainAttributes.getValue(EXPORT_RESOURCES_ATTRIBUTE))
+            .setExportClassSet(manifestMainAttributes.getList(EXPORT_CLASSES_ATTRIBUTE))
+            .setExportPackageSet(manifestMainAttributes.getList(EXPORT_PACKAGES_ATTRIBUTE))
+            .setImportClassSet(manifestMainAttributes.getList(IMPORT_CLASSES_ATTRIBUTE))
+            .setImportPackageSet(manifestMainAttributes.getList(IMPORT_PACKAGES_ATTRIBUTE))
+            .setImportResourceSet(manifestMainAttributes.getList(IMPORT_RESOURCES_ATTRIBUTE))
+            .setExportResourceSet(manifestMainAttributes.getList(EXPORT_RESOURCES_ATTRIBUTE))
             .setPluginClassLoader(
                 new PluginClassLoader(plugin.getPluginName(), plugin.getClassPath()))
             .setPluginContext(new PluginContextImpl(plugin));
@@ -89,7 +101,7 @@ public class PluginFactoryServiceImpl implements PluginFactoryService {
         }
 
         PluginModel plugin = new PluginModel();
-        Attributes manifestMainAttributes = pluginArchive.getManifest().getMainAttributes();
+        MainAttributes manifestMainAttributes = readManifest(pluginArchive);
         plugin
             .setPluginName(manifestMainAttributes.getValue(PLUGIN_NAME_ATTRIBUTE))
             .setGroupId(manifestMainAttributes.getValue(GROUP_ID_ATTRIBUTE))
@@ -99,13 +111,13 @@ public class PluginFactoryServiceImpl implements PluginFactoryService {
             .setPluginActivator(manifestMainAttributes.getValue(ACTIVATOR_ATTRIBUTE))
             .setClassPath(getFinalPluginUrls(pluginArchive, extensions, plugin.getPluginName()))
             .setPluginUrl(pluginArchive.getUrl())
-            .setExportClasses(manifestMainAttributes.getValue(EXPORT_CLASSES_ATTRIBUTE))
-            .setExportPackages(manifestMainAttributes.getValue(EXPORT_PACKAGES_ATTRIBUTE),
+            .setExportClassSet(manifestMainAttributes.getList(EXPORT_CLASSES_ATTRIBUTE))
+            .setExportPackageSet(manifestMainAttributes.getList(EXPORT_PACKAGES_ATTRIBUTE),
                 exportPackages)
-            .setImportClasses(manifestMainAttributes.getValue(IMPORT_CLASSES_ATTRIBUTE))
-            .setImportPackages(manifestMainAttributes.getValue(IMPORT_PACKAGES_ATTRIBUTE))
-            .setImportResources(manifestMainAttributes.getValue(IMPORT_RESOURCES_ATTRIBUTE))
-            .setExportResources(manifestMainAttributes.getValue(EXPORT_RESOURCES_ATTRIBUTE))
+            .setImportClassSet(manifestMainAttributes.getList(IMPORT_CLASSES_ATTRIBUTE))
+            .setImportPackageSet(manifestMainAttributes.getList(IMPORT_PACKAGES_ATTRIBUTE))
+            .setImportResourceSet(manifestMainAttributes.getList(IMPORT_RESOURCES_ATTRIBUTE))
+            .setExportResourceSet(manifestMainAttributes.getList(EXPORT_RESOURCES_ATTRIBUTE))
             .setPluginClassLoader(
                 new PluginClassLoader(plugin.getPluginName(), plugin.getClassPath()))
             .setPluginContext(new PluginContextImpl(plugin));
@@ -157,6 +169,22 @@ public class PluginFactoryServiceImpl implements PluginFactoryService {
         return createPlugin(jarPluginArchive);
     }
 
+    /**
+     * Only attributes of the main section used by plugin model are read from the manifest
+     * of a jar plugin, their values are split while being read
+     */
+    private MainAttributes readManifest(PluginArchive pluginArchive) throws IOException {
+        if (pluginArchive instanceof JarPluginArchive
+            && ((JarPluginArchive) pluginArchive).getArchive() instanceof JarFileArchive) {
+            MainAttributes mainAttributes = ((JarFileArchive) ((JarPluginArchive) pluginArchive)
+                .getArchive()).readManifest(MANIFEST_READER);
+            if (mainAttributes != null) {
+                return mainAttributes;
+            }
+        }
+        return MANIFEST_READER.read(pluginArchive.getManifest());
+    }
+
     private boolean isArkPlugin(PluginArchive pluginArchive) {
         return pluginArchive.isEntryExist(new Archive.EntryFilter() {
             @Override
@@ -17,23 +17,40 @@
 package com.alipay.sofa.ark.container.service.api;
 
 import com.alipay.sofa.ark.api.ArkClient;
+import com.alipay.sofa.ark.api.BizInstallFuture;
 import com.alipay.sofa.ark.api.ClientResponse;
 import com.alipay.sofa.ark.api.ResponseCode;
 import com.alipay.sofa.ark.common.util.FileUtils;
 import com.alipay.sofa.ark.container.BaseTest;
+import com.alipay.sofa.ark.exception.ArkRuntimeException;
+import com.alipay.sofa.ark.spi.constant.Constants;
 import com.alipay.sofa.ark.spi.event.ArkEvent;
+import com.alipay.sofa.ark.spi.event.biz.BeforeBizRecycleEvent;
+import com.alipay.sofa.ark.spi.archive.BizArchive;
+import com.alipay.sofa.ark.spi.model.Biz;
 import com.alipay.sofa.ark.spi.model.BizInfo;
+import com.alipay.sofa.ark.spi.model.BizOperation;
 import com.alipay.sofa.ark.spi.model.BizState;
+import com.alipay.sofa.ark.spi.service.biz.BizFactoryService;
 import com.alipay.sofa.ark.spi.service.event.EventAdminService;
 import com.alipay.sofa.ark.spi.service.event.EventHandler;
+import org.apache.commons.io.IOUtils;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.io.File;
+import java.io.IOException;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.CRC32;
 
 /**
  * @author qilong.zql
@@ -133,6 +150,196 @@ public class ArkClientTest extends BaseTest {
         Assert.assertEquals("demo", topicList.get(7));
     }
 
+    @Test
+    public void testInstallBizAsync() throws Throwable {
+        final List<BizInstallFuture.Phase> phases = new CopyOnWriteArrayList<>();
+        BizInstallFuture.PhaseListener recorder = new BizInstallFuture.PhaseListener() {
+            @Override
+            public void onPhase(BizInstallFuture future, BizInstallFuture.Phase phase) {
+                phases.add(phase);
+            }
+        };
+        File bizFile3 = ArkClient.createBizSaveFile("biz-demo", "3.0.0");
+        FileUtils.copyInputStreamToFile(bizUrl3.openStream(), bizFile3);
+        BizInstallFuture future = ArkClient.installBizAsync(bizFile3, null, recorder);
+        ClientResponse response = future.get(30, TimeUnit.SECONDS);
+        Assert.assertEquals(ResponseCode.SUCCESS, response.getCode());
+        Assert.assertEquals(BizInstallFuture.Phase.ACTIVATED, future.getPhase());
+        Assert.assertEquals(Arrays.asList(BizInstallFuture.Phase.RESOLVE,
+            BizInstallFuture.Phase.START, BizInstallFuture.Phase.ACTIVATED), phases);
+        Assert.assertFalse(future.cancel(false));
+
+        // test install biz with same bizName and bizVersion
+        File bizFile33 = ArkClient.createBizSaveFile("biz-demo", "3.0.0");
+        FileUtils.copyInputStreamToFile(bizUrl3.openStream(), bizFile33);
+        response = ArkClient.installBizAsync(bizFile33).get(30, TimeUnit.SECONDS);
+        Assert.assertEquals(ResponseCode.REPEAT_BIZ, response.getCode());
+        ArkClient.uninstallBiz("biz-demo", "3.0.0");
+
+        // test cancel before biz is started
+        BizInstallFuture.PhaseListener canceller = new BizInstallFuture.PhaseListener() {
+            @Override
+            public void onPhase(BizInstallFuture future, BizInstallFuture.Phase phase) {
+                if (phase == BizInstallFuture.Phase.RESOLVE) {
+                    Assert.assertTrue(future.cancel(false));
+                }
+            }
+        };
+        File bizFile333 = ArkClient.createBizSaveFile("biz-demo", "3.0.0");
+        FileUtils.copyInputStreamToFile(bizUrl3.openStream(), bizFile333);
+        future = ArkClient.installBizAsync(bizFile333, null, canceller);
+        try {
+            future.get(30, TimeUnit.SECONDS);
+            Assert.fail();
+        } catch (CancellationException ex) {
+            // expected
+        }
+        Assert.assertTrue(future.isCancelled());
+        Assert.assertEquals(BizInstallFuture.Phase.RESOLVE, future.getPhase());
+        Assert.assertNull(ArkClient.getBizManagerService().getBiz("biz-demo", "3.0.0"));
+    }
+
+    @Test
+    public void testCancelInstallAfterBizCreated() throws Throwable {
+        final AtomicReference<BizInstallFuture> installFuture = new AtomicReference<>();
+        final AtomicReference<File> createdFile = new AtomicReference<>();
+        final AtomicReference<Biz> createdBiz = new AtomicReference<>();
+        final List<Biz> recycledBiz = new CopyOnWriteArrayList<>();
+        EventAdminService eventAdminService = arkServiceContainer
+            .getService(EventAdminService.class);
+        EventHandler<BeforeBizRecycleEvent> recycleHandler = new EventHandler<BeforeBizRecycleEvent>() {
+            @Override
+            public void handleEvent(BeforeBizRecycleEvent event) {
+                recycledBiz.add(event.getSource());
+            }
+
+            @Override
+            public int getPriority() {
+                return 0;
+            }
+        };
+        eventAdminService.register(recycleHandler);
+        final BizFactoryService bizFactoryService = ArkClient.getBizFactoryService();
+        // cancel the install right after the biz is created, before it is started
+        ArkClient.setBizFactoryService(new BizFactoryService() {
+            @Override
+            public Biz createBiz(BizArchive bizArchive) throws IOException {
+                return bizFactoryService.createBiz(bizArchive);
+            }
+
+            @Override
+            public Biz createBiz(File file) throws IOException {
+                Biz biz = bizFactoryService.createBiz(file);
+                createdFile.set(file);
+                createdBiz.set(biz);
+                Assert.assertTrue(installFuture.get().cancel(false));
+                return biz;
+            }
+        });
+        try {
+            BizOperation bizOperation = BizOperation.createBizOperation().setBizName("biz-demo")
+                .setBizVersion("3.0.0").setOperationType(BizOperation.OperationType.INSTALL)
+                .putParameter(Constants.CONFIG_BIZ_URL, bizUrl3.toString());
+            BizInstallFuture future = ArkClient.installOperationAsync(bizOperation, null,
+                new BizInstallFuture.PhaseListener() {
+                    @Override
+                    public void onPhase(BizInstallFuture future, BizInstallFuture.Phase phase) {
+                        installFuture.set(future);
+                    }
+                });
+            try {
+                future.get(30, TimeUnit.SECONDS);
+                Assert.fail();
+            } catch (CancellationException ex) {
+                // expected
+            }
+        } finally {
+            ArkClient.setBizFactoryService(bizFactoryService);
+        }
+        // wait for the install thread to clean up the cancelled biz
+        for (int i = 0; i < 100 && createdFile.get().exists(); ++i) {
+            Thread.sleep(100);
+        }
+        // the biz never started, it is recycled without being stopped
+        Assert.assertEquals(BizState.RESOLVED, createdBiz.get().getBizState());
+        Assert.assertEquals(Collections.singletonList(createdBiz.get()), recycledBiz);
+        eventAdminService.unRegister(recycleHandler);
+        Assert.assertNull(ArkClient.getBizManagerService().getBiz("biz-demo", "3.0.0"));
+        Assert.assertFalse(createdFile.get().exists());
+    }
+
+    @Test
+    public void testBatchOperation() throws Throwable {
+        List<BizOperation> bizOperations = new ArrayList<>();
+        bizOperations.add(BizOperation.createBizOperation().setBizName("biz-demo")
+            .setBizVersion("1.0.0").setOperationType(BizOperation.OperationType.INSTALL)
+            .putParameter(Constants.CONFIG_BIZ_URL, bizUrl1.toString()));
+        bizOperations.add(BizOperation.createBizOperation().setBizName("biz-missing")
+            .setBizVersion("1.0.0").setOperationType(BizOperation.OperationType.SWITCH));
+        bizOperations.add(BizOperation.createBizOperation().setBizName("biz-missing")
+            .setBizVersion("1.0.0").setOperationType(BizOperation.OperationType.UNINSTALL));
+        bizOperations.add(BizOperation.createBizOperation().setBizName("biz-demo")
+            .setBizVersion("2.0.0").setOperationType(BizOperation.OperationType.INSTALL)
+            .putParameter(Constants.CONFIG_BIZ_URL, bizUrl2.toString()));
+        bizOperations.add(BizOperation.createBizOperation().setBizName("biz-demo")
+            .setBizVersion("2.0.0").setOperationType(BizOperation.OperationType.SWITCH));
+        bizOperations.add(BizOperation.createBizOperation().setBizName("biz-demo")
+            .setBizVersion("1.0.0").setOperationType(BizOperation.OperationType.UNINSTALL));
+
+        List<ClientResponse> responses = ArkClient.batchOperation(bizOperations);
+        Assert.assertEquals(6, responses.size());
+        Assert.assertEquals(ResponseCode.SUCCESS, responses.get(0).getCode());
+        // a failed response does not skip the operations after it
+        Assert.assertEquals(ResponseCode.NOT_FOUND_BIZ, responses.get(1).getCode());
+        Assert.assertEquals(ResponseCode.NOT_FOUND_BIZ, responses.get(2).getCode());
+        Assert.assertEquals(ResponseCode.SUCCESS, responses.get(3).getCode());
+        Assert.assertEquals(ResponseCode.SUCCESS, responses.get(4).getCode());
+        Assert.assertEquals(ResponseCode.SUCCESS, responses.get(5).getCode());
+
+        ClientResponse response = ArkClient.checkBiz("biz-demo");
+        Assert.assertEquals(1, response.getBizInfos().size());
+        BizInfo bizInfo = response.getBizInfos().iterator().next();
+        Assert.assertEquals("2.0.0", bizInfo.getBizVersion());
+        Assert.assertEquals(BizState.ACTIVATED, bizInfo.getBizState());
+        ArkClient.uninstallBiz("biz-demo", "2.0.0");
+
+        // an operation which throws fails the whole batch, as executing one by one does
+        bizOperations.clear();
+        bizOperations.add(BizOperation.createBizOperation().setBizName("biz-missing")
+            .setBizVersion("1.0.0").setOperationType(BizOperation.OperationType.INSTALL)
+            .putParameter(Constants.CONFIG_BIZ_URL, bizUrl1.toString() + ".missing"));
+        bizOperations.add(BizOperation.createBizOperation().setBizName("biz-missing")
+            .setBizVersion("1.0.0").setOperationType(BizOperation.OperationType.SWITCH));
+        try {
+            ArkClient.batchOperation(bizOperations);
+            Assert.fail();
+        } catch (ArkRuntimeException ex) {
+            Assert.assertNotNull(ex.getCause());
+        }
+        Assert.assertTrue(ArkClient.checkBiz("biz-missing").getBizInfos().isEmpty());
+    }
+
+    @Test
+    public void testInstallOperationWithChecksum() throws Throwable {
+        BizOperation bizOperation = BizOperation.createBizOperation().setBizName("biz-demo")
+            .setBizVersion("1.0.0").setOperationType(BizOperation.OperationType.INSTALL)
+            .putParameter(Constants.CONFIG_BIZ_URL, bizUrl1.toString())
+            .putParameter(Constants.CONFIG_BIZ_CRC32, "0");
+        try {
+            ArkClient.installOperation(bizOperation);
+            Assert.fail();
+        } catch (IOException ex) {
+            Assert.assertTrue(ex.getMessage().contains("CRC-32"));
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(IOUtils.toByteArray(bizUrl1));
+        bizOperation.putParameter(Constants.CONFIG_BIZ_CRC32, Long.toHexString(crc.getValue()));
+        ClientResponse response = ArkClient.installOperation(bizOperation);
+        Assert.assertEquals(ResponseCode.SUCCESS, response.getCode());
+        ArkClient.uninstallBiz("biz-demo", "1.0.0");
+    }
+
     @Test
     public void testCheckBiz() throws Throwable {
         testInstallBiz();
@@ -17,19 +17,36 @@
 package com.alipay.sofa.ark.container.service.biz;
 
 import com.alipay.sofa.ark.container.BaseTest;
+import com.alipay.sofa.ark.container.model.BizModel;
 import com.alipay.sofa.ark.container.service.ArkServiceContainerHolder;
+import com.alipay.sofa.ark.loader.JarBizArchive;
+import com.alipay.sofa.ark.loader.archive.JarFileArchive;
+import com.alipay.sofa.ark.loader.jar.Handler;
+import com.alipay.sofa.ark.loader.jar.JarFile;
+import com.alipay.sofa.ark.spi.archive.Archive;
 import com.alipay.sofa.ark.spi.constant.Constants;
 import com.alipay.sofa.ark.spi.model.Biz;
+import com.alipay.sofa.ark.spi.model.BizState;
 import com.alipay.sofa.ark.spi.model.Plugin;
 import com.alipay.sofa.ark.spi.service.biz.BizFactoryService;
 import com.alipay.sofa.ark.spi.service.biz.BizManagerService;
 import com.alipay.sofa.ark.spi.service.plugin.PluginFactoryService;
 import com.alipay.sofa.ark.spi.service.plugin.PluginManagerService;
+import org.apache.commons.io.IOUtils;
 import org.junit.Assert;
 import org.junit.Test;
 
 import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 /**
  * @author qilong.zql
@@ -82,4 +99,67 @@ public class BizFactoryServiceTest extends BaseTest {
         Assert.assertNotNull(mdc.getPackage().getImplementationVersion());
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testStopBizKeepsSharedRootJarFile() throws Throwable {
+        ClassLoader cl = Thread.currentThread().getContextClassLoader();
+        File fatFile = File.createTempFile("fat", ".jar");
+        fatFile.deleteOnExit();
+        try (ZipOutputStream outputStream = new ZipOutputStream(new FileOutputStream(fatFile))) {
+            addStoredEntry(outputStream, "biz/a.jar",
+                cl.getResource("sample-ark-1.0.0-ark-biz.jar"));
+            addStoredEntry(outputStream, "biz/b.jar",
+                cl.getResource("sample-ark-2.0.0-ark-biz.jar"));
+        }
+        List<Archive> archives = new JarFileArchive(fatFile)
+            .getNestedArchives(new Archive.EntryFilter() {
+                @Override
+                public boolean matches(Archive.Entry entry) {
+                    return entry.getName().startsWith("biz/") && !entry.isDirectory();
+                }
+            });
+        BizModel bizA = (BizModel) bizFactoryService.createBiz(new JarBizArchive(archives.get(0)));
+        Biz bizB = bizFactoryService.createBiz(new JarBizArchive(archives.get(1)));
+        bizManagerService.registerBiz(bizA);
+        bizManagerService.registerBiz(bizB);
+        JarFile rootJarFile = Handler.getRootFileCache().getOrOpen(fatFile);
+
+        // static biz share the root jar file, stopping one must not close it
+        bizA.setBizState(BizState.ACTIVATED);
+        bizA.stop();
+        Assert.assertSame(rootJarFile, Handler.getRootFileCache().get(fatFile));
+        Class<?> clazz = bizB.getBizClassLoader().loadClass("me.qlong.tech.SampleArk");
+        Assert.assertSame(bizB.getBizClassLoader(), clazz.getClassLoader());
+        bizManagerService.unRegisterBizStrictly(bizB.getBizName(), bizB.getBizVersion());
+
+        // the file of a dynamically installed biz is owned by the biz alone
+        File bizFile = File.createTempFile("biz", ".jar");
+        bizFile.deleteOnExit();
+        try (InputStream inputStream = cl.getResource("sample-ark-3.0.0-ark-biz.jar").openStream()) {
+            Files.copy(inputStream, bizFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        BizModel bizC = (BizModel) bizFactoryService.createBiz(bizFile);
+        bizManagerService.registerBiz(bizC);
+        Handler.getRootFileCache().getOrOpen(bizFile);
+        bizC.setBizState(BizState.ACTIVATED);
+        bizC.stop();
+        Assert.assertNull(Handler.getRootFileCache().get(bizFile));
+    }
+
+    private void addStoredEntry(ZipOutputStream outputStream, String name, URL url)
+                                                                                   throws IOException {
+        byte[] bytes;
+        try (InputStream inputStream = url.openStream()) {
+            bytes = IOUtils.toByteArray(inputStream);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        ZipEntry entry = new ZipEntry(name);
+        entry.setMethod(ZipEntry.STORED);
+        entry.setSize(bytes.length);
+        entry.setCrc(crc.getValue());
+        outputStream.putNextEntry(entry);
+        outputStream.write(bytes);
+        outputStream.closeEntry();
+    }
+
+}
@@ -25,6 +25,8 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.net.URL;
+import java.net.URLClassLoader;
 import java.util.List;
 import java.util.Set;
 
@@ -145,4 +147,37 @@ public class BizManagerServiceTest extends BaseTest {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testBizIndexes() {
+        ClassLoader classLoader = new URLClassLoader(new URL[0]);
+        Biz biz = new BizModel().setBizName("test-biz-index").setBizVersion("1.0.0")
+            .setBizState(BizState.RESOLVED).setPriority("1").setClassLoader(classLoader);
+        bizManagerService.registerBiz(biz);
+        Assert.assertSame(biz, bizManagerService.getBizByIdentity("test-biz-index:1.0.0"));
+        Assert.assertSame(biz, bizManagerService.getBizByClassLoader(classLoader));
+        Assert.assertNull(bizManagerService.getBizByClassLoader(getClass().getClassLoader()));
+
+        List<Biz> bizList = bizManagerService.getBizInOrder();
+        Assert.assertEquals(2, bizList.size());
+        Assert.assertSame(biz, bizList.get(0));
+        bizList.clear();
+        Assert.assertEquals(2, bizManagerService.getBizInOrder().size());
+
+        // priority changed after registration
+        ((BizModel) biz).setPriority("200");
+        Assert.assertSame(biz, bizManagerService.getBizInOrder().get(1));
+
+        // changes made to the returned registration do not bypass indexes
+        bizManagerService.getBizRegistration().remove("test-biz-index");
+        Assert.assertNotNull(bizManagerService.getBiz("test-biz-index", "1.0.0"));
+        Assert.assertEquals(2, bizManagerService.getBizInOrder().size());
+
+        bizManagerService.unRegisterBizStrictly("test-biz-index", "1.0.0");
+        Assert.assertNull(bizManagerService.getBizByIdentity("test-biz-index:1.0.0"));
+        Assert.assertNull(bizManagerService.getBizByClassLoader(classLoader));
+        Assert.assertEquals(BizState.UNRESOLVED,
+            bizManagerService.getBizState("test-biz-index:1.0.0"));
+        Assert.assertEquals(1, bizManagerService.getBizInOrder().size());
+    }
+
+}
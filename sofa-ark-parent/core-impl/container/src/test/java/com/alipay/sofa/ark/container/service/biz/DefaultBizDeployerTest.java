@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.ark.container.service.biz;
+
+import com.alipay.sofa.ark.container.BaseTest;
+import com.alipay.sofa.ark.container.model.BizModel;
+import com.alipay.sofa.ark.container.service.ArkServiceContainerHolder;
+import com.alipay.sofa.ark.exception.ArkRuntimeException;
+import com.alipay.sofa.ark.spi.constant.Constants;
+import com.alipay.sofa.ark.spi.model.BizState;
+import com.alipay.sofa.ark.spi.service.biz.BizManagerService;
+import com.alipay.sofa.ark.spi.service.injection.InjectionService;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author ruoshan
+ * @since 1.1.7
+ */
+public class DefaultBizDeployerTest extends BaseTest {
+
+    private BizManagerService  bizManagerService;
+
+    private DefaultBizDeployer bizDeployer;
+
+    private List<String>       startedBiz = new CopyOnWriteArrayList<>();
+
+    @Before
+    public void before() {
+        super.before();
+        bizManagerService = ArkServiceContainerHolder.getContainer().getService(
+            BizManagerService.class);
+        bizDeployer = new DefaultBizDeployer();
+        ArkServiceContainerHolder.getContainer().getService(InjectionService.class)
+            .inject(bizDeployer);
+        bizDeployer.init(new String[] {});
+        System.setProperty(Constants.BIZ_DEPLOY_PARALLEL_ENABLE, "true");
+        System.setProperty(Constants.BIZ_DEPLOY_PARALLEL_POOL_SIZE, "2");
+        System.setProperty(Constants.MASTER_BIZ, "master");
+    }
+
+    @After
+    public void after() {
+        System.clearProperty(Constants.BIZ_DEPLOY_PARALLEL_ENABLE);
+        System.clearProperty(Constants.BIZ_DEPLOY_PARALLEL_POOL_SIZE);
+        System.clearProperty(Constants.MASTER_BIZ);
+        super.after();
+    }
+
+    @Test
+    public void testDeployInParallel() {
+        // biz with the same priority waits for each other, so they must be started concurrently
+        CountDownLatch latch = new CountDownLatch(2);
+        bizManagerService.registerBiz(new TestBiz("biz A", "200", latch, false));
+        bizManagerService.registerBiz(new TestBiz("biz B", "200", latch, false));
+        bizManagerService.registerBiz(new TestBiz("biz C", "300", null, false));
+        bizManagerService.registerBiz(new TestBiz("master", "400", null, false));
+        bizDeployer.deploy();
+
+        // master biz keeps its priority slot
+        Assert.assertEquals(4, startedBiz.size());
+        Assert.assertEquals("biz C", startedBiz.get(2));
+        Assert.assertEquals("master", startedBiz.get(3));
+    }
+
+    @Test
+    public void testDeployInParallelFailed() {
+        bizManagerService.registerBiz(new TestBiz("biz A", "200", null, true));
+        bizManagerService.registerBiz(new TestBiz("biz B", "200", null, true));
+        bizManagerService.registerBiz(new TestBiz("biz C", "300", null, false));
+        try {
+            bizDeployer.deploy();
+            Assert.fail();
+        } catch (ArkRuntimeException e) {
+            Assert.assertTrue(e.getCause().getMessage().startsWith("fail to start"));
+        }
+        Assert.assertFalse(startedBiz.contains("biz C"));
+    }
+
+    private class TestBiz extends BizModel {
+        private final CountDownLatch latch;
+        private final boolean        fail;
+
+        TestBiz(String bizName, String priority, CountDownLatch latch, boolean fail) {
+            this.latch = latch;
+            this.fail = fail;
+            setBizName(bizName).setBizVersion("1.0.0").setPriority(priority)
+                .setBizState(BizState.RESOLVED);
+        }
+
+        @Override
+        public void start(String[] args) throws Throwable {
+            if (fail) {
+                throw new IllegalStateException("fail to start " + getBizName());
+            }
+            if (latch != null) {
+                latch.countDown();
+                Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+            }
+            startedBiz.add(getBizName());
+        }
+    }
+}
@@ -18,29 +18,44 @@ package com.alipay.sofa.ark.container.service.classloader;
 
 import com.alipay.sofa.ark.api.ArkClient;
 import com.alipay.sofa.ark.common.util.ClassUtils;
+import com.alipay.sofa.ark.common.util.FileUtils;
 import com.alipay.sofa.ark.common.util.StringUtils;
 import com.alipay.sofa.ark.container.BaseTest;
 import com.alipay.sofa.ark.container.testdata.ITest;
+import com.alipay.sofa.ark.container.testdata.impl.TestObjectA;
+import com.alipay.sofa.ark.container.testdata.impl.TestObjectB;
 import com.alipay.sofa.ark.container.model.BizModel;
 import com.alipay.sofa.ark.container.model.PluginModel;
 import com.alipay.sofa.ark.container.service.ArkServiceContainerHolder;
+import com.alipay.sofa.ark.loader.jar.Handler;
+import com.alipay.sofa.ark.spi.constant.Constants;
+import com.alipay.sofa.ark.spi.event.biz.BeforeBizRecycleEvent;
 import com.alipay.sofa.ark.spi.model.BizState;
 import com.alipay.sofa.ark.spi.service.biz.BizManagerService;
 import com.alipay.sofa.ark.spi.service.classloader.ClassLoaderService;
+import com.alipay.sofa.ark.spi.service.event.EventHandler;
 import com.alipay.sofa.ark.spi.service.plugin.PluginDeployService;
 import com.alipay.sofa.ark.spi.service.plugin.PluginManagerService;
 import com.google.common.collect.Sets;
+import org.apache.commons.io.IOUtils;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import sun.misc.URLClassPath;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
 import java.lang.reflect.Field;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.util.Collections;
 import java.io.IOException;
 import java.util.*;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
 
 /**
  * @author ruoshan
@@ -105,6 +120,42 @@ public class BizClassLoaderTest extends BaseTest {
             bizModel.getBizClassLoader().loadClass(ITest.class.getName()));
     }
 
+    @Test
+    public void testLoadClassFastPath() throws Exception {
+        // java.* class resolved before any biz lookup, even biz is not registered
+        BizClassLoader bizClassLoader = new BizClassLoader("biz B:1.0.0", new URL[] {});
+        // the fast path leaves the fast exception toggle of the thread untouched
+        Handler.setUseFastConnectionExceptions(true);
+        try {
+            Assert.assertEquals(String.class, bizClassLoader.loadClass("java.lang.String"));
+            Assert.assertTrue(Handler.isUseFastConnectionExceptions());
+        } finally {
+            Handler.setUseFastConnectionExceptions(false);
+        }
+
+        BizModel bizModel = new BizModel().setBizState(BizState.RESOLVED);
+        bizModel.setBizName("biz A").setBizVersion("1.0.0")
+            .setClassPath(new URL[] { classPathURL })
+            .setClassLoader(new BizClassLoader(bizModel.getIdentity(), bizModel.getClassPath()));
+        bizModel.setDenyImportResources(StringUtils.EMPTY_STRING);
+        bizModel.setDenyImportClasses(StringUtils.EMPTY_STRING);
+        bizModel.setDenyImportPackages(StringUtils.EMPTY_STRING);
+        bizManagerService.registerBiz(bizModel);
+
+        Handler.setUseFastConnectionExceptions(true);
+        try {
+            // the first load goes through the slow path, which resets the toggle
+            Class<?> clazz = bizModel.getBizClassLoader().loadClass(ITest.class.getName());
+            Assert.assertFalse(Handler.isUseFastConnectionExceptions());
+
+            Handler.setUseFastConnectionExceptions(true);
+            Assert.assertSame(clazz, bizModel.getBizClassLoader().loadClass(ITest.class.getName()));
+            Assert.assertTrue(Handler.isUseFastConnectionExceptions());
+        } finally {
+            Handler.setUseFastConnectionExceptions(false);
+        }
+    }
+
     @Test
     public void testAgentClass() throws ClassNotFoundException {
         BizModel bizModel = new BizModel().setBizState(BizState.RESOLVED);
@@ -293,4 +344,206 @@ public class BizClassLoaderTest extends BaseTest {
             Sets.newHashSet(Collections.list(enu1)));
 
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testNegativeClassCache() {
+        BizModel bizModel = new BizModel().setBizState(BizState.RESOLVED);
+        bizModel.setBizName("biz A").setBizVersion("1.0.0").setClassPath(new URL[] {})
+            .setClassLoader(new BizClassLoader(bizModel.getIdentity(), bizModel.getClassPath()));
+        bizModel.setDenyImportResources(StringUtils.EMPTY_STRING);
+        bizModel.setDenyImportClasses(StringUtils.EMPTY_STRING);
+        bizModel.setDenyImportPackages(StringUtils.EMPTY_STRING);
+        bizManagerService.registerBiz(bizModel);
+
+        BizClassLoader bizClassLoader = (BizClassLoader) bizModel.getBizClassLoader();
+        String className = "com.alipay.sofa.ark.container.testdata.NotExistClass";
+        for (int i = 0; i < 2; ++i) {
+            try {
+                bizClassLoader.loadClass(className);
+                Assert.fail();
+            } catch (ClassNotFoundException ex) {
+                Assert.assertTrue(ex.getMessage().contains(className));
+            }
+        }
+        Assert.assertTrue(bizClassLoader.negativeClassCache.isMissed(className));
+
+        classloaderService.prepareExportClassAndResourceCache();
+        Assert.assertFalse(bizClassLoader.negativeClassCache.isMissed(className));
+    }
+
+    @Test
+    public void testResourceLookupCache() throws Exception {
+        System.setProperty(Constants.CLASSLOADER_RESOURCE_CACHE_ENABLE, "true");
+        try {
+            BizModel bizModel = new BizModel().setBizState(BizState.RESOLVED);
+            bizModel
+                .setBizName("biz A")
+                .setBizVersion("1.0.0")
+                .setClassPath(new URL[] { classPathURL })
+                .setClassLoader(new BizClassLoader(bizModel.getIdentity(), bizModel.getClassPath()));
+            bizModel.setDenyImportResources(StringUtils.EMPTY_STRING);
+            bizModel.setDenyImportClasses(StringUtils.EMPTY_STRING);
+            bizModel.setDenyImportPackages(StringUtils.EMPTY_STRING);
+            bizManagerService.registerBiz(bizModel);
+
+            BizClassLoader bizClassLoader = (BizClassLoader) bizModel.getBizClassLoader();
+            ResourceLookupCache resourceLookupCache = bizClassLoader.getResourceLookupCache();
+            Assert.assertTrue(resourceLookupCache.isEnabled());
+
+            // class loader hook is loaded via resource lookup on first call
+            URL url = bizClassLoader.getResource("SampleClass.class");
+            Assert.assertNotNull(url);
+            long hitCount = resourceLookupCache.getHitCount();
+            long missCount = resourceLookupCache.getMissCount();
+
+            Assert.assertEquals(url, bizClassLoader.getResource("SampleClass.class"));
+            Assert.assertNull(bizClassLoader.getResource("not-exist-resource"));
+            Assert.assertNull(bizClassLoader.getResource("not-exist-resource"));
+            Assert.assertEquals(Collections.list(bizClassLoader.getResources("SampleClass.class")),
+                Collections.list(bizClassLoader.getResources("SampleClass.class")));
+            Assert.assertEquals(hitCount + 3, resourceLookupCache.getHitCount());
+            Assert.assertEquals(missCount + 2, resourceLookupCache.getMissCount());
+
+            classloaderService.prepareExportClassAndResourceCache();
+            Assert.assertEquals(url, bizClassLoader.getResource("SampleClass.class"));
+            Assert.assertEquals(hitCount + 3, resourceLookupCache.getHitCount());
+            Assert.assertEquals(missCount + 3, resourceLookupCache.getMissCount());
+        } finally {
+            System.clearProperty(Constants.CLASSLOADER_RESOURCE_CACHE_ENABLE);
+        }
+    }
+
+    @Test
+    public void testDefinePackageFromJarPackageIndex() throws Exception {
+        URL bizJar = new URL("jar:"
+                             + this.getClass().getClassLoader()
+                                 .getResource("sample-ark-1.0.0-ark-biz.jar").toExternalForm()
+                             + "!/");
+        JarPackageIndex packageIndex = JarPackageIndex.build(new URL[] { classPathURL, bizJar });
+        JarPackageIndex.PackageSource packageSource = packageIndex.find("me/qlong/tech/",
+            "me/qlong/tech/SampleArk.class");
+        Assert.assertNotNull(packageSource);
+        Assert.assertEquals(bizJar, packageSource.getUrl());
+        Assert.assertNotNull(packageSource.getManifest());
+        Assert.assertNull(packageIndex.find("me/qlong/tech/", "me/qlong/tech/NotExist.class"));
+        Assert.assertNull(packageIndex.find("me/qlong/", "me/qlong/SampleArk.class"));
+        Assert.assertNull(packageIndex.getJarSources());
+
+        BizModel bizModel = new BizModel().setBizState(BizState.RESOLVED);
+        bizModel.setBizName("biz A").setBizVersion("1.0.0").setClassPath(new URL[] { bizJar })
+            .setClassLoader(new BizClassLoader(bizModel.getIdentity(), bizModel.getClassPath()))
+            .setDenyImportPackages(StringUtils.EMPTY_STRING)
+            .setDenyImportClasses(StringUtils.EMPTY_STRING)
+            .setDenyImportResources(StringUtils.EMPTY_STRING);
+        bizManagerService.registerBiz(bizModel);
+
+        Class<?> clazz = bizModel.getBizClassLoader().loadClass("me.qlong.tech.SampleArk");
+        Assert.assertEquals(bizModel.getBizClassLoader(), clazz.getClassLoader());
+        Assert.assertNotNull(clazz.getPackage());
+    }
+
+    @Test
+    public void testDefineClassFromJarDirectly() throws Exception {
+        URL bizJar = new URL("jar:"
+                             + this.getClass().getClassLoader()
+                                 .getResource("sample-ark-1.0.0-ark-biz.jar").toExternalForm()
+                             + "!/");
+        Assert.assertEquals(1, JarPackageIndex.build(new URL[] { bizJar }).getJarSources().size());
+
+        BizModel bizModel = new BizModel().setBizState(BizState.RESOLVED);
+        bizModel.setBizName("biz A").setBizVersion("1.0.0").setClassPath(new URL[] { bizJar })
+            .setClassLoader(new BizClassLoader(bizModel.getIdentity(), bizModel.getClassPath()))
+            .setDenyImportPackages(StringUtils.EMPTY_STRING)
+            .setDenyImportClasses(StringUtils.EMPTY_STRING)
+            .setDenyImportResources(StringUtils.EMPTY_STRING);
+        bizManagerService.registerBiz(bizModel);
+
+        Class<?> clazz = bizModel.getBizClassLoader().loadClass("me.qlong.tech.SampleArk");
+        Assert.assertEquals(bizModel.getBizClassLoader(), clazz.getClassLoader());
+        Assert.assertEquals(bizJar, clazz.getProtectionDomain().getCodeSource().getLocation());
+        Assert.assertNotNull(clazz.getPackage());
+        Assert.assertSame(clazz, bizModel.getBizClassLoader().loadClass("me.qlong.tech.SampleArk"));
+        Assert.assertNotNull(clazz.getMethod("main", String[].class));
+
+        try {
+            bizModel.getBizClassLoader().loadClass("me.qlong.tech.NotExist");
+            Assert.fail();
+        } catch (ClassNotFoundException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testDefineClassFromJarDirectlyWithSealedPackage() throws Exception {
+        File dir = FileUtils.createTempDir("sealed-package");
+        Manifest sealed = new Manifest();
+        sealed.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        sealed.getMainAttributes().put(Attributes.Name.SEALED, "true");
+        File sealedJar = createJar(new File(dir, "sealed.jar"), sealed, ITest.class,
+            TestObjectA.class);
+        File splitJar = createJar(new File(dir, "split.jar"), new Manifest(), TestObjectB.class);
+
+        BizModel bizModel = new BizModel().setBizState(BizState.RESOLVED);
+        bizModel
+            .setBizName("biz sealed")
+            .setBizVersion("1.0.0")
+            .setClassPath(
+                new URL[] { new URL("jar:" + sealedJar.toURI() + "!/"),
+                        new URL("jar:" + splitJar.toURI() + "!/") })
+            .setClassLoader(new BizClassLoader(bizModel.getIdentity(), bizModel.getClassPath()))
+            .setDenyImportPackages(StringUtils.EMPTY_STRING)
+            .setDenyImportClasses(StringUtils.EMPTY_STRING)
+            .setDenyImportResources(StringUtils.EMPTY_STRING);
+        bizManagerService.registerBiz(bizModel);
+
+        ClassLoader bizClassLoader = bizModel.getBizClassLoader();
+        Class<?> clazz = bizClassLoader.loadClass(TestObjectA.class.getName());
+        Assert.assertTrue(clazz.getPackage().isSealed());
+        // same as URLClassLoader, package sealed by one jar can't be split into another
+        try {
+            bizClassLoader.loadClass(TestObjectB.class.getName());
+            Assert.fail();
+        } catch (SecurityException ex) {
+            Assert.assertTrue(ex.getMessage().contains("sealing violation"));
+        }
+    }
+
+    private File createJar(File file, Manifest manifest, Class<?>... classes) throws IOException {
+        try (JarOutputStream jarOutputStream = new JarOutputStream(new FileOutputStream(file),
+            manifest)) {
+            for (Class<?> clazz : classes) {
+                String entryName = clazz.getName().replace('.', '/') + ".class";
+                jarOutputStream.putNextEntry(new JarEntry(entryName));
+                try (InputStream inputStream = clazz.getClassLoader()
+                    .getResourceAsStream(entryName)) {
+                    jarOutputStream.write(IOUtils.toByteArray(inputStream));
+                }
+                jarOutputStream.closeEntry();
+            }
+        }
+        return file;
+    }
+
+    @Test
+    public void testCachedBiz() {
+        BizModel bizModel = new BizModel().setBizState(BizState.RESOLVED);
+        bizModel.setBizName("biz cached").setBizVersion("1.0.0")
+            .setClassPath(new URL[] { classPathURL })
+            .setClassLoader(new BizClassLoader(bizModel.getIdentity(), bizModel.getClassPath()))
+            .setDenyImportClasses("a.b.C");
+        BizClassLoader bizClassLoader = (BizClassLoader) bizModel.getBizClassLoader();
+        Assert.assertNull(bizClassLoader.getBiz());
+        Assert.assertTrue(bizClassLoader.shouldFindExportedClass("a.b.C"));
+
+        bizManagerService.registerBiz(bizModel);
+        Assert.assertSame(bizModel, bizClassLoader.getBiz());
+        Assert.assertFalse(bizClassLoader.shouldFindExportedClass("a.b.C"));
+        Assert.assertTrue(bizClassLoader.shouldFindExportedClass("a.b.D"));
+
+        bizManagerService.unRegisterBizStrictly(bizModel.getBizName(), bizModel.getBizVersion());
+        Assert.assertSame(bizModel, bizClassLoader.getBiz());
+        ((EventHandler) classloaderService).handleEvent(new BeforeBizRecycleEvent(bizModel));
+        Assert.assertNull(bizClassLoader.getBiz());
+    }
+
+}
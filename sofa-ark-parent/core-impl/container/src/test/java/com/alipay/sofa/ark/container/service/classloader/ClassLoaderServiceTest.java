@@ -152,6 +152,25 @@ public class ClassLoaderServiceTest extends BaseTest {
         Assert.assertTrue(classloaderService.isClassInImport("mockPlugin", "a.b.c.e.f"));
     }
 
+    @Test
+    public void testIsResourceInImport() {
+        PluginModel plugin = new PluginModel().setPluginName("mockPlugin").setImportClasses(null)
+            .setImportPackages(null).setImportResources("a/b.xml,a/c/*,*.xsd,*/d/e.properties");
+        pluginManagerService.registerPlugin(plugin);
+
+        Assert.assertTrue(classloaderService.isResourceInImport("mockPlugin", "a/b.xml"));
+        Assert.assertFalse(classloaderService.isResourceInImport("mockPlugin", "a/b.xmlx"));
+        Assert.assertTrue(classloaderService.isResourceInImport("mockPlugin", "a/c/f.xml"));
+        Assert.assertFalse(classloaderService.isResourceInImport("mockPlugin", "a/cf.xml"));
+        Assert.assertTrue(classloaderService.isResourceInImport("mockPlugin", "spring.xsd"));
+        Assert.assertTrue(classloaderService.isResourceInImport("mockPlugin", "f/d/e.properties"));
+        Assert.assertFalse(classloaderService.isResourceInImport("mockPlugin", "d/e.properties"));
+
+        Assert.assertSame(plugin.getImportMatcher(), plugin.getImportMatcher());
+        plugin.setImportResources("d/*");
+        Assert.assertTrue(classloaderService.isResourceInImport("mockPlugin", "d/e.properties"));
+    }
+
     @Test
     public void testFindExportClass() {
         PluginClassLoader pluginClassLoader = new PluginClassLoader("mockPlugin", new URL[] {});
@@ -176,6 +195,35 @@ public class ClassLoaderServiceTest extends BaseTest {
         pluginManagerService.getPluginsInOrder().remove(plugin);
     }
 
+    @Test
+    public void testFindExportClassInPriorityOrder() {
+        PluginClassLoader pluginClassLoaderA = new PluginClassLoader("mockPluginA", new URL[] {});
+        PluginClassLoader pluginClassLoaderB = new PluginClassLoader("mockPluginB", new URL[] {});
+        Plugin pluginA = new PluginModel().setPluginName("mockPluginA").setPriority("10")
+            .setExportPackages("a.b.*,a.b.c").setExportClasses("a.b.d.E")
+            .setPluginClassLoader(pluginClassLoaderA).setExportResources("");
+        Plugin pluginB = new PluginModel().setPluginName("mockPluginB").setPriority("100")
+            .setExportPackages("a.b.c.*,a.b.c,a.e.*").setExportClasses("a.b.d.E,a.b.d.F")
+            .setPluginClassLoader(pluginClassLoaderB).setExportResources("");
+        pluginManagerService.registerPlugin(pluginA);
+        pluginManagerService.registerPlugin(pluginB);
+        classloaderService.prepareExportClassAndResourceCache();
+
+        Assert
+            .assertEquals(pluginClassLoaderA, classloaderService.findExportClassLoader("a.b.d.E"));
+        Assert
+            .assertEquals(pluginClassLoaderB, classloaderService.findExportClassLoader("a.b.d.F"));
+        Assert
+            .assertEquals(pluginClassLoaderA, classloaderService.findExportClassLoader("a.b.c.D"));
+        Assert.assertEquals(pluginClassLoaderB,
+            classloaderService.findExportClassLoader("a.b.c.d.E"));
+        Assert.assertEquals(pluginClassLoaderA, classloaderService.findExportClassLoader("a.b.D"));
+        Assert.assertEquals(pluginClassLoaderB, classloaderService.findExportClassLoader("a.e.F"));
+        Assert.assertNull(classloaderService.findExportClassLoader("a.bc.D"));
+        Assert.assertNull(classloaderService.findExportClassLoader("a.D"));
+        Assert.assertNull(classloaderService.findExportClassLoader("D"));
+    }
+
     @Test
     public void testFindExportResources() {
         PluginClassLoader pluginClassLoader = new PluginClassLoader("mockPlugin", new URL[] {});
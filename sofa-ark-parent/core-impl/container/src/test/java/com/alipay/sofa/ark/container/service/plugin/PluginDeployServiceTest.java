@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.ark.container.service.plugin;
+
+import com.alipay.sofa.ark.common.util.StringUtils;
+import com.alipay.sofa.ark.container.BaseTest;
+import com.alipay.sofa.ark.container.model.PluginContextImpl;
+import com.alipay.sofa.ark.container.model.PluginModel;
+import com.alipay.sofa.ark.container.service.ArkServiceContainerHolder;
+import com.alipay.sofa.ark.container.service.classloader.PluginClassLoader;
+import com.alipay.sofa.ark.container.testdata.activator.PluginActivatorA;
+import com.alipay.sofa.ark.exception.ArkRuntimeException;
+import com.alipay.sofa.ark.spi.constant.Constants;
+import com.alipay.sofa.ark.spi.model.Plugin;
+import com.alipay.sofa.ark.spi.service.plugin.PluginDeployService;
+import com.alipay.sofa.ark.spi.service.plugin.PluginManagerService;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * @author ruoshan
+ * @since 1.1.7
+ */
+public class PluginDeployServiceTest extends BaseTest {
+
+    private URL                  classPathURL = PluginDeployServiceTest.class.getClassLoader()
+                                                  .getResource("");
+
+    private PluginManagerService pluginManagerService;
+
+    private PluginDeployService  pluginDeployService;
+
+    @Before
+    public void before() {
+        super.before();
+        pluginManagerService = ArkServiceContainerHolder.getContainer().getService(
+            PluginManagerService.class);
+        pluginDeployService = ArkServiceContainerHolder.getContainer().getService(
+            PluginDeployService.class);
+        System.setProperty(Constants.PLUGIN_DEPLOY_PARALLEL_ENABLE, "true");
+    }
+
+    @After
+    public void after() {
+        System.clearProperty(Constants.PLUGIN_DEPLOY_PARALLEL_ENABLE);
+        super.after();
+    }
+
+    @Test
+    public void testPluginDependencyGraph() {
+        PluginModel pluginA = createPlugin("plugin A", "100", null).setExportPackages("a.b.*")
+            .setExportResources("META-INF/a/*");
+        PluginModel pluginB = createPlugin("plugin B", "100", null).setImportClasses("a.b.c.D");
+        PluginModel pluginC = createPlugin("plugin C", "100", null).setImportPackages("a.c");
+        PluginModel pluginD = createPlugin("plugin D", "100", null).setImportResources(
+            "META-INF/a/d.properties");
+        PluginModel pluginE = createPlugin("plugin E", "200", null);
+        PluginModel pluginF = createPlugin("plugin F", "300", null);
+
+        PluginDependencyGraph dependencyGraph = PluginDependencyGraph.build(Arrays.<Plugin> asList(
+            pluginA, pluginB, pluginC, pluginD, pluginE, pluginF));
+        Assert.assertTrue(dependencyGraph.getDependencies(pluginA).isEmpty());
+        Assert.assertEquals(Collections.singletonList(pluginA),
+            dependencyGraph.getDependencies(pluginB));
+        Assert.assertTrue(dependencyGraph.getDependencies(pluginC).isEmpty());
+        Assert.assertEquals(Collections.singletonList(pluginA),
+            dependencyGraph.getDependencies(pluginD));
+        // plugins of different priority start in priority order without any import
+        Assert.assertEquals(Arrays.<Plugin> asList(pluginA, pluginB, pluginC, pluginD),
+            dependencyGraph.getDependencies(pluginE));
+        Assert.assertEquals(Collections.singletonList(pluginE),
+            dependencyGraph.getDependencies(pluginF));
+
+        // plugin given first starts first even if it is the importer
+        dependencyGraph = PluginDependencyGraph.build(Arrays.<Plugin> asList(pluginB, pluginA));
+        Assert.assertEquals(Collections.singletonList(pluginB),
+            dependencyGraph.getDependencies(pluginA));
+    }
+
+    @Test
+    public void testDeployInParallel() {
+        pluginManagerService.registerPlugin(createPlugin("plugin A", "100",
+            PluginActivatorA.class.getName()).setExportPackages("a.b.*"));
+        pluginManagerService.registerPlugin(createPlugin("plugin B", "200",
+            PluginActivatorA.class.getName()).setImportPackages("a.b"));
+        pluginManagerService.registerPlugin(createPlugin("plugin C", "300",
+            PluginActivatorA.class.getName()));
+        pluginDeployService.deploy();
+
+        Assert.assertEquals(3, ((PluginDeployServiceImpl) pluginDeployService)
+            .getPluginStartupCosts().size());
+    }
+
+    @Test
+    public void testDeployInParallelFailed() {
+        pluginManagerService
+            .registerPlugin(createPlugin("plugin A", "100",
+                "com.alipay.sofa.ark.container.testdata.activator.NotExist").setExportPackages(
+                "a.b.*"));
+        pluginManagerService.registerPlugin(createPlugin("plugin B", "200",
+            PluginActivatorA.class.getName()).setImportPackages("a.b"));
+        try {
+            pluginDeployService.deploy();
+            Assert.fail();
+        } catch (ArkRuntimeException e) {
+            // expected
+        }
+        Assert.assertFalse(((PluginDeployServiceImpl) pluginDeployService).getPluginStartupCosts()
+            .containsKey("plugin A"));
+        Assert.assertFalse(((PluginDeployServiceImpl) pluginDeployService).getPluginStartupCosts()
+            .containsKey("plugin B"));
+    }
+
+    private PluginModel createPlugin(String pluginName, String priority, String activator) {
+        PluginModel plugin = new PluginModel();
+        plugin.setPluginName(pluginName).setPriority(priority)
+            .setClassPath(new URL[] { classPathURL }).setPluginActivator(activator)
+            .setImportClasses(StringUtils.EMPTY_STRING).setImportPackages(StringUtils.EMPTY_STRING)
+            .setImportResources(StringUtils.EMPTY_STRING)
+            .setExportClasses(StringUtils.EMPTY_STRING).setExportPackages(StringUtils.EMPTY_STRING)
+            .setExportResources(StringUtils.EMPTY_STRING)
+            .setPluginClassLoader(new PluginClassLoader(pluginName, plugin.getClassPath()))
+            .setPluginContext(new PluginContextImpl(plugin));
+        return plugin;
+    }
+}
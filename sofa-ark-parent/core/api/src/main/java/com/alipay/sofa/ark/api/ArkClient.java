@@ -18,12 +18,15 @@ package com.alipay.sofa.ark.api;
 
 import com.alipay.sofa.ark.common.log.ArkLogger;
 import com.alipay.sofa.ark.common.log.ArkLoggerFactory;
+import com.alipay.sofa.ark.common.thread.CommonThreadPool;
 import com.alipay.sofa.ark.common.util.AssertUtils;
 import com.alipay.sofa.ark.common.util.BizIdentityUtils;
+import com.alipay.sofa.ark.common.util.FileDownloader;
 import com.alipay.sofa.ark.common.util.FileUtils;
 import com.alipay.sofa.ark.common.util.StringUtils;
 import com.alipay.sofa.ark.spi.constant.Constants;
 import com.alipay.sofa.ark.spi.event.biz.AfterBizSwitchEvent;
+import com.alipay.sofa.ark.spi.event.biz.BeforeBizRecycleEvent;
 import com.alipay.sofa.ark.spi.event.biz.BeforeBizSwitchEvent;
 import com.alipay.sofa.ark.spi.model.Biz;
 import com.alipay.sofa.ark.spi.model.BizInfo;
@@ -37,12 +40,17 @@ import com.alipay.sofa.ark.spi.service.event.EventAdminService;
 import com.alipay.sofa.ark.spi.service.injection.InjectionService;
 
 import java.io.File;
+import java.io.IOException;
 import java.net.URL;
 import java.text.SimpleDateFormat;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
 
 /**
  * API used to operate biz
@@ -153,17 +161,66 @@ public class ArkClient {
 
     public static ClientResponse installBiz(File bizFile, String[] args) throws Throwable {
         AssertUtils.assertNotNull(bizFactoryService, "bizFactoryService must not be null!");
-        AssertUtils.assertNotNull(bizManagerService, "bizFactoryService must not be null!");
+        AssertUtils.assertNotNull(bizManagerService, "bizManagerService must not be null!");
         AssertUtils.assertNotNull(bizFile, "bizFile must not be null!");
 
         Biz biz = bizFactoryService.createBiz(bizFile);
-        ClientResponse response = new ClientResponse();
+        ClientResponse response = registerBiz(biz);
+        if (response != null) {
+            return response;
+        }
+        return startBiz(biz, args);
+    }
+
+    /**
+     * Install biz throw file asynchronously, see {@link #installBizAsync(File, String[])}
+     *
+     * @param bizFile
+     * @return install future
+     */
+    public static BizInstallFuture installBizAsync(File bizFile) {
+        return installBizAsync(bizFile, arguments);
+    }
+
+    /**
+     * Install biz throw file asynchronously on the bounded biz install executor. The
+     * returned future is completed with the response {@link #installBiz(File, String[])}
+     * would return, or exceptionally if the install throws or the executor is full.
+     *
+     * @param bizFile
+     * @param args
+     * @return install future
+     */
+    public static BizInstallFuture installBizAsync(File bizFile, String[] args) {
+        return installBizAsync(bizFile, args, null);
+    }
+
+    /**
+     * Install biz throw file asynchronously, the listener is added before the install is
+     * submitted so that it is notified of every phase
+     *
+     * @param bizFile
+     * @param args
+     * @param listener phase listener, may be null
+     * @return install future
+     */
+    public static BizInstallFuture installBizAsync(File bizFile, String[] args,
+                                                   BizInstallFuture.PhaseListener listener) {
+        AssertUtils.assertNotNull(bizFile, "bizFile must not be null!");
+        return submitInstall(null, bizFile, args, listener);
+    }
+
+    private static ClientResponse registerBiz(Biz biz) {
         if (bizManagerService.getBizByIdentity(biz.getIdentity()) != null
             || !bizManagerService.registerBiz(biz)) {
-            return response.setCode(ResponseCode.REPEAT_BIZ).setMessage(
+            return new ClientResponse().setCode(ResponseCode.REPEAT_BIZ).setMessage(
                 String.format("Biz: %s has been installed or registered.", biz.getIdentity()));
         }
+        return null;
+    }
 
+    private static ClientResponse startBiz(Biz biz, String[] args) throws Throwable {
+        ClientResponse response = new ClientResponse();
         try {
             biz.start(args);
             response.setCode(ResponseCode.SUCCESS)
@@ -187,6 +244,76 @@ public class ArkClient {
         }
     }
 
+    private static BizInstallFuture submitInstall(final BizOperation bizOperation,
+                                                  final File bizFile, final String[] args,
+                                                  BizInstallFuture.PhaseListener listener) {
+        AssertUtils.assertNotNull(bizFactoryService, "bizFactoryService must not be null!");
+        AssertUtils.assertNotNull(bizManagerService, "bizManagerService must not be null!");
+        final BizInstallFuture future = new BizInstallFuture();
+        if (listener != null) {
+            future.addPhaseListener(listener);
+        }
+        try {
+            InstallExecutorHolder.EXECUTOR.execute(new Runnable() {
+                @Override
+                public void run() {
+                    doInstall(future, bizOperation, bizFile, args);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            future.completeExceptionally(ex);
+        }
+        return future;
+    }
+
+    private static void doInstall(BizInstallFuture future, BizOperation bizOperation, File bizFile,
+                                  String[] args) {
+        File downloadedFile = null;
+        try {
+            if (bizOperation != null
+                && bizOperation.getParameters().get(Constants.CONFIG_BIZ_URL) != null) {
+                if (!future.enter(BizInstallFuture.Phase.DOWNLOAD)) {
+                    return;
+                }
+                bizFile = downloadedFile = downloadBiz(bizOperation);
+            }
+            if (!future.enter(BizInstallFuture.Phase.RESOLVE)) {
+                deleteDownloadedFile(downloadedFile);
+                return;
+            }
+            AssertUtils.assertNotNull(bizFile, "bizFile must not be null!");
+            Biz biz = bizFactoryService.createBiz(bizFile);
+            ClientResponse response = registerBiz(biz);
+            if (response != null) {
+                future.complete(response);
+                return;
+            }
+            if (!future.enter(BizInstallFuture.Phase.START)) {
+                LOGGER.info(String.format("Install Biz: %s is cancelled.", biz.getIdentity()));
+                // the biz never started, so it is not stopped but only recycled
+                bizManagerService.unRegisterBizStrictly(biz.getBizName(), biz.getBizVersion());
+                if (eventAdminService != null) {
+                    eventAdminService.sendEvent(new BeforeBizRecycleEvent(biz));
+                }
+                deleteDownloadedFile(downloadedFile);
+                return;
+            }
+            response = startBiz(biz, args);
+            if (ResponseCode.SUCCESS.equals(response.getCode())) {
+                future.enter(BizInstallFuture.Phase.ACTIVATED);
+            }
+            future.complete(response);
+        } catch (Throwable throwable) {
+            future.completeExceptionally(throwable);
+        }
+    }
+
+    private static void deleteDownloadedFile(File downloadedFile) {
+        if (downloadedFile != null && downloadedFile.exists() && !downloadedFile.delete()) {
+            LOGGER.warn(String.format("Failed to delete biz file: %s", downloadedFile));
+        }
+    }
+
     /**
      * Uninstall biz.
      *
@@ -197,7 +324,7 @@ public class ArkClient {
      */
     public static ClientResponse uninstallBiz(String bizName, String bizVersion) throws Throwable {
         AssertUtils.assertNotNull(bizFactoryService, "bizFactoryService must not be null!");
-        AssertUtils.assertNotNull(bizManagerService, "bizFactoryService must not be null!");
+        AssertUtils.assertNotNull(bizManagerService, "bizManagerService must not be null!");
         AssertUtils.assertNotNull(bizName, "bizName must not be null!");
         AssertUtils.assertNotNull(bizVersion, "bizVersion must not be null!");
 
@@ -257,7 +384,7 @@ public class ArkClient {
      */
     public static ClientResponse checkBiz(String bizName, String bizVersion) {
         AssertUtils.assertNotNull(bizFactoryService, "bizFactoryService must not be null!");
-        AssertUtils.assertNotNull(bizManagerService, "bizFactoryService must not be null!");
+        AssertUtils.assertNotNull(bizManagerService, "bizManagerService must not be null!");
 
         ClientResponse response = new ClientResponse();
         Set<BizInfo> bizInfoSet = new HashSet<>();
@@ -293,7 +420,7 @@ public class ArkClient {
      */
     public static ClientResponse switchBiz(String bizName, String bizVersion) {
         AssertUtils.assertNotNull(bizFactoryService, "bizFactoryService must not be null!");
-        AssertUtils.assertNotNull(bizManagerService, "bizFactoryService must not be null!");
+        AssertUtils.assertNotNull(bizManagerService, "bizManagerService must not be null!");
         AssertUtils.assertNotNull(bizName, "bizName must not be null!");
         AssertUtils.assertNotNull(bizVersion, "bizVersion must not be null!");
         Biz biz = bizManagerService.getBiz(bizName, bizVersion);
@@ -330,14 +457,62 @@ public class ArkClient {
             "Operation type must be install");
         File bizFile = null;
         if (bizOperation.getParameters().get(Constants.CONFIG_BIZ_URL) != null) {
-            URL url = new URL(bizOperation.getParameters().get(Constants.CONFIG_BIZ_URL));
-            bizFile = ArkClient.createBizSaveFile(bizOperation.getBizName(),
-                bizOperation.getBizVersion());
-            FileUtils.copyInputStreamToFile(url.openStream(), bizFile);
+            bizFile = downloadBiz(bizOperation);
         }
         return installBiz(bizFile, args);
     }
 
+    public static BizInstallFuture installOperationAsync(BizOperation bizOperation) {
+        return installOperationAsync(bizOperation, arguments);
+    }
+
+    /**
+     * Install operation asynchronously, biz file is downloaded on the biz install executor
+     * as well, see {@link #installBizAsync(File, String[])}
+     *
+     * @param bizOperation
+     * @param args
+     * @return install future
+     */
+    public static BizInstallFuture installOperationAsync(BizOperation bizOperation, String[] args) {
+        return installOperationAsync(bizOperation, args, null);
+    }
+
+    public static BizInstallFuture installOperationAsync(BizOperation bizOperation, String[] args,
+                                                         BizInstallFuture.PhaseListener listener) {
+        AssertUtils.isTrue(
+            BizOperation.OperationType.INSTALL.equals(bizOperation.getOperationType()),
+            "Operation type must be install");
+        return submitInstall(bizOperation, null, args, listener);
+    }
+
+    /**
+     * Download biz file of install operation, the part file is named after the biz so that
+     * a failed download is resumed by the next install of the same biz
+     *
+     * @param bizOperation
+     * @return biz file
+     * @throws IOException
+     */
+    static File downloadBiz(BizOperation bizOperation) throws IOException {
+        Map<String, String> parameters = bizOperation.getParameters();
+        URL url = new URL(parameters.get(Constants.CONFIG_BIZ_URL));
+        File bizFile = ArkClient.createBizSaveFile(bizOperation.getBizName(),
+            bizOperation.getBizVersion());
+        File partFile = new File(bizInstallDirectory, bizOperation.getBizName() + "-"
+                                                      + bizOperation.getBizVersion() + ".part");
+        new FileDownloader()
+            .setChunkSize(
+                ArkConfigs.getIntValue(Constants.BIZ_DOWNLOAD_CHUNK_SIZE,
+                    Constants.DEFAULT_BIZ_DOWNLOAD_CHUNK_SIZE))
+            .setParallelism(
+                ArkConfigs.getIntValue(Constants.BIZ_DOWNLOAD_PARALLELISM,
+                    Constants.DEFAULT_BIZ_DOWNLOAD_PARALLELISM))
+            .download(url, partFile, bizFile, parameters.get(Constants.CONFIG_BIZ_SHA256),
+                parameters.get(Constants.CONFIG_BIZ_CRC32));
+        return bizFile;
+    }
+
     public static ClientResponse uninstallOperation(BizOperation bizOperation) throws Throwable {
         AssertUtils.isTrue(
             BizOperation.OperationType.UNINSTALL.equals(bizOperation.getOperationType()),
@@ -359,6 +534,23 @@ public class ArkClient {
         return checkBiz(bizOperation.getBizName(), bizOperation.getBizVersion());
     }
 
+    /**
+     * Execute install, uninstall, switch and check operations as a batch, see
+     * {@link BizOperationBatch}. Unlike executing operations one by one, biz files are
+     * downloaded in parallel and operations of different biz are executed concurrently.
+     *
+     * @param bizOperations
+     * @return response of each operation in the given order
+     * @throws com.alipay.sofa.ark.exception.ArkRuntimeException if any operation throws
+     */
+    public static List<ClientResponse> batchOperation(List<BizOperation> bizOperations) {
+        AssertUtils.assertNotNull(bizFactoryService, "bizFactoryService must not be null!");
+        AssertUtils.assertNotNull(bizManagerService, "bizManagerService must not be null!");
+        int poolSize = Math.max(1, ArkConfigs.getIntValue(Constants.BIZ_OPERATION_BATCH_POOL_SIZE,
+            Runtime.getRuntime().availableProcessors()));
+        return new BizOperationBatch(bizOperations).execute(poolSize);
+    }
+
     /**
      * dynamic invoke by specified version
      * @param version
@@ -374,4 +566,22 @@ public class ArkClient {
         }
     }
 
-}
\ No newline at end of file
+    /**
+     * Executor of asynchronous biz install, created on first use. Both threads and queue
+     * are bounded, installs submitted when it is full are rejected.
+     */
+    private static class InstallExecutorHolder {
+        private static final ThreadPoolExecutor EXECUTOR;
+
+        static {
+            int poolSize = ArkConfigs.getIntValue(Constants.BIZ_INSTALL_ASYNC_POOL_SIZE,
+                Constants.DEFAULT_BIZ_INSTALL_ASYNC_POOL_SIZE);
+            int queueSize = ArkConfigs.getIntValue(Constants.BIZ_INSTALL_ASYNC_QUEUE_SIZE,
+                Constants.DEFAULT_BIZ_INSTALL_ASYNC_QUEUE_SIZE);
+            EXECUTOR = new CommonThreadPool().setCorePoolSize(poolSize)
+                .setMaximumPoolSize(poolSize).setQueueSize(queueSize)
+                .setAllowCoreThreadTimeOut(true).setThreadPoolName("ark-biz-install")
+                .setDaemon(true).getExecutor();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.ark.api;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Future of an asynchronous biz install, completed with the same {@link ClientResponse}
+ * the synchronous install returns. The install goes through {@link Phase#DOWNLOAD},
+ * {@link Phase#RESOLVE}, {@link Phase#START} and {@link Phase#ACTIVATED}, the current
+ * phase can be polled or listened. It can only be cancelled before the biz is started,
+ * a cancelled install unregisters the biz it has resolved.
+ *
+ * @author ruoshan
+ * @since 1.1.7
+ */
+public class BizInstallFuture extends CompletableFuture<ClientResponse> {
+
+    private final List<PhaseListener> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile Phase            phase;
+
+    /**
+     * Get the phase the install has entered
+     * @return current phase, null if the install has not begun
+     */
+    public Phase getPhase() {
+        return phase;
+    }
+
+    /**
+     * Add listener notified when the install enters a phase, it is called by the install
+     * thread, or at once with the current phase if the install has already begun
+     * @param listener phase listener
+     * @return this future
+     */
+    public BizInstallFuture addPhaseListener(PhaseListener listener) {
+        listeners.add(listener);
+        Phase current = phase;
+        if (current != null) {
+            listener.onPhase(this, current);
+        }
+        return this;
+    }
+
+    /**
+     * Cancel the install, which only takes effect before the biz is started
+     * @param mayInterruptIfRunning ignored, the install thread is never interrupted
+     * @return whether the install is cancelled
+     */
+    @Override
+    public synchronized boolean cancel(boolean mayInterruptIfRunning) {
+        if (phase == Phase.START || phase == Phase.ACTIVATED) {
+            return false;
+        }
+        return super.cancel(mayInterruptIfRunning);
+    }
+
+    /**
+     * Enter next phase of the install
+     * @param next next phase
+     * @return false if the future is already done or cancelled by the listeners
+     */
+    boolean enter(Phase next) {
+        synchronized (this) {
+            if (isDone()) {
+                return false;
+            }
+            phase = next;
+        }
+        for (PhaseListener listener : listeners) {
+            listener.onPhase(this, next);
+        }
+        // listener may cancel the install as well
+        return !isCancelled();
+    }
+
+    public enum Phase {
+        /**
+         * downloading biz file from the url of install operation
+         */
+        DOWNLOAD,
+
+        /**
+         * creating and registering biz from biz file
+         */
+        RESOLVE,
+
+        /**
+         * starting biz, the install can't be cancelled since then
+         */
+        START,
+
+        /**
+         * biz is started successfully
+         */
+        ACTIVATED
+    }
+
+    public interface PhaseListener {
+        /**
+         * Called when the install enters a phase
+         * @param future future of the install, which may be cancelled by the listener
+         * @param phase phase entered
+         */
+        void onPhase(BizInstallFuture future, Phase phase);
+    }
+}
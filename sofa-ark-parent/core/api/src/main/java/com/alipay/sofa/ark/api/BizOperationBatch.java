@@ -0,0 +1,218 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.ark.api;
+
+import com.alipay.sofa.ark.common.log.ArkLogger;
+import com.alipay.sofa.ark.common.log.ArkLoggerFactory;
+import com.alipay.sofa.ark.common.thread.CommonThreadPool;
+import com.alipay.sofa.ark.exception.ArkRuntimeException;
+import com.alipay.sofa.ark.spi.constant.Constants;
+import com.alipay.sofa.ark.spi.model.BizOperation;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Execution plan of a batch of biz operations. Operations of the same biz name depend on
+ * each other, such as installing a new version and switching to it, so they form a chain
+ * executed in the given order, while chains of different biz name are independent. The
+ * plan downloads every biz file in parallel first, then executes the chains concurrently,
+ * so installs, uninstalls and switches of different biz overlap up to the pool size.
+ * Biz main methods still run one at a time, see {@code BizModel#start}, as they read and
+ * write JVM global system properties.
+ *
+ * <p>Failures are reported the way executing the operations one by one does: a failed
+ * response does not stop the operations after it, while an operation which throws, a
+ * failed download included, fails the whole batch with {@link ArkRuntimeException}. The
+ * only difference is that operations of other biz which are already executing, or were
+ * executed before the failure was noticed, are not rolled back, even if they come after
+ * the failed operation in the given order.</p>
+ *
+ * @author ruoshan
+ * @since 1.1.7
+ */
+public class BizOperationBatch {
+
+    private static final ArkLogger           LOGGER = ArkLoggerFactory.getDefaultLogger();
+
+    private final List<BizOperation>         bizOperations;
+
+    private final Map<String, List<Integer>> chains;
+
+    private final File[]                     bizFiles;
+
+    private final ClientResponse[]           responses;
+
+    private final Throwable[]                failures;
+
+    private volatile boolean                 failed;
+
+    public BizOperationBatch(List<BizOperation> bizOperations) {
+        this.bizOperations = bizOperations;
+        this.chains = new LinkedHashMap<>();
+        this.bizFiles = new File[bizOperations.size()];
+        this.responses = new ClientResponse[bizOperations.size()];
+        this.failures = new Throwable[bizOperations.size()];
+        for (int i = 0; i < bizOperations.size(); ++i) {
+            String bizName = bizOperations.get(i).getBizName();
+            List<Integer> chain = chains.get(bizName);
+            if (chain == null) {
+                chain = new ArrayList<>();
+                chains.put(bizName, chain);
+            }
+            chain.add(i);
+        }
+    }
+
+    /**
+     * Execute the batch, once an operation throws no more operations are begun
+     * @param poolSize max number of operations executed concurrently
+     * @return response of each operation in the given order
+     * @throws ArkRuntimeException caused by the first operation in the given order which
+     * throws
+     */
+    public List<ClientResponse> execute(int poolSize) {
+        ThreadPoolExecutor executor = new CommonThreadPool().setCorePoolSize(poolSize)
+            .setMaximumPoolSize(poolSize).setQueueSize(-1).setThreadPoolName("BizOperation")
+            .setDaemon(true).getExecutor();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < bizOperations.size(); ++i) {
+                if (needDownload(bizOperations.get(i))) {
+                    futures.add(executor.submit(new DownloadTask(i)));
+                }
+            }
+            awaitAll(futures);
+
+            futures.clear();
+            for (List<Integer> chain : chains.values()) {
+                futures.add(executor.submit(new ChainTask(chain)));
+            }
+            awaitAll(futures);
+        } finally {
+            executor.shutdown();
+        }
+        for (Throwable failure : failures) {
+            if (failure != null) {
+                throw new ArkRuntimeException("Failed to execute biz operations.", failure);
+            }
+        }
+        return Arrays.asList(responses);
+    }
+
+    private boolean needDownload(BizOperation bizOperation) {
+        return BizOperation.OperationType.INSTALL.equals(bizOperation.getOperationType())
+               && bizOperation.getParameters().get(Constants.CONFIG_BIZ_URL) != null;
+    }
+
+    private void awaitAll(List<Future<?>> futures) {
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ArkRuntimeException("Interrupted while executing biz operations", e);
+            } catch (ExecutionException e) {
+                throw new ArkRuntimeException("Failed to execute biz operations.", e.getCause());
+            }
+        }
+    }
+
+    private ClientResponse executeOperation(int index) throws Throwable {
+        BizOperation bizOperation = bizOperations.get(index);
+        LOGGER.info("Execute biz operation: {} {}:{}", bizOperation.getOperationType().name(),
+            bizOperation.getBizName(), bizOperation.getBizVersion());
+        switch (bizOperation.getOperationType()) {
+            case INSTALL:
+                if (bizFiles[index] != null) {
+                    return ArkClient.installBiz(bizFiles[index], ArkClient.getArguments());
+                }
+                return ArkClient.installOperation(bizOperation);
+            case UNINSTALL:
+                return ArkClient.uninstallOperation(bizOperation);
+            case SWITCH:
+                return ArkClient.switchOperation(bizOperation);
+            case CHECK:
+                return ArkClient.checkOperation(bizOperation);
+            default:
+                throw new ArkRuntimeException(String.format("Don't support operation: %s.",
+                    bizOperation.getOperationType()));
+        }
+    }
+
+    private String describe(int index) {
+        BizOperation bizOperation = bizOperations.get(index);
+        return String.format("%s %s:%s", bizOperation.getOperationType(),
+            bizOperation.getBizName(), bizOperation.getBizVersion());
+    }
+
+    private class DownloadTask implements Runnable {
+        private final int index;
+
+        DownloadTask(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public void run() {
+            try {
+                bizFiles[index] = ArkClient.downloadBiz(bizOperations.get(index));
+            } catch (Throwable throwable) {
+                // reported when the operation is reached, as if it was downloaded then
+                failures[index] = throwable;
+                LOGGER.error(String.format("Download biz of operation: %s fail.", describe(index)),
+                    throwable);
+            }
+        }
+    }
+
+    private class ChainTask implements Runnable {
+        private final List<Integer> chain;
+
+        ChainTask(List<Integer> chain) {
+            this.chain = chain;
+        }
+
+        @Override
+        public void run() {
+            for (int index : chain) {
+                if (failed) {
+                    return;
+                }
+                if (failures[index] == null) {
+                    try {
+                        responses[index] = executeOperation(index);
+                        continue;
+                    } catch (Throwable throwable) {
+                        failures[index] = throwable;
+                        LOGGER.error(String.format("Execute operation: %s fail.", describe(index)),
+                            throwable);
+                    }
+                }
+                failed = true;
+                return;
+            }
+        }
+    }
+}
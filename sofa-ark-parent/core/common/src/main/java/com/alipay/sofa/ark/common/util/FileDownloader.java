@@ -0,0 +1,442 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.ark.common.util;
+
+import com.alipay.sofa.ark.common.thread.CommonThreadPool;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.zip.CRC32;
+
+/**
+ * Download file from url into a part file, then move it to the destination once it is
+ * complete and verified. When a http(s) server reports the length, accepts byte ranges
+ * and provides an ETag or Last-Modified, the file is downloaded in chunks concurrently,
+ * and the finished chunks are recorded in a progress file next to the part file, so a
+ * failed download resumes from the chunks left. Chunk requests are conditional on the
+ * strong ETag, or Last-Modified without one, seen at the start, so chunks of a file
+ * changed meanwhile are never mixed. Other urls, such as file urls, are copied in a
+ * single stream. Bytes are written by channel transfers without copying through heap
+ * buffers. Only one download of a part file may run at a time in the process, a
+ * concurrent one fails fast.
+ *
+ * @author ruoshan
+ * @since 1.1.7
+ */
+public class FileDownloader {
+
+    private static final String      PROGRESS_SUFFIX     = ".progress";
+
+    private static final String      PROGRESS_LENGTH     = "length";
+
+    private static final String      PROGRESS_CHUNK_SIZE = "chunkSize";
+
+    private static final String      PROGRESS_VALIDATOR  = "validator";
+
+    private static final String      PROGRESS_CHUNKS     = "chunks";
+
+    private static final int         BUFFER_SIZE         = 64 * 1024;
+
+    /**
+     * canonical paths of part files being downloaded
+     */
+    private static final Set<String> DOWNLOADING;
+
+    static {
+        DOWNLOADING = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    }
+
+    private int                      chunkSize           = 4 * 1024 * 1024;
+
+    private int                      parallelism         = 4;
+
+    private int                      connectTimeout      = 20000;
+
+    private int                      readTimeout         = 60000;
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public FileDownloader setChunkSize(int chunkSize) {
+        AssertUtils.isTrue(chunkSize > 0, "Chunk size must be positive: %d", chunkSize);
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public FileDownloader setParallelism(int parallelism) {
+        AssertUtils.isTrue(parallelism > 0, "Parallelism must be positive: %d", parallelism);
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    public int getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public FileDownloader setConnectTimeout(int connectTimeout) {
+        this.connectTimeout = connectTimeout;
+        return this;
+    }
+
+    public int getReadTimeout() {
+        return readTimeout;
+    }
+
+    public FileDownloader setReadTimeout(int readTimeout) {
+        this.readTimeout = readTimeout;
+        return this;
+    }
+
+    /**
+     * Download url to destination
+     * @param url http(s) or file url
+     * @param partFile file which keeps the bytes downloaded, the same part file must be
+     *                 given to resume a failed download
+     * @param destination file the part file is moved to once it is verified
+     * @param sha256 expected SHA-256 of the file in hex, not verified if null
+     * @param crc32 expected CRC-32 of the file in hex, not verified if null
+     * @throws IOException if download fails or the file doesn't match the checksums, the
+     *                     part file is kept for resume in the former case only, or if the
+     *                     part file is being downloaded by another thread
+     */
+    public void download(URL url, File partFile, File destination, String sha256, String crc32)
+                                                                                               throws IOException {
+        String key = partFile.getCanonicalPath();
+        if (!DOWNLOADING.add(key)) {
+            throw new IOException(String.format("Download to %s is already in progress", partFile));
+        }
+        try {
+            doDownload(url, partFile, destination, sha256, crc32);
+        } finally {
+            DOWNLOADING.remove(key);
+        }
+    }
+
+    private void doDownload(URL url, File partFile, File destination, String sha256, String crc32)
+                                                                                                  throws IOException {
+        File progressFile = new File(partFile.getPath() + PROGRESS_SUFFIX);
+        File parent = partFile.getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+
+        URLConnection connection = url.openConnection();
+        if (connection instanceof HttpURLConnection) {
+            HttpURLConnection head = (HttpURLConnection) connection;
+            configure(head);
+            head.setRequestMethod("HEAD");
+            long length = head.getContentLengthLong();
+            String validator = getValidator(head);
+            boolean ranged = head.getResponseCode() == HttpURLConnection.HTTP_OK
+                             && "bytes".equalsIgnoreCase(head.getHeaderField("Accept-Ranges"));
+            head.disconnect();
+            if (ranged && length > 0 && validator != null) {
+                downloadInChunks(url, partFile, progressFile, length, validator);
+            } else {
+                downloadInStream(url.openConnection(), partFile, progressFile);
+            }
+        } else {
+            downloadInStream(connection, partFile, progressFile);
+        }
+
+        try {
+            verify(partFile, sha256, crc32);
+        } catch (IOException ex) {
+            partFile.delete();
+            throw ex;
+        }
+        Files.move(partFile.toPath(), destination.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        progressFile.delete();
+    }
+
+    private void configure(URLConnection connection) {
+        connection.setConnectTimeout(connectTimeout);
+        connection.setReadTimeout(readTimeout);
+    }
+
+    private void downloadInStream(URLConnection connection, File partFile, File progressFile)
+                                                                                             throws IOException {
+        progressFile.delete();
+        configure(connection);
+        try (InputStream inputStream = connection.getInputStream();
+                ReadableByteChannel source = Channels.newChannel(inputStream);
+                FileChannel target = new FileOutputStream(partFile).getChannel()) {
+            long position = 0;
+            long transferred;
+            while ((transferred = target.transferFrom(source, position, BUFFER_SIZE)) > 0) {
+                position += transferred;
+            }
+        }
+    }
+
+    private void downloadInChunks(final URL url, File partFile, File progressFile,
+                                  final long length, final String validator) throws IOException {
+        final Progress progress = Progress.load(progressFile, length, chunkSize, validator);
+        int chunkCount = (int) ((length + chunkSize - 1) / chunkSize);
+        ThreadPoolExecutor executor = new CommonThreadPool().setCorePoolSize(parallelism)
+            .setMaximumPoolSize(parallelism).setQueueSize(-1).setThreadPoolName("FileDownload")
+            .setDaemon(true).getExecutor();
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(partFile, "rw")) {
+            if (progress.isEmpty() || randomAccessFile.length() != length) {
+                progress.clear();
+                randomAccessFile.setLength(length);
+            }
+            final FileChannel target = randomAccessFile.getChannel();
+            List<Future<Void>> futures = new ArrayList<>(chunkCount);
+            for (int i = 0; i < chunkCount; ++i) {
+                if (progress.isDone(i)) {
+                    continue;
+                }
+                final int chunk = i;
+                final long start = (long) chunk * chunkSize;
+                final long end = Math.min(length, start + chunkSize);
+                futures.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws IOException {
+                        downloadChunk(url, validator, length, target, start, end);
+                        progress.markDone(chunk);
+                        return null;
+                    }
+                }));
+            }
+            IOException failure = null;
+            for (Future<Void> future : futures) {
+                try {
+                    future.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while downloading " + url, e);
+                } catch (ExecutionException e) {
+                    if (failure == null) {
+                        failure = new IOException("Failed to download " + url, e.getCause());
+                    } else {
+                        failure.addSuppressed(e.getCause());
+                    }
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private void downloadChunk(URL url, String validator, long length, FileChannel target,
+                               long start, long end) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        configure(connection);
+        String range = start + "-" + (end - 1);
+        connection.setRequestProperty("Range", "bytes=" + range);
+        // server responds the whole file instead of the range if it has changed
+        connection.setRequestProperty("If-Range", validator);
+        try {
+            if (connection.getResponseCode() != HttpURLConnection.HTTP_PARTIAL) {
+                throw new IOException(String.format(
+                    "Unexpected response code %d of range %s, file may have changed",
+                    connection.getResponseCode(), range));
+            }
+            String contentRange = connection.getHeaderField("Content-Range");
+            if (!("bytes " + range + "/" + length).equals(contentRange)) {
+                throw new IOException(String.format("Unexpected content range %s of range %s",
+                    contentRange, range));
+            }
+            try (InputStream inputStream = connection.getInputStream();
+                    ReadableByteChannel source = Channels.newChannel(inputStream)) {
+                long position = start;
+                while (position < end) {
+                    long transferred = target.transferFrom(source, position, end - position);
+                    if (transferred <= 0) {
+                        throw new IOException(String.format("Unexpected end of range %d-%d at %d",
+                            start, end - 1, position));
+                    }
+                    position += transferred;
+                }
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private void verify(File file, String sha256, String crc32) throws IOException {
+        if (sha256 == null && crc32 == null) {
+            return;
+        }
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+        CRC32 crc = new CRC32();
+        try (FileChannel channel = new FileInputStream(file).getChannel()) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                if (sha256 != null) {
+                    digest.update(buffer.duplicate());
+                }
+                crc.update(buffer);
+                buffer.clear();
+            }
+        }
+        if (sha256 != null && !sha256.trim().equalsIgnoreCase(toHex(digest.digest()))) {
+            throw new IOException(String.format("SHA-256 of %s doesn't match %s", file, sha256));
+        }
+        if (crc32 != null && parseCrc32(crc32) != crc.getValue()) {
+            throw new IOException(String.format("CRC-32 of %s doesn't match %s", file, crc32));
+        }
+    }
+
+    private static long parseCrc32(String crc32) throws IOException {
+        try {
+            return Long.parseLong(crc32.trim(), 16);
+        } catch (NumberFormatException ex) {
+            throw new IOException(String.format("Illegal CRC-32: %s", crc32), ex);
+        }
+    }
+
+    /**
+     * Get the validator of the remote file which chunk requests are conditional on, a
+     * strong ETag, or Last-Modified if there is none, as If-Range doesn't accept weak ETags
+     * @return validator, null if the server provides neither
+     */
+    private static String getValidator(HttpURLConnection connection) {
+        String etag = connection.getHeaderField("ETag");
+        if (etag != null && !etag.startsWith("W/")) {
+            return etag;
+        }
+        return connection.getHeaderField("Last-Modified");
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16));
+            sb.append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Chunks finished of a part file, which is only reused when the length, chunk size and
+     * validator of the remote file are unchanged
+     */
+    private static class Progress {
+        private final File       file;
+        private final Properties properties;
+        private final BitSet     chunks;
+
+        private Progress(File file, Properties properties, BitSet chunks) {
+            this.file = file;
+            this.properties = properties;
+            this.chunks = chunks;
+        }
+
+        static Progress load(File file, long length, int chunkSize, String validator) {
+            Properties expected = new Properties();
+            expected.setProperty(PROGRESS_LENGTH, String.valueOf(length));
+            expected.setProperty(PROGRESS_CHUNK_SIZE, String.valueOf(chunkSize));
+            expected.setProperty(PROGRESS_VALIDATOR, validator);
+            BitSet chunks = new BitSet();
+            if (file.isFile()) {
+                long count = (length + chunkSize - 1) / chunkSize;
+                Properties stored = new Properties();
+                try (InputStream inputStream = new FileInputStream(file)) {
+                    stored.load(inputStream);
+                    String done = (String) stored.remove(PROGRESS_CHUNKS);
+                    if (expected.equals(stored) && !StringUtils.isEmpty(done)) {
+                        for (String chunk : done.split(",")) {
+                            int index = Integer.parseInt(chunk.trim());
+                            if (index < 0 || index >= count) {
+                                throw new IOException(String.format("Illegal chunk %d in %s",
+                                    index, file));
+                            }
+                            chunks.set(index);
+                        }
+                    }
+                } catch (IOException | RuntimeException ex) {
+                    // corrupt or truncated progress, download from scratch
+                    chunks.clear();
+                }
+            }
+            return new Progress(file, expected, chunks);
+        }
+
+        synchronized boolean isEmpty() {
+            return chunks.isEmpty();
+        }
+
+        synchronized boolean isDone(int chunk) {
+            return chunks.get(chunk);
+        }
+
+        synchronized void clear() {
+            chunks.clear();
+            file.delete();
+        }
+
+        synchronized void markDone(int chunk) throws IOException {
+            chunks.set(chunk);
+            StringBuilder sb = new StringBuilder();
+            for (int i = chunks.nextSetBit(0); i >= 0; i = chunks.nextSetBit(i + 1)) {
+                if (sb.length() > 0) {
+                    sb.append(',');
+                }
+                sb.append(i);
+            }
+            Properties properties = new Properties();
+            properties.putAll(this.properties);
+            properties.setProperty(PROGRESS_CHUNKS, sb.toString());
+            try (OutputStream outputStream = new FileOutputStream(file)) {
+                properties.store(outputStream, null);
+            }
+        }
+    }
+}
@@ -0,0 +1,369 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.ark.common.util;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.CRC32;
+
+/**
+ * @author ruoshan
+ * @since 1.1.7
+ */
+public class FileDownloaderTest {
+
+    private static final int               CHUNK_SIZE    = 8192;
+
+    private final byte[]                   data          = new byte[100000];
+
+    private final Map<Long, AtomicInteger> rangeRequests = new ConcurrentHashMap<>();
+
+    private final Set<Long>                failOnce      = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean               acceptRanges  = true;
+
+    private volatile String                etag          = "\"v1\"";
+
+    private volatile String                lastModified  = "Mon, 01 Jan 2024 00:00:00 GMT";
+
+    private volatile boolean               changeOnHead;
+
+    private volatile CountDownLatch        chunkEntered;
+
+    private volatile CountDownLatch        chunkReleased;
+
+    private HttpServer                     server;
+
+    private URL                            url;
+
+    private File                           workDir;
+
+    @Before
+    public void before() throws IOException {
+        new Random(7).nextBytes(data);
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/biz.jar", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                serve(exchange);
+            }
+        });
+        server.start();
+        url = new URL("http://127.0.0.1:" + server.getAddress().getPort() + "/biz.jar");
+        workDir = Files.createTempDirectory("file-downloader").toFile();
+    }
+
+    @After
+    public void after() throws IOException {
+        server.stop(0);
+        org.apache.commons.io.FileUtils.deleteDirectory(workDir);
+    }
+
+    private void serve(HttpExchange exchange) throws IOException {
+        if (acceptRanges) {
+            exchange.getResponseHeaders().set("Accept-Ranges", "bytes");
+        }
+        if (etag != null) {
+            exchange.getResponseHeaders().set("ETag", etag);
+        }
+        exchange.getResponseHeaders().set("Last-Modified", lastModified);
+        if ("HEAD".equals(exchange.getRequestMethod())) {
+            exchange.getResponseHeaders().set("Content-Length", String.valueOf(data.length));
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+            if (changeOnHead) {
+                changeFile();
+            }
+            return;
+        }
+        String range = exchange.getRequestHeaders().getFirst("Range");
+        int start = 0;
+        int end = data.length;
+        int code = 200;
+        String ifRange = exchange.getRequestHeaders().getFirst("If-Range");
+        if (range != null && acceptRanges
+            && (ifRange == null || ifRange.equals(etag != null ? etag : lastModified))) {
+            String[] bounds = range.substring("bytes=".length()).split("-");
+            start = Integer.parseInt(bounds[0]);
+            end = Integer.parseInt(bounds[1]) + 1;
+            code = 206;
+            exchange.getResponseHeaders().set("Content-Range",
+                "bytes " + start + "-" + (end - 1) + "/" + data.length);
+            rangeRequests.putIfAbsent((long) start, new AtomicInteger());
+            rangeRequests.get((long) start).incrementAndGet();
+            if (failOnce.remove((long) start)) {
+                exchange.sendResponseHeaders(500, -1);
+                exchange.close();
+                return;
+            }
+            if (chunkEntered != null) {
+                chunkEntered.countDown();
+                try {
+                    chunkReleased.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+        exchange.sendResponseHeaders(code, end - start);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(data, start, end - start);
+        }
+    }
+
+    private void changeFile() {
+        new Random(lastModified.hashCode()).nextBytes(data);
+        etag = etag == null ? null : "\"v2\"";
+        lastModified = "Tue, 02 Jan 2024 00:00:00 GMT";
+    }
+
+    private FileDownloader newDownloader() {
+        return new FileDownloader().setChunkSize(CHUNK_SIZE).setParallelism(3);
+    }
+
+    private String sha256() throws Exception {
+        StringBuilder sb = new StringBuilder();
+        for (byte b : MessageDigest.getInstance("SHA-256").digest(data)) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+
+    private String crc32() {
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        return Long.toHexString(crc.getValue());
+    }
+
+    @Test
+    public void testDownloadInChunks() throws Exception {
+        File partFile = new File(workDir, "biz.part");
+        File destination = new File(workDir, "biz.jar");
+        newDownloader().download(url, partFile, destination, sha256(), crc32());
+
+        Assert.assertArrayEquals(data, Files.readAllBytes(destination.toPath()));
+        Assert.assertFalse(partFile.exists());
+        Assert.assertFalse(new File(workDir, "biz.part.progress").exists());
+        Assert.assertEquals((data.length + CHUNK_SIZE - 1) / CHUNK_SIZE, rangeRequests.size());
+    }
+
+    @Test
+    public void testResumeDownload() throws Exception {
+        File partFile = new File(workDir, "biz.part");
+        File destination = new File(workDir, "biz.jar");
+        failOnce.add((long) 2 * CHUNK_SIZE);
+        try {
+            newDownloader().download(url, partFile, destination, sha256(), null);
+            Assert.fail();
+        } catch (IOException ex) {
+            // expected
+        }
+        Assert.assertTrue(partFile.exists());
+        Assert.assertFalse(destination.exists());
+
+        newDownloader().download(url, partFile, destination, sha256(), null);
+        Assert.assertArrayEquals(data, Files.readAllBytes(destination.toPath()));
+        // only the failed chunk is downloaded again
+        Assert.assertEquals(1, rangeRequests.get(0L).get());
+        Assert.assertEquals(2, rangeRequests.get((long) 2 * CHUNK_SIZE).get());
+    }
+
+    @Test
+    public void testResumeWithCorruptProgress() throws Exception {
+        File partFile = new File(workDir, "biz.part");
+        File destination = new File(workDir, "biz.jar");
+        failOnce.add((long) 2 * CHUNK_SIZE);
+        try {
+            newDownloader().download(url, partFile, destination, sha256(), null);
+            Assert.fail();
+        } catch (IOException ex) {
+            // expected
+        }
+
+        File progressFile = new File(partFile.getPath() + ".progress");
+        for (String chunks : new String[] { "0,x,1", "0,1,100000", "-1" }) {
+            Properties properties = new Properties();
+            try (InputStream inputStream = new FileInputStream(progressFile)) {
+                properties.load(inputStream);
+            }
+            properties.setProperty("chunks", chunks);
+            try (OutputStream outputStream = new FileOutputStream(progressFile)) {
+                properties.store(outputStream, null);
+            }
+            rangeRequests.clear();
+            // the download restarts from scratch instead of failing on every resume
+            failOnce.add((long) 2 * CHUNK_SIZE);
+            try {
+                newDownloader().download(url, partFile, destination, sha256(), null);
+                Assert.fail();
+            } catch (IOException ex) {
+                // expected
+            }
+            Assert.assertEquals(1, rangeRequests.get(0L).get());
+        }
+
+        newDownloader().download(url, partFile, destination, sha256(), null);
+        Assert.assertArrayEquals(data, Files.readAllBytes(destination.toPath()));
+    }
+
+    @Test
+    public void testChecksumMismatch() throws Exception {
+        File partFile = new File(workDir, "biz.part");
+        File destination = new File(workDir, "biz.jar");
+        try {
+            newDownloader().download(url, partFile, destination, null, "0");
+            Assert.fail();
+        } catch (IOException ex) {
+            Assert.assertTrue(ex.getMessage().contains("CRC-32"));
+        }
+        Assert.assertFalse(partFile.exists());
+        Assert.assertFalse(destination.exists());
+    }
+
+    @Test
+    public void testDownloadInStream() throws Exception {
+        acceptRanges = false;
+        File destination = new File(workDir, "biz.jar");
+        newDownloader()
+            .download(url, new File(workDir, "biz.part"), destination, sha256(), crc32());
+        Assert.assertArrayEquals(data, Files.readAllBytes(destination.toPath()));
+        Assert.assertTrue(rangeRequests.isEmpty());
+
+        File copy = new File(workDir, "copy.jar");
+        newDownloader().download(destination.toURI().toURL(), new File(workDir, "copy.part"), copy,
+            sha256(), crc32());
+        Assert.assertArrayEquals(data, Files.readAllBytes(copy.toPath()));
+    }
+
+    @Test
+    public void testResumeAfterFileChangedWithoutEtag() throws Exception {
+        etag = null;
+        File partFile = new File(workDir, "biz.part");
+        File destination = new File(workDir, "biz.jar");
+        failOnce.add((long) 2 * CHUNK_SIZE);
+        try {
+            newDownloader().download(url, partFile, destination, null, null);
+            Assert.fail();
+        } catch (IOException ex) {
+            // expected
+        }
+
+        // progress of the old file is dropped as Last-Modified changes
+        changeFile();
+        newDownloader().download(url, partFile, destination, sha256(), null);
+        Assert.assertArrayEquals(data, Files.readAllBytes(destination.toPath()));
+        Assert.assertEquals(2, rangeRequests.get(0L).get());
+    }
+
+    @Test
+    public void testFileChangedDuringDownload() throws Exception {
+        changeOnHead = true;
+        File partFile = new File(workDir, "biz.part");
+        File destination = new File(workDir, "biz.jar");
+        try {
+            newDownloader().download(url, partFile, destination, null, null);
+            Assert.fail();
+        } catch (IOException ex) {
+            Assert.assertTrue(ex.getCause().getMessage().contains("file may have changed"));
+        }
+        Assert.assertFalse(destination.exists());
+    }
+
+    @Test
+    public void testConcurrentDownloadOfSamePartFile() throws Exception {
+        chunkEntered = new CountDownLatch(1);
+        chunkReleased = new CountDownLatch(1);
+        final File partFile = new File(workDir, "biz.part");
+        final File destination = new File(workDir, "biz.jar");
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    newDownloader().download(url, partFile, destination, sha256(), null);
+                } catch (Throwable t) {
+                    failure.set(t);
+                }
+            }
+        });
+        thread.start();
+        try {
+            Assert.assertTrue(chunkEntered.await(30, TimeUnit.SECONDS));
+            try {
+                newDownloader().download(url, partFile, new File(workDir, "other.jar"), null, null);
+                Assert.fail();
+            } catch (IOException ex) {
+                Assert.assertTrue(ex.getMessage().contains("already in progress"));
+            }
+        } finally {
+            chunkReleased.countDown();
+        }
+        thread.join(30000);
+        Assert.assertNull(failure.get());
+        Assert.assertArrayEquals(data, Files.readAllBytes(destination.toPath()));
+    }
+
+    @Test
+    public void testIllegalArguments() throws Exception {
+        try {
+            new FileDownloader().setChunkSize(0);
+            Assert.fail();
+        } catch (IllegalArgumentException ex) {
+            // expected
+        }
+        try {
+            new FileDownloader().setParallelism(-1);
+            Assert.fail();
+        } catch (IllegalArgumentException ex) {
+            // expected
+        }
+
+        File partFile = new File(workDir, "biz.part");
+        try {
+            newDownloader().download(url, partFile, new File(workDir, "biz.jar"), null, "xyz");
+            Assert.fail();
+        } catch (IOException ex) {
+            Assert.assertTrue(ex.getMessage().contains("Illegal CRC-32"));
+        }
+        Assert.assertFalse(partFile.exists());
+    }
+}
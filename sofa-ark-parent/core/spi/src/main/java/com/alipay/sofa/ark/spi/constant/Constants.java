@@ -60,12 +60,28 @@ public class Constants {
     public final static String       PLUGIN_ACTIVE_INCLUDE                         = "ark.plugin.active.include";
     public final static String       PLUGIN_ACTIVE_EXCLUDE                         = "ark.plugin.active.exclude";
 
+    /**
+     * plugin deploy, plugins of the same priority without import relationship are started
+     * concurrently when enabled, plugins of different priority are started in priority order
+     */
+    public final static String       PLUGIN_DEPLOY_PARALLEL_ENABLE                 = "sofa.ark.plugin.deploy.parallel.enable";
+    public final static String       PLUGIN_DEPLOY_PARALLEL_POOL_SIZE              = "sofa.ark.plugin.deploy.parallel.pool.size";
+
     /**
      * biz conf, multi value is split by comma.
      */
     public final static String       BIZ_ACTIVE_INCLUDE                            = "ark.biz.active.include";
     public final static String       BIZ_ACTIVE_EXCLUDE                            = "ark.biz.active.exclude";
 
+    /**
+     * biz deploy, biz modules with the same priority are started concurrently when enabled,
+     * so their startup order within a priority is no longer fixed. Priorities are still
+     * started one after another and master biz is started alone in its priority slot. Biz
+     * main methods run one at a time as they share JVM system properties.
+     */
+    public final static String       BIZ_DEPLOY_PARALLEL_ENABLE                    = "sofa.ark.biz.deploy.parallel.enable";
+    public final static String       BIZ_DEPLOY_PARALLEL_POOL_SIZE                 = "sofa.ark.biz.deploy.parallel.pool.size";
+
     /**
      * Archiver Marker
      */
@@ -181,10 +197,51 @@ public class Constants {
     public final static String       ZOOKEEPER_CONTEXT_SPLIT                       = "/";
     public final static String       CONFIG_INSTALL_BIZ_DIR                        = "com.alipay.sofa.ark.biz.dir";
     public final static String       CONFIG_BIZ_URL                                = "bizUrl";
+    public final static String       CONFIG_BIZ_SHA256                             = "bizSha256";
+    public final static String       CONFIG_BIZ_CRC32                              = "bizCrc32";
+    public final static String       BIZ_DOWNLOAD_CHUNK_SIZE                       = "sofa.ark.biz.download.chunk.size";
+    public final static int          DEFAULT_BIZ_DOWNLOAD_CHUNK_SIZE               = 4 * 1024 * 1024;
+    public final static String       BIZ_DOWNLOAD_PARALLELISM                      = "sofa.ark.biz.download.parallelism";
+    public final static int          DEFAULT_BIZ_DOWNLOAD_PARALLELISM              = 4;
+    public final static String       BIZ_INSTALL_ASYNC_POOL_SIZE                   = "sofa.ark.biz.install.async.pool.size";
+    public final static int          DEFAULT_BIZ_INSTALL_ASYNC_POOL_SIZE           = 2;
+    public final static String       BIZ_INSTALL_ASYNC_QUEUE_SIZE                  = "sofa.ark.biz.install.async.queue.size";
+    public final static int          DEFAULT_BIZ_INSTALL_ASYNC_QUEUE_SIZE          = 64;
+    public final static String       BIZ_OPERATION_BATCH_ENABLE                    = "sofa.ark.biz.operation.batch.enable";
+    public final static String       BIZ_OPERATION_BATCH_POOL_SIZE                 = "sofa.ark.biz.operation.batch.pool.size";
 
     public final static String       CONFIG_CONNECT_TIMEOUT                        = "com.alipay.sofa.ark.config.connect.timeout";
     public final static int          DEFAULT_CONFIG_CONNECT_TIMEOUT                = 20000;
 
+    /**
+     * ClassLoader
+     */
+    public final static String       CLASSLOADER_NEGATIVE_CACHE_SIZE               = "sofa.ark.classloader.negative.cache.size";
+    public final static int          DEFAULT_CLASSLOADER_NEGATIVE_CACHE_SIZE       = 4096;
+    public final static String       CLASSLOADER_RESOURCE_CACHE_ENABLE             = "sofa.ark.classloader.resource.cache.enable";
+    public final static String       CLASSLOADER_RESOURCE_CACHE_SIZE               = "sofa.ark.classloader.resource.cache.size";
+    public final static int          DEFAULT_CLASSLOADER_RESOURCE_CACHE_SIZE       = 1024;
+    public final static String       CLASSLOADER_DIRECT_READ_ENABLE                = "sofa.ark.classloader.direct.read.enable";
+
+    /**
+     * Archive
+     */
+    // the launcher reads the executable ark jar before ark config files are loaded and only
+    // honours the system property, biz and plugin archives honour ark config files as well
+    public final static String       ARCHIVE_MMAP_ENABLE                           = "sofa.ark.archive.mmap.enable";
+    public final static String       ARCHIVE_DISCOVERY_PARALLEL_ENABLE             = "sofa.ark.archive.discovery.parallel.enable";
+    public final static String       ARCHIVE_DISCOVERY_PARALLEL_POOL_SIZE          = "sofa.ark.archive.discovery.parallel.pool.size";
+    public final static String       JAR_ENTRY_CACHE_SIZE                          = "sofa.ark.jar.entry.cache.size";
+    public final static int          DEFAULT_JAR_ENTRY_CACHE_SIZE                  = 256;
+    public final static String       JAR_ENTRY_CACHE_PIN_ALL                       = "sofa.ark.jar.entry.cache.pin.all";
+    // system property only, the executable ark jar is opened before ark config files are loaded
+    public final static String       JAR_INDEX_ENABLE                              = "sofa.ark.jar.index.enable";
+    public final static String       JAR_INFLATER_POOL_SIZE                        = "sofa.ark.jar.inflater.pool.size";
+    public final static int          DEFAULT_JAR_INFLATER_POOL_SIZE                = 32;
+    public final static String       JAR_ROOT_FILE_CACHE_SIZE                      = "sofa.ark.jar.root.file.cache.size";
+    public final static int          DEFAULT_JAR_ROOT_FILE_CACHE_SIZE              = 16;
+    public final static String       JAR_ROOT_FILE_CACHE_SOFT                      = "sofa.ark.jar.root.file.cache.soft";
+
     /**
      * Test ClassLoader
      */
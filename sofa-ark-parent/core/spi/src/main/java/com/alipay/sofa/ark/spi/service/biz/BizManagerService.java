@@ -155,6 +155,10 @@ public interface BizManagerService {
      */
     boolean removeAndAddBiz(Biz addingBiz, Biz removing);
 
+    /**
+     * get a copy of biz registration, keyed by biz name and then biz version
+     * @return
+     */
     ConcurrentHashMap<String, ConcurrentHashMap<String, Biz>> getBizRegistration();
 
 }
\ No newline at end of file
@@ -17,6 +17,7 @@
 package com.alipay.sofa.ark.config;
 
 import com.alipay.sofa.ark.api.ArkClient;
+import com.alipay.sofa.ark.api.ArkConfigs;
 import com.alipay.sofa.ark.api.ClientResponse;
 import com.alipay.sofa.ark.common.log.ArkLogger;
 import com.alipay.sofa.ark.common.log.ArkLoggerFactory;
@@ -25,6 +26,8 @@ import com.alipay.sofa.ark.spi.model.BizOperation;
 import java.util.ArrayList;
 import java.util.List;
 
+import static com.alipay.sofa.ark.spi.constant.Constants.BIZ_OPERATION_BATCH_ENABLE;
+
 /**
  * @author qilong.zq
  * @since 0.6.0
@@ -34,6 +37,11 @@ public class OperationProcessor {
     private final static ArkLogger LOGGER = ArkLoggerFactory.getLogger(OperationProcessor.class);
 
     public static List<ClientResponse> process(List<BizOperation> bizOperations) {
+        if (bizOperations.size() > 1
+            && Boolean.parseBoolean(ArkConfigs.getStringValue(BIZ_OPERATION_BATCH_ENABLE, "false"))) {
+            LOGGER.info("Execute {} biz operations in batch.", bizOperations.size());
+            return ArkClient.batchOperation(bizOperations);
+        }
         List<ClientResponse> clientResponses = new ArrayList<>();
         try {
             for (BizOperation bizOperation : bizOperations) {